@@ -0,0 +1,76 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import practica3.ConcurrentGraph;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga mixta sobre un {@link ConcurrentGraph}: dos hilos añaden aristas
+ * aleatorias mientras otro busca caminos, de modo que cada consulta tras
+ * una inserción obliga a construir una instantánea nueva. Mide el
+ * rendimiento de los productores mientras se reconstruyen instantáneas y
+ * el de las consultas.
+ * <p>
+ * Los resultados solo dicen algo del escalado si la máquina tiene al menos
+ * tantos núcleos como hilos tiene el grupo (tres); con menos, los hilos se
+ * turnan en el mismo núcleo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentGraphBenchmark {
+
+    @Param({"10000", "200000"})
+    int vertices;
+
+    ConcurrentGraph<Integer> grafo;
+
+    /**
+     * Cada iteración parte de un grafo nuevo con un ciclo de
+     * {@code vertices} vértices, para que el tamaño de las instantáneas no
+     * crezca sin límite.
+     */
+    @Setup(Level.Iteration)
+    public void preparar() {
+        grafo = new ConcurrentGraph<>();
+        for (int v = 0; v < vertices; v++) {
+            grafo.addEdge(v, (v + 1) % vertices);
+        }
+        grafo.snapshot();
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(2)
+    public boolean addEdge() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return grafo.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(1)
+    public List<Integer> onePath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return grafo.onePath(random.nextInt(vertices), random.nextInt(vertices));
+    }
+}
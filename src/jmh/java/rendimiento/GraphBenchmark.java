@@ -0,0 +1,136 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import practica3.Graph;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir un {@link Graph} arista a arista y de buscar un camino
+ * entre dos vértices alejados, para varios tamaños y formas:
+ * <ul>
+ *   <li>{@code CAMINO}: una sola cadena, el peor caso de profundidad.</li>
+ *   <li>{@code REJILLA}: rejilla cuadrada, con muchos caminos alternativos.</li>
+ *   <li>{@code ALEATORIO}: grafo aleatorio con grado medio 8.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphBenchmark {
+
+    public enum Forma {
+        CAMINO, REJILLA, ALEATORIO
+    }
+
+    /**
+     * Número de vértices pedido; en una rejilla se redondea hacia abajo a un
+     * cuadrado perfecto.
+     */
+    @Param({"1000", "100000"})
+    int vertices;
+
+    @Param({"CAMINO", "REJILLA", "ALEATORIO"})
+    Forma forma;
+
+    /**
+     * Número real de vértices del grafo generado.
+     */
+    int numeroVertices;
+
+    /**
+     * Aristas como pares consecutivos (origen, destino).
+     */
+    int[] aristas;
+
+    Graph<Integer> grafo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        aristas = generarAristas();
+        grafo = construir();
+    }
+
+    @Benchmark
+    public Graph<Integer> addEdge() {
+        return construir();
+    }
+
+    @Benchmark
+    public List<Integer> onePath() {
+        return grafo.onePath(0, numeroVertices - 1);
+    }
+
+    private Graph<Integer> construir() {
+        Graph<Integer> g = new Graph<>();
+        for (int i = 0; i < aristas.length; i += 2) {
+            g.addEdge(aristas[i], aristas[i + 1]);
+        }
+        return g;
+    }
+
+    private int[] generarAristas() {
+        numeroVertices = vertices;
+        switch (forma) {
+            case CAMINO -> {
+                int[] a = new int[2 * (vertices - 1)];
+                for (int v = 0; v < vertices - 1; v++) {
+                    a[2 * v] = v;
+                    a[2 * v + 1] = v + 1;
+                }
+                return a;
+            }
+            case REJILLA -> {
+                int lado = (int) Math.sqrt(vertices);
+                numeroVertices = lado * lado;
+                int[] a = new int[4 * lado * (lado - 1)];
+                int n = 0;
+                for (int f = 0; f < lado; f++) {
+                    for (int c = 0; c < lado; c++) {
+                        int v = f * lado + c;
+                        if (c + 1 < lado) {
+                            a[n++] = v;
+                            a[n++] = v + 1;
+                        }
+                        if (f + 1 < lado) {
+                            a[n++] = v;
+                            a[n++] = v + lado;
+                        }
+                    }
+                }
+                return a;
+            }
+            default -> {
+                // Un camino garantiza que 0 y vertices - 1 están conectados
+                SplittableRandom random = new SplittableRandom(42);
+                int[] a = new int[8 * vertices];
+                int n = 0;
+                for (int v = 0; v < vertices - 1; v++) {
+                    a[n++] = v;
+                    a[n++] = v + 1;
+                }
+                while (n < a.length) {
+                    a[n++] = random.nextInt(vertices);
+                    a[n++] = random.nextInt(vertices);
+                }
+                return a;
+            }
+        }
+    }
+}
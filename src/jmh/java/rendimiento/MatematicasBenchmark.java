@@ -0,0 +1,53 @@
+package rendimiento;
+
+import mates.EstimacionPi;
+import mates.Matematicas;
+import mates.MetodoPi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de estimar π por Montecarlo según el número de muestras, con el
+ * método original y con cada uno de los de {@link MetodoPi}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatematicasBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    long pasos;
+
+    /**
+     * Método de estimación; solo lo usa {@link #generarNumeroPiConMetodo}.
+     */
+    @State(Scope.Benchmark)
+    public static class Metodo {
+
+        @Param({"UNIFORME", "ANTITETICO", "ESTRATIFICADO", "SOBOL"})
+        MetodoPi metodo;
+    }
+
+    @Benchmark
+    public double generarNumeroPi() {
+        return Matematicas.generarNumeroPi(pasos);
+    }
+
+    @Benchmark
+    public EstimacionPi generarNumeroPiConMetodo(Metodo metodo) {
+        return Matematicas.generarNumeroPi(pasos, 42L, metodo.metodo);
+    }
+}
@@ -0,0 +1,190 @@
+package rendimiento;
+
+import dominio.Tablero;
+import dominio.TableroCompacto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de una generación del Juego de la Vida.
+ * <p>
+ * {@link Tablero} y {@link TableroCompacto} se miden con varios tamaños y
+ * densidades. Cada estado prepara al principio {@value #ESTADOS} tableros
+ * iniciales distintos y un tablero de trabajo de larga vida; cada invocación
+ * copia en este uno de los iniciales (sin reservar memoria ni leer de disco)
+ * y avanza {@value #GENERACIONES} generaciones, de modo que la densidad
+ * medida es la del parámetro y no la de un tablero ya estabilizado.
+ * <p>
+ * La copia entra en la medida, porque un {@code Level.Invocation} costaría
+ * más que ella en los tableros pequeños. Los métodos {@code reinicio...}
+ * miden solo la copia, con la misma unidad, para poder restarla. El
+ * resultado se da por generación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableroBenchmark {
+
+    /**
+     * Estados iniciales distintos entre los que se alterna.
+     */
+    static final int ESTADOS = 8;
+
+    /**
+     * Generaciones que se avanzan desde cada estado inicial.
+     */
+    static final int GENERACIONES = 8;
+
+    /**
+     * Tablero del tamaño, densidad y topología indicados.
+     */
+    @State(Scope.Thread)
+    public static class EstadoTablero {
+
+        @Param({"30", "128", "512"})
+        int lado;
+
+        @Param({"0.1", "0.35", "0.5"})
+        double densidad;
+
+        @Param({"PLANO", "TOROIDE"})
+        Tablero.Topologia topologia;
+
+        Tablero tablero;
+        Tablero[] iniciales;
+        int siguiente;
+
+        /**
+         * {@link Tablero} solo se rellena desde un fichero, así que los
+         * estados iniciales se escriben en ficheros temporales que se borran
+         * en cuanto se han cargado.
+         */
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            iniciales = new Tablero[ESTADOS];
+            for (int k = 0; k < ESTADOS; k++) {
+                SplittableRandom random = new SplittableRandom(42 + k);
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < lado; i++) {
+                    for (int j = 0; j < lado; j++) {
+                        sb.append(random.nextDouble() < densidad ? '1' : '0');
+                    }
+                    sb.append('\n');
+                }
+                Path fichero = Files.createTempFile("tablero", ".txt");
+                try {
+                    Files.writeString(fichero, sb);
+                    iniciales[k] = new Tablero(lado, lado);
+                    iniciales[k].leerEstadoActual(fichero.toString());
+                } finally {
+                    Files.deleteIfExists(fichero);
+                }
+            }
+            tablero = new Tablero(lado, lado);
+            tablero.setTopologia(topologia);
+        }
+
+        void reiniciar() {
+            tablero.copiarEstado(iniciales[siguiente]);
+            siguiente = (siguiente + 1) % ESTADOS;
+        }
+    }
+
+    /**
+     * Tablero compacto del tamaño y densidad indicados.
+     */
+    @State(Scope.Thread)
+    public static class EstadoCompacto {
+
+        @Param({"64", "512", "2048"})
+        int lado;
+
+        @Param({"0.1", "0.35", "0.5"})
+        double densidad;
+
+        TableroCompacto tablero;
+        TableroCompacto[] iniciales;
+        int siguiente;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            iniciales = new TableroCompacto[ESTADOS];
+            for (int k = 0; k < ESTADOS; k++) {
+                SplittableRandom random = new SplittableRandom(42 + k);
+                iniciales[k] = new TableroCompacto(lado, lado);
+                for (int i = 0; i < lado; i++) {
+                    for (int j = 0; j < lado; j++) {
+                        if (random.nextDouble() < densidad) {
+                            iniciales[k].establecerCelula(i, j, true);
+                        }
+                    }
+                }
+            }
+            tablero = new TableroCompacto(lado, lado);
+        }
+
+        void reiniciar() {
+            tablero.copiarEstado(iniciales[siguiente]);
+            siguiente = (siguiente + 1) % ESTADOS;
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            tablero.close();
+            for (TableroCompacto inicial : iniciales) {
+                inicial.close();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERACIONES)
+    public void tablero(EstadoTablero estado, Blackhole bh) {
+        estado.reiniciar();
+        estado.tablero.avanzar(GENERACIONES);
+        bh.consume(estado.tablero);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERACIONES)
+    public void reinicioTablero(EstadoTablero estado, Blackhole bh) {
+        estado.reiniciar();
+        bh.consume(estado.tablero);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERACIONES)
+    public void tableroCompacto(EstadoCompacto estado, Blackhole bh) {
+        estado.reiniciar();
+        estado.tablero.avanzar(GENERACIONES);
+        bh.consume(estado.tablero);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERACIONES)
+    public void reinicioCompacto(EstadoCompacto estado, Blackhole bh) {
+        estado.reiniciar();
+        bh.consume(estado.tablero);
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.examentecnicas;
+
+import dominio.Tablero;
+import dominio.TableroCompacto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import mates.EstimacionPi;
+import mates.Matematicas;
+import mates.MetodoPi;
+import practica3.CsrGraph;
+import practica3.EdgeListLoader;
+import practica3.PathFinder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo por lotes de la aplicación: ejecuta sin interacción una lista de
+ * {@linkplain TrabajoLote trabajos} independientes y escribe el resultado de
+ * cada uno como una línea JSON en cuanto termina.
+ * <p>
+ * Parámetros de cada tipo de trabajo:
+ * <ul>
+ *   <li>{@code pi}: {@code muestras} (obligatorio), {@code metodo}
+ *   ({@link MetodoPi}, por defecto {@code UNIFORME}) y {@code semilla}.</li>
+ *   <li>{@code vida}: {@code generaciones} (obligatorio) y {@code fichero}
+ *   con el estado inicial (si falta, se genera al azar). Con {@code filas} y
+ *   {@code columnas} se usa un {@link TableroCompacto} de ese tamaño; sin
+ *   ellos, un {@link Tablero} de 30x30. El tablero compacto admite además
+ *   {@code almacenamiento} ({@code heap} o {@code directo}) o
+ *   {@code proyeccion}, un fichero en el que proyectar su estado (véase
+ *   {@link TableroCompacto.Almacenamiento}).</li>
+ *   <li>{@code camino}: {@code grafo} (fichero de aristas en texto, o binario
+ *   si termina en {@code .bin}; véase {@link EdgeListLoader}), {@code desde}
+ *   y {@code hasta}. Cada grafo se carga una sola vez aunque lo usen varios
+ *   trabajos.</li>
+ * </ul>
+ * Cada línea de salida tiene la forma
+ * {@code {"id":1,"tipo":"pi","trabajo":"...","estado":"ok","ms":12.5,"resultado":{...}}},
+ * o {@code "estado":"error"} con el mensaje en {@code "error"}.
+ * <p>
+ * Como mucho se ejecutan a la vez tantos trabajos como hilos se indiquen.
+ * Con Java 21 o posterior cada trabajo corre en un hilo virtual; en versiones
+ * anteriores, en un pool fijo de ese tamaño.
+ */
+public class EjecutorLotes {
+
+    private final int hilos;
+    private final MeterRegistry registro;
+
+    /**
+     * Grafos ya cargados (o cargándose), por ruta.
+     */
+    private final Map<String, FutureTask<CsrGraph<Integer>>> grafos = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un ejecutor.
+     *
+     * @param hilos    Número máximo de trabajos simultáneos.
+     * @param registro Registro de métricas para los motores, o {@code null}.
+     * @throws IllegalArgumentException Si el número de hilos no es positivo.
+     */
+    public EjecutorLotes(int hilos, MeterRegistry registro) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser mayor que 0.");
+        }
+        this.hilos = hilos;
+        this.registro = registro;
+    }
+
+    /**
+     * Lee las especificaciones de un fichero de trabajos: una por línea,
+     * ignorando las líneas vacías y las que empiezan por {@code '#'}.
+     *
+     * @param fichero Fichero de trabajos.
+     * @return Especificaciones en el orden del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public static List<String> leerFichero(Path fichero) throws IOException {
+        List<String> especificaciones = new ArrayList<>();
+        for (String linea : Files.readAllLines(fichero)) {
+            String texto = linea.strip();
+            if (!texto.isEmpty() && !texto.startsWith("#")) {
+                especificaciones.add(texto);
+            }
+        }
+        return especificaciones;
+    }
+
+    /**
+     * Analiza las especificaciones, numerando los trabajos desde 1.
+     *
+     * @param especificaciones Textos {@code tipo:clave=valor,...}.
+     * @return Trabajos equivalentes.
+     * @throws IllegalArgumentException Si alguna especificación no es válida.
+     */
+    public static List<TrabajoLote> analizar(List<String> especificaciones) {
+        List<TrabajoLote> trabajos = new ArrayList<>(especificaciones.size());
+        for (String especificacion : especificaciones) {
+            trabajos.add(TrabajoLote.analizar(trabajos.size() + 1, especificacion));
+        }
+        return trabajos;
+    }
+
+    /**
+     * Ejecuta los trabajos y espera a que terminen todos.
+     *
+     * @param trabajos Trabajos a ejecutar.
+     * @param salida   Flujo en el que se escribe una línea JSON por trabajo.
+     * @return Número de trabajos que han fallado.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public int ejecutar(List<TrabajoLote> trabajos, PrintStream salida) throws InterruptedException {
+        Semaphore permisos = new Semaphore(hilos);
+        AtomicInteger fallos = new AtomicInteger();
+        ExecutorService ejecutor = crearEjecutor(hilos);
+        try {
+            List<Future<?>> pendientes = new ArrayList<>(trabajos.size());
+            for (TrabajoLote trabajo : trabajos) {
+                pendientes.add(ejecutor.submit(() -> {
+                    permisos.acquireUninterruptibly();
+                    try {
+                        Map<String, Object> linea = ejecutar(trabajo);
+                        if ("error".equals(linea.get("estado"))) {
+                            fallos.incrementAndGet();
+                        }
+                        String texto = json(linea);
+                        synchronized (salida) {
+                            salida.println(texto);
+                            salida.flush();
+                        }
+                    } finally {
+                        permisos.release();
+                    }
+                }));
+            }
+            for (Future<?> pendiente : pendientes) {
+                try {
+                    pendiente.get();
+                } catch (ExecutionException e) {
+                    fallos.incrementAndGet();
+                }
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        return fallos.get();
+    }
+
+    /**
+     * Ejecuta un trabajo y devuelve los campos de su línea de salida.
+     */
+    private Map<String, Object> ejecutar(TrabajoLote trabajo) {
+        Map<String, Object> linea = new LinkedHashMap<>();
+        linea.put("id", trabajo.getId());
+        linea.put("tipo", trabajo.getTipo().name().toLowerCase(Locale.ROOT));
+        linea.put("trabajo", trabajo.toString());
+        long inicio = System.nanoTime();
+        try {
+            Map<String, Object> resultado = switch (trabajo.getTipo()) {
+                case PI -> ejecutarPi(trabajo);
+                case VIDA -> ejecutarVida(trabajo);
+                case CAMINO -> ejecutarCamino(trabajo);
+            };
+            linea.put("estado", "ok");
+            linea.put("ms", (System.nanoTime() - inicio) / 1e6);
+            linea.put("resultado", resultado);
+        } catch (Exception e) {
+            linea.put("estado", "error");
+            linea.put("ms", (System.nanoTime() - inicio) / 1e6);
+            linea.put("error", (e.getMessage() == null) ? e.toString() : e.getMessage());
+        }
+        return linea;
+    }
+
+    private Map<String, Object> ejecutarPi(TrabajoLote trabajo) {
+        long muestras = trabajo.getEntero("muestras");
+        String nombreMetodo = trabajo.getParametro("metodo");
+        MetodoPi metodo = (nombreMetodo == null) ? MetodoPi.UNIFORME
+                : MetodoPi.valueOf(nombreMetodo.toUpperCase(Locale.ROOT));
+        long semilla = trabajo.getEntero("semilla", System.nanoTime());
+
+        EstimacionPi estimacion = Matematicas.generarNumeroPi(muestras, semilla, metodo);
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("metodo", metodo.name());
+        resultado.put("valor", estimacion.getValor());
+        resultado.put("errorEstandar", estimacion.getErrorEstandar());
+        resultado.put("muestras", estimacion.getMuestras());
+        resultado.put("muestrasPorSegundo", estimacion.getMuestrasPorSegundo());
+        return resultado;
+    }
+
+    private static TableroCompacto crearTableroCompacto(TrabajoLote trabajo) throws IOException {
+        int filas = Math.toIntExact(trabajo.getEntero("filas"));
+        int columnas = Math.toIntExact(trabajo.getEntero("columnas"));
+        String proyeccion = trabajo.getParametro("proyeccion");
+        if (proyeccion != null) {
+            return new TableroCompacto(filas, columnas, Path.of(proyeccion));
+        }
+        String almacenamiento = trabajo.getParametro("almacenamiento");
+        if (almacenamiento == null) {
+            return new TableroCompacto(filas, columnas);
+        }
+        try {
+            return new TableroCompacto(filas, columnas,
+                    TableroCompacto.Almacenamiento.valueOf(almacenamiento.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Almacenamiento no válido: '" + almacenamiento
+                    + "'. Use heap o directo, o indique una proyeccion.");
+        }
+    }
+
+    private Map<String, Object> ejecutarVida(TrabajoLote trabajo) throws IOException {
+        int generaciones = Math.toIntExact(trabajo.getEntero("generaciones"));
+        String fichero = trabajo.getParametro("fichero");
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        long vivas;
+        long nanos;
+        if (trabajo.getParametro("filas") != null || trabajo.getParametro("columnas") != null) {
+            // Fuera del heap la memoria se libera al cerrar, no al recolectar
+            try (TableroCompacto tablero = crearTableroCompacto(trabajo)) {
+                if (registro != null) {
+                    tablero.registrarMetricas(registro, Tag.of("trabajo", String.valueOf(trabajo.getId())));
+                }
+                if (fichero == null) {
+                    tablero.generarEstadoActualPorMontecarlo();
+                } else {
+                    tablero.leerEstadoActual(fichero);
+                }
+                long inicio = System.nanoTime();
+                tablero.avanzar(generaciones);
+                nanos = System.nanoTime() - inicio;
+                vivas = tablero.contarCelulasVivas();
+                resultado.put("filas", tablero.getFilas());
+                resultado.put("columnas", tablero.getColumnas());
+                resultado.put("almacenamiento", tablero.getAlmacenamiento().name().toLowerCase(Locale.ROOT));
+            }
+        } else {
+            Tablero tablero = new Tablero();
+            if (registro != null) {
+                tablero.registrarMetricas(registro, Tag.of("trabajo", String.valueOf(trabajo.getId())));
+            }
+            if (fichero == null) {
+                tablero.generarEstadoActualPorMontecarlo();
+            } else {
+                tablero.leerEstadoActual(fichero);
+            }
+            long inicio = System.nanoTime();
+            tablero.avanzar(generaciones);
+            nanos = System.nanoTime() - inicio;
+            vivas = tablero.contarCelulasVivas();
+            resultado.put("filas", tablero.getFilas());
+            resultado.put("columnas", tablero.getColumnas());
+        }
+        resultado.put("generaciones", generaciones);
+        resultado.put("celulasVivas", vivas);
+        resultado.put("generacionesPorSegundo", (nanos == 0) ? 0.0 : generaciones * 1e9 / nanos);
+        return resultado;
+    }
+
+    private Map<String, Object> ejecutarCamino(TrabajoLote trabajo) throws Exception {
+        String ruta = trabajo.getParametro("grafo");
+        if (ruta == null) {
+            throw new IllegalArgumentException("Falta el parámetro 'grafo'.");
+        }
+        int desde = Math.toIntExact(trabajo.getEntero("desde"));
+        int hasta = Math.toIntExact(trabajo.getEntero("hasta"));
+        CsrGraph<Integer> grafo = cargarGrafo(ruta);
+        // En los grafos cargados de fichero el identificador es el propio vértice
+        int[] camino = (grafo.containsId(desde) && grafo.containsId(hasta))
+                ? new PathFinder<>(grafo).bidirectionalShortestPathById(desde, hasta)
+                : null;
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("vertices", grafo.vertexCount());
+        resultado.put("aristas", grafo.edgeCount());
+        resultado.put("longitud", (camino == null) ? -1 : camino.length - 1);
+        resultado.put("camino", camino);
+        return resultado;
+    }
+
+    /**
+     * Carga el grafo de {@code ruta}, o espera a que lo cargue otro trabajo.
+     */
+    private CsrGraph<Integer> cargarGrafo(String ruta) throws Exception {
+        FutureTask<CsrGraph<Integer>> nueva = new FutureTask<>(() -> ruta.endsWith(".bin")
+                ? EdgeListLoader.loadBinary(Path.of(ruta))
+                : EdgeListLoader.loadText(Path.of(ruta)));
+        FutureTask<CsrGraph<Integer>> carga = grafos.putIfAbsent(ruta, nueva);
+        if (carga == null) {
+            carga = nueva;
+            carga.run();
+        }
+        try {
+            return carga.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Crea el ejecutor de los trabajos: hilos virtuales si la JVM los tiene
+     * (el semáforo limita cuántos trabajan a la vez) y, si no, un pool fijo.
+     */
+    private static ExecutorService crearEjecutor(int hilos) {
+        try {
+            Method virtuales = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuales.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(hilos);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // JSON
+    // ------------------------------------------------------------------
+
+    /**
+     * Escribe en JSON mapas, cadenas, números, booleanos, {@code int[]} y
+     * {@code null}.
+     */
+    static String json(Object valor) {
+        StringBuilder sb = new StringBuilder();
+        escribirJson(sb, valor);
+        return sb.toString();
+    }
+
+    private static void escribirJson(StringBuilder sb, Object valor) {
+        if (valor == null) {
+            sb.append("null");
+        } else if (valor instanceof Map<?, ?> mapa) {
+            sb.append('{');
+            boolean primero = true;
+            for (Map.Entry<?, ?> entrada : mapa.entrySet()) {
+                if (!primero) {
+                    sb.append(',');
+                }
+                primero = false;
+                escribirCadena(sb, String.valueOf(entrada.getKey()));
+                sb.append(':');
+                escribirJson(sb, entrada.getValue());
+            }
+            sb.append('}');
+        } else if (valor instanceof int[] enteros) {
+            sb.append('[');
+            for (int i = 0; i < enteros.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(enteros[i]);
+            }
+            sb.append(']');
+        } else if (valor instanceof Double d && (d.isNaN() || d.isInfinite())) {
+            sb.append("null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            sb.append(valor);
+        } else {
+            escribirCadena(sb, valor.toString());
+        }
+    }
+
+    private static void escribirCadena(StringBuilder sb, String texto) {
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
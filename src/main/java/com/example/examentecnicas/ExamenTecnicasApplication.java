@@ -1,15 +1,21 @@
 package com.example.examentecnicas;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import mates.Matematicas;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import mates.Matematicas;      // Práctica 1
-import dominio.Tablero;       // Práctica 2
-import practica3.Graph;       // Práctica 3
 
 import java.io.IOException;
-import java.util.Scanner;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Clase principal de la aplicación Spring Boot que integra tres prácticas:
@@ -19,178 +25,158 @@ import java.util.concurrent.TimeUnit;
  *   <li>Grafo - Búsqueda de camino (Práctica 3)</li>
  * </ul>
  *
- * Ofrece un menú interactivo en la consola para que el usuario seleccione la
- * práctica a ejecutar. Al terminar cada práctica, el programa regresa al menú
- * principal, permitiendo ejecutar otra práctica o salir.
+ * Tiene dos modos:
+ * <ul>
+ *   <li><b>Por lotes</b>: si se indican trabajos con {@code --trabajo=...}
+ *   (se puede repetir) o {@code --trabajos=fichero}, se ejecutan con
+ *   {@link EjecutorLotes} en hasta {@code --hilos} hilos (por defecto, uno
+ *   por núcleo) y se escribe una línea JSON por trabajo. El código de
+ *   salida es {@value #SALIDA_FALLOS} si algún trabajo falla y
+ *   {@value #SALIDA_USO} si los argumentos no son válidos.</li>
+ *   <li><b>Interactivo</b>: en otro caso se muestra el {@link MenuConsola},
+ *   salvo que la propiedad {@code examen.interactivo} sea {@code false}.</li>
+ * </ul>
  */
 @SpringBootApplication
-public class ExamenTecnicasApplication implements CommandLineRunner {
+public class ExamenTecnicasApplication implements CommandLineRunner, ExitCodeGenerator, DisposableBean {
 
     /**
-     * Método principal que inicia la aplicación Spring Boot.
-     *
-     * @param args Argumentos de línea de comando (no se utilizan en este proyecto).
+     * Código de salida cuando falla algún trabajo por lotes.
      */
-    public static void main(String[] args) {
-        SpringApplication.run(ExamenTecnicasApplication.class, args);
-    }
+    static final int SALIDA_FALLOS = 1;
 
     /**
-     * Sobrescribe el método run de CommandLineRunner para mostrar el menú interactivo
-     * en consola y ejecutar la práctica seleccionada por el usuario.
-     *
-     * @param args Argumentos de línea de comando pasados a la aplicación.
-     * @throws Exception Si ocurre alguna excepción durante la ejecución de las prácticas.
+     * Código de salida cuando los argumentos no son válidos.
      */
-    @Override
-    public void run(String... args) throws Exception {
-        Scanner sc = new Scanner(System.in);
+    static final int SALIDA_USO = 2;
 
-        while (true) {
-            System.out.println("\n======================================");
-            System.out.println("    ¡Bienvenido al ExamenTecnicas!    ");
-            System.out.println("======================================");
-            System.out.println("Seleccione la práctica que desea ejecutar:");
-            System.out.println("1) Aproximación de PI (Práctica 1)");
-            System.out.println("2) Juego de la Vida (Práctica 2)");
-            System.out.println("3) Grafo - Búsqueda de camino (Práctica 3)");
-            System.out.println("0) Salir");
-            System.out.println("--------------------------------------");
-            System.out.print("Ingrese su opción: ");
+    /**
+     * Registro de métricas del contexto, o {@code null} si no hay ninguno
+     * (por ejemplo, sin Actuator); en ese caso los motores no miden nada.
+     */
+    private final MeterRegistry registro;
 
-            int opcion;
-            try {
-                opcion = Integer.parseInt(sc.nextLine());
-            } catch (NumberFormatException e) {
-                System.out.println("Opción inválida. Intente de nuevo.");
-                continue;
-            }
+    /**
+     * Indica si, sin trabajos por lotes, se muestra el menú interactivo.
+     */
+    private final boolean interactivo;
 
-            if (opcion == 0) {
-                System.out.println("Saliendo de la aplicación...");
-                break; // Sale del bucle y termina la aplicación
-            }
+    /**
+     * Código de salida de la última ejecución.
+     */
+    private int codigoSalida;
 
-            switch (opcion) {
-                case 1:
-                    ejecutarPractica1(sc);
-                    break;
-                case 2:
-                    ejecutarPractica2(sc);
-                    break;
-                case 3:
-                    ejecutarPractica3();
-                    break;
-                default:
-                    System.out.println("Opción inválida. Intente de nuevo.");
-            }
+    /**
+     * Crea la aplicación con el registro de métricas del contexto, si existe,
+     * y publica en él las métricas de {@link Matematicas} hasta que se
+     * cierre el contexto.
+     *
+     * @param registro    Proveedor del registro de métricas.
+     * @param interactivo Valor de la propiedad {@code examen.interactivo}.
+     */
+    public ExamenTecnicasApplication(ObjectProvider<MeterRegistry> registro,
+                                     @Value("${examen.interactivo:true}") boolean interactivo) {
+        this.registro = registro.getIfAvailable();
+        this.interactivo = interactivo;
+        if (this.registro != null) {
+            Matematicas.registrarMetricas(this.registro);
         }
     }
 
     /**
-     * Ejecuta la Práctica 1: Aproximación de PI mediante el método de Montecarlo.
-     * <p>
-     * Pide al usuario la cantidad de puntos a generar, invoca el método
-     * {@code Matematicas.generarNumeroPi} y muestra el resultado en consola.
-     *
-     * @param sc Objeto Scanner para leer la entrada del usuario.
+     * Al cerrar el contexto, deja de publicar las métricas de
+     * {@link Matematicas} en su registro.
      */
-    private void ejecutarPractica1(Scanner sc) {
-        System.out.println("\n=== Práctica 1: Aproximación de PI ===");
-        System.out.print("Ingrese la cantidad de puntos a generar: ");
-
-        long pasos;
-        try {
-            pasos = Long.parseLong(sc.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Entrada inválida. Debe ser un número entero.");
-            return;
+    @Override
+    public void destroy() {
+        if (registro != null) {
+            Matematicas.retirarMetricas(registro);
         }
-
-        double piAprox = Matematicas.generarNumeroPi(pasos);
-        System.out.println("Resultado: El número PI aproximado es " + piAprox);
-        System.out.println("=========================================");
     }
 
     /**
-     * Ejecuta la Práctica 2: Juego de la Vida.
-     * <p>
-     * Permite elegir entre leer el estado inicial desde un fichero o generarlo
-     * aleatoriamente, y luego simula un número determinado de iteraciones,
-     * mostrando la evolución del tablero en consola.
+     * Método principal que inicia la aplicación Spring Boot.
      *
-     * @param sc Objeto Scanner para leer la entrada del usuario.
-     * @throws InterruptedException Si ocurre un error durante las pausas entre generaciones.
+     * @param args Argumentos de línea de comando (véase la descripción de la clase).
      */
-    private void ejecutarPractica2(Scanner sc) throws InterruptedException {
-        System.out.println("\n=== Práctica 2: Juego de la Vida ===");
-        Tablero tablero = new Tablero();
-
-        System.out.println("1) Leer estado inicial desde fichero 'matriz'");
-        System.out.println("2) Generar estado inicial aleatorio (Montecarlo)");
-        System.out.print("Elija una opción (1 o 2): ");
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(ExamenTecnicasApplication.class, args)));
+    }
 
-        int opcion = 0;
-        try {
-            opcion = Integer.parseInt(sc.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Opción inválida. Usando opción 1 por defecto.");
-            opcion = 1;
+    /**
+     * Sobrescribe el método run de CommandLineRunner para ejecutar los
+     * trabajos por lotes indicados o, si no hay ninguno, mostrar el menú
+     * interactivo en consola.
+     *
+     * @param args Argumentos de línea de comando pasados a la aplicación.
+     * @throws Exception Si ocurre alguna excepción durante la ejecución de las prácticas.
+     */
+    @Override
+    public void run(String... args) throws Exception {
+        codigoSalida = 0;
+        ApplicationArguments argumentos = new DefaultApplicationArguments(args);
+        List<String> especificaciones = new ArrayList<>();
+        if (argumentos.containsOption("trabajo")) {
+            especificaciones.addAll(argumentos.getOptionValues("trabajo"));
+        }
+        if (argumentos.containsOption("trabajos")) {
+            for (String fichero : argumentos.getOptionValues("trabajos")) {
+                try {
+                    especificaciones.addAll(EjecutorLotes.leerFichero(Path.of(fichero)));
+                } catch (IOException e) {
+                    errorDeUso("No se puede leer el fichero de trabajos '" + fichero + "': " + e);
+                    return;
+                }
+            }
         }
 
-        if (opcion == 2) {
-            System.out.println("Generando estado inicial aleatorio...");
-            tablero.generarEstadoActualPorMontecarlo();
-        } else {
-            System.out.println("Leyendo estado inicial desde fichero 'matriz'...");
+        if (!especificaciones.isEmpty()) {
+            int hilos = Runtime.getRuntime().availableProcessors();
+            if (argumentos.containsOption("hilos")) {
+                String valor = argumentos.getOptionValues("hilos").get(0);
+                try {
+                    hilos = Integer.parseInt(valor.strip());
+                } catch (NumberFormatException e) {
+                    hilos = 0;
+                }
+                if (hilos < 1) {
+                    errorDeUso("Valor de --hilos no válido: '" + valor + "'. Debe ser un entero mayor que 0.");
+                    return;
+                }
+            }
+            List<TrabajoLote> trabajos;
             try {
-                tablero.leerEstadoActual();
-            } catch (IOException e) {
-                System.out.println("Error al leer el fichero: " + e.getMessage());
+                trabajos = EjecutorLotes.analizar(especificaciones);
+            } catch (IllegalArgumentException e) {
+                errorDeUso(e.getMessage());
                 return;
             }
+            int fallos = new EjecutorLotes(hilos, registro).ejecutar(trabajos, System.out);
+            if (fallos > 0) {
+                System.err.println(fallos + " de " + especificaciones.size() + " trabajos han fallado.");
+                codigoSalida = SALIDA_FALLOS;
+            }
+        } else if (interactivo) {
+            new MenuConsola(registro).ejecutar();
         }
-
-        System.out.println("Estado inicial:\n" + tablero);
-
-        // Pedir cuántas iteraciones
-        System.out.print("¿Cuántas iteraciones desea simular? (ej: 5): ");
-        int iteraciones = 5;
-        try {
-            iteraciones = Integer.parseInt(sc.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Entrada inválida. Usando 5 por defecto.");
-        }
-
-        for (int i = 1; i <= iteraciones; i++) {
-            TimeUnit.SECONDS.sleep(1); // Pausa de 1 segundo
-            tablero.transitarAlEstadoSiguiente();
-            System.out.println("Generación " + i + ":\n" + tablero);
-        }
-        System.out.println("=========================================");
     }
 
     /**
-     * Ejecuta la Práctica 3: Grafo y Búsqueda de un camino.
-     * <p>
-     * Construye un grafo de ejemplo y busca un camino entre dos nodos, mostrando
-     * el resultado en consola.
+     * @return Código de salida de la última ejecución: 0 si todo ha ido
+     *         bien, {@value #SALIDA_FALLOS} si ha fallado algún trabajo y
+     *         {@value #SALIDA_USO} si los argumentos no eran válidos.
      */
-    private void ejecutarPractica3() {
-        System.out.println("\n=== Práctica 3: Búsqueda de un camino en Grafo ===");
-        Graph<Integer> g = new Graph<>();
-        // Ejemplo simple
-        g.addEdge(1, 2);
-        g.addEdge(3, 4);
-        g.addEdge(1, 5);
-        g.addEdge(5, 6);
-        g.addEdge(6, 4);
-
-        System.out.println("Grafo construido (no dirigido). Lista de adyacencia:");
-        System.out.println(g);
+    @Override
+    public int getExitCode() {
+        return codigoSalida;
+    }
 
-        System.out.println("Buscando un camino desde 1 hasta 4...");
-        System.out.println("Camino encontrado: " + g.onePath(1, 4));
-        System.out.println("=========================================");
+    /**
+     * Informa de un error en los argumentos, sin traza de la pila.
+     */
+    private void errorDeUso(String mensaje) {
+        System.err.println(mensaje);
+        System.err.println("Uso: --trabajo=tipo:clave=valor,... [--trabajos=fichero] [--hilos=N]");
+        codigoSalida = SALIDA_USO;
     }
 }
@@ -0,0 +1,224 @@
+package com.example.examentecnicas;
+
+import dominio.LimitadorFotogramas;
+import dominio.RenderizadorTablero;
+import dominio.Tablero;       // Práctica 2
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import mates.EstimadorPiIncremental; // Práctica 1
+import mates.ProgresoPi;
+import practica3.Graph;       // Práctica 3
+
+import java.io.IOException;
+import java.util.Scanner;
+
+/**
+ * Menú interactivo en la consola para que el usuario seleccione la práctica
+ * a ejecutar. Al terminar cada práctica, el programa regresa al menú
+ * principal, permitiendo ejecutar otra práctica o salir.
+ * <p>
+ * Es uno de los dos modos de la aplicación; el otro, sin interacción, es
+ * {@link EjecutorLotes}.
+ */
+class MenuConsola {
+
+    /**
+     * Velocidad máxima de reproducción del Juego de la Vida (generaciones
+     * mostradas por segundo).
+     */
+    private static final double FOTOGRAMAS_POR_SEGUNDO = 1.0;
+
+    /**
+     * Registro de métricas, o {@code null} si no se miden los motores.
+     */
+    private final MeterRegistry registro;
+
+    /**
+     * @param registro Registro de métricas, o {@code null}.
+     */
+    MenuConsola(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Muestra el menú y ejecuta las prácticas elegidas hasta que el usuario
+     * sale.
+     *
+     * @throws Exception Si ocurre alguna excepción durante la ejecución de las prácticas.
+     */
+    void ejecutar() throws Exception {
+        Scanner sc = new Scanner(System.in);
+
+        while (true) {
+            System.out.println("\n======================================");
+            System.out.println("    ¡Bienvenido al ExamenTecnicas!    ");
+            System.out.println("======================================");
+            System.out.println("Seleccione la práctica que desea ejecutar:");
+            System.out.println("1) Aproximación de PI (Práctica 1)");
+            System.out.println("2) Juego de la Vida (Práctica 2)");
+            System.out.println("3) Grafo - Búsqueda de camino (Práctica 3)");
+            System.out.println("0) Salir");
+            System.out.println("--------------------------------------");
+            System.out.print("Ingrese su opción: ");
+
+            int opcion;
+            try {
+                opcion = Integer.parseInt(sc.nextLine());
+            } catch (NumberFormatException e) {
+                System.out.println("Opción inválida. Intente de nuevo.");
+                continue;
+            }
+
+            if (opcion == 0) {
+                System.out.println("Saliendo de la aplicación...");
+                break; // Sale del bucle y termina la aplicación
+            }
+
+            switch (opcion) {
+                case 1:
+                    ejecutarPractica1(sc);
+                    break;
+                case 2:
+                    ejecutarPractica2(sc);
+                    break;
+                case 3:
+                    ejecutarPractica3();
+                    break;
+                default:
+                    System.out.println("Opción inválida. Intente de nuevo.");
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la Práctica 1: Aproximación de PI mediante el método de Montecarlo.
+     * <p>
+     * Pide al usuario la cantidad de puntos a generar y los calcula por lotes
+     * con {@code EstimadorPiIncremental}, mostrando en consola la estimación
+     * y su intervalo de confianza a medida que avanza.
+     *
+     * @param sc Objeto Scanner para leer la entrada del usuario.
+     */
+    private void ejecutarPractica1(Scanner sc) {
+        System.out.println("\n=== Práctica 1: Aproximación de PI ===");
+        System.out.print("Ingrese la cantidad de puntos a generar: ");
+
+        long pasos;
+        try {
+            pasos = Long.parseLong(sc.nextLine());
+        } catch (NumberFormatException e) {
+            System.out.println("Entrada inválida. Debe ser un número entero.");
+            return;
+        }
+
+        if (pasos < 1) {
+            System.out.println("Entrada inválida. Debe ser un número mayor que 0.");
+            return;
+        }
+
+        EstimadorPiIncremental estimador = new EstimadorPiIncremental();
+        estimador.setMaxMuestras(pasos);
+        estimador.agregarOyente(progreso -> System.out.print("\r" + progreso));
+        ProgresoPi resultado = estimador.estimar(System.nanoTime());
+        System.out.println();
+        System.out.println("Resultado: El número PI aproximado es " + resultado.getEstimacion().getValor());
+        System.out.println("=========================================");
+    }
+
+    /**
+     * Ejecuta la Práctica 2: Juego de la Vida.
+     * <p>
+     * Permite elegir entre leer el estado inicial desde un fichero o generarlo
+     * aleatoriamente, y luego simula un número determinado de iteraciones,
+     * mostrando la evolución del tablero en consola. Cada generación se
+     * dibuja en un búfer reutilizable y se escribe directamente en la salida,
+     * a un ritmo máximo de {@value #FOTOGRAMAS_POR_SEGUNDO} generaciones por
+     * segundo.
+     *
+     * @param sc Objeto Scanner para leer la entrada del usuario.
+     * @throws InterruptedException Si ocurre un error durante las pausas entre generaciones.
+     * @throws IOException          Si ocurre un error al escribir en la consola.
+     */
+    private void ejecutarPractica2(Scanner sc) throws InterruptedException, IOException {
+        System.out.println("\n=== Práctica 2: Juego de la Vida ===");
+        Tablero tablero = new Tablero();
+        if (registro != null) {
+            tablero.registrarMetricas(registro, Tag.of("practica", "2"));
+        }
+
+        System.out.println("1) Leer estado inicial desde fichero 'matriz'");
+        System.out.println("2) Generar estado inicial aleatorio (Montecarlo)");
+        System.out.print("Elija una opción (1 o 2): ");
+
+        int opcion = 0;
+        try {
+            opcion = Integer.parseInt(sc.nextLine());
+        } catch (NumberFormatException e) {
+            System.out.println("Opción inválida. Usando opción 1 por defecto.");
+            opcion = 1;
+        }
+
+        if (opcion == 2) {
+            System.out.println("Generando estado inicial aleatorio...");
+            tablero.generarEstadoActualPorMontecarlo();
+        } else {
+            System.out.println("Leyendo estado inicial desde fichero 'matriz'...");
+            try {
+                tablero.leerEstadoActual();
+            } catch (IOException e) {
+                System.out.println("Error al leer el fichero: " + e.getMessage());
+                return;
+            }
+        }
+
+        System.out.println("Estado inicial:\n" + tablero);
+
+        // Pedir cuántas iteraciones
+        System.out.print("¿Cuántas iteraciones desea simular? (ej: 5): ");
+        int iteraciones = 5;
+        try {
+            iteraciones = Integer.parseInt(sc.nextLine());
+        } catch (NumberFormatException e) {
+            System.out.println("Entrada inválida. Usando 5 por defecto.");
+        }
+
+        RenderizadorTablero renderizador = new RenderizadorTablero(tablero.getFilas(), tablero.getColumnas());
+        LimitadorFotogramas limitador = new LimitadorFotogramas(FOTOGRAMAS_POR_SEGUNDO);
+        limitador.esperar();
+        for (int i = 1; i <= iteraciones; i++) {
+            limitador.esperar();
+            tablero.transitarAlEstadoSiguiente();
+            System.out.println("Generación " + i + ":");
+            renderizador.renderizar(tablero);
+            renderizador.escribirFotograma(System.out);
+        }
+        System.out.println("=========================================");
+    }
+
+    /**
+     * Ejecuta la Práctica 3: Grafo y Búsqueda de un camino.
+     * <p>
+     * Construye un grafo de ejemplo y busca un camino entre dos nodos, mostrando
+     * el resultado en consola.
+     */
+    private void ejecutarPractica3() {
+        System.out.println("\n=== Práctica 3: Búsqueda de un camino en Grafo ===");
+        Graph<Integer> g = new Graph<>();
+        if (registro != null) {
+            g.enableMetrics(registro, Tag.of("practica", "3"));
+        }
+        // Ejemplo simple
+        g.addEdge(1, 2);
+        g.addEdge(3, 4);
+        g.addEdge(1, 5);
+        g.addEdge(5, 6);
+        g.addEdge(6, 4);
+
+        System.out.println("Grafo construido (no dirigido). Lista de adyacencia:");
+        System.out.println(g);
+
+        System.out.println("Buscando un camino desde 1 hasta 4...");
+        System.out.println("Camino encontrado: " + g.onePath(1, 4));
+        System.out.println("=========================================");
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.examentecnicas;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Especificación de un trabajo del modo por lotes.
+ * <p>
+ * Se escribe como {@code tipo:clave=valor,clave=valor}, por ejemplo:
+ * <ul>
+ *   <li>{@code pi:muestras=1000000,metodo=SOBOL,semilla=42}</li>
+ *   <li>{@code vida:fichero=matriz.txt,generaciones=100}</li>
+ *   <li>{@code vida:filas=1024,columnas=1024,generaciones=500}</li>
+ *   <li>{@code camino:grafo=aristas.txt,desde=1,hasta=4}</li>
+ * </ul>
+ * Véase {@link EjecutorLotes} para los parámetros de cada tipo.
+ */
+public final class TrabajoLote {
+
+    /**
+     * Tipos de trabajo admitidos.
+     */
+    public enum Tipo {
+        PI, VIDA, CAMINO
+    }
+
+    private final int id;
+    private final Tipo tipo;
+    private final Map<String, String> parametros;
+    private final String especificacion;
+
+    private TrabajoLote(int id, Tipo tipo, Map<String, String> parametros, String especificacion) {
+        this.id = id;
+        this.tipo = tipo;
+        this.parametros = parametros;
+        this.especificacion = especificacion;
+    }
+
+    /**
+     * Analiza una especificación.
+     *
+     * @param id             Número del trabajo dentro del lote.
+     * @param especificacion Texto {@code tipo:clave=valor,...}.
+     * @return Trabajo equivalente.
+     * @throws IllegalArgumentException Si el tipo no existe o algún
+     *                                  parámetro no tiene la forma {@code clave=valor}.
+     */
+    public static TrabajoLote analizar(int id, String especificacion) {
+        String texto = especificacion.strip();
+        int dosPuntos = texto.indexOf(':');
+        String nombreTipo = (dosPuntos < 0) ? texto : texto.substring(0, dosPuntos);
+        Tipo tipo;
+        try {
+            tipo = Tipo.valueOf(nombreTipo.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de trabajo desconocido: '" + nombreTipo + "'.");
+        }
+
+        Map<String, String> parametros = new LinkedHashMap<>();
+        if (dosPuntos >= 0) {
+            for (String par : texto.substring(dosPuntos + 1).split(",")) {
+                if (par.isBlank()) {
+                    continue;
+                }
+                int igual = par.indexOf('=');
+                if (igual <= 0) {
+                    throw new IllegalArgumentException("Parámetro no válido: '" + par.strip() + "'.");
+                }
+                parametros.put(par.substring(0, igual).strip(), par.substring(igual + 1).strip());
+            }
+        }
+        return new TrabajoLote(id, tipo, Collections.unmodifiableMap(parametros), texto);
+    }
+
+    /**
+     * @return Número del trabajo dentro del lote.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return Tipo de trabajo.
+     */
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return Parámetros en el orden en que se escribieron.
+     */
+    public Map<String, String> getParametros() {
+        return parametros;
+    }
+
+    /**
+     * @param clave Nombre del parámetro.
+     * @return Valor del parámetro, o {@code null} si no se indicó.
+     */
+    public String getParametro(String clave) {
+        return parametros.get(clave);
+    }
+
+    /**
+     * Obtiene un parámetro entero obligatorio.
+     *
+     * @param clave Nombre del parámetro.
+     * @return Valor del parámetro.
+     * @throws IllegalArgumentException Si falta o no es un número.
+     */
+    public long getEntero(String clave) {
+        String valor = parametros.get(clave);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el parámetro '" + clave + "'.");
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro '" + clave + "' debe ser un número entero.");
+        }
+    }
+
+    /**
+     * Obtiene un parámetro entero opcional.
+     *
+     * @param clave          Nombre del parámetro.
+     * @param valorPorDefecto Valor si no se indicó.
+     * @return Valor del parámetro.
+     * @throws IllegalArgumentException Si no es un número.
+     */
+    public long getEntero(String clave, long valorPorDefecto) {
+        return parametros.containsKey(clave) ? getEntero(clave) : valorPorDefecto;
+    }
+
+    @Override
+    public String toString() {
+        return especificacion;
+    }
+}
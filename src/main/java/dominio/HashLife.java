@@ -0,0 +1,695 @@
+package dominio;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor HashLife para el Juego de la Vida de Conway sobre un universo
+ * ilimitado.
+ * <p>
+ * El universo se representa como un árbol cuaternario canónico: cada nodo de
+ * nivel {@code k} es un cuadrado de {@code 2^k x 2^k} células formado por
+ * cuatro nodos de nivel {@code k - 1}, y dos nodos con los mismos hijos son
+ * siempre el mismo objeto. Gracias a ello, el resultado de evolucionar un
+ * nodo se memoriza una sola vez y se reutiliza en todas las zonas repetidas
+ * del patrón y en todas las generaciones posteriores, lo que permite saltar
+ * {@code 2^k} generaciones en una sola llamada.
+ * <p>
+ * Tanto la tabla de nodos canónicos como la caché de resultados están
+ * acotadas: la caché de resultados descarta las entradas menos usadas, y
+ * cuando la tabla de nodos supera su límite se reconstruye solo con los
+ * nodos alcanzables desde la raíz.
+ */
+public class HashLife {
+
+    /**
+     * Número máximo de nodos canónicos por defecto.
+     */
+    private static final int MAX_NODOS_POR_DEFECTO = 1 << 22;
+
+    /**
+     * Número máximo de resultados memorizados por defecto.
+     */
+    private static final int MAX_RESULTADOS_POR_DEFECTO = 1 << 21;
+
+    /**
+     * Nodo del árbol cuaternario. Los nodos de nivel 0 son células
+     * individuales; el resto tiene cuatro hijos de un nivel inferior.
+     */
+    static final class Nodo {
+
+        final Nodo no;
+        final Nodo ne;
+        final Nodo so;
+        final Nodo se;
+        final int nivel;
+        final long poblacion;
+        private final int hash;
+
+        /**
+         * Crea una hoja (nivel 0).
+         */
+        Nodo(boolean viva) {
+            this.no = null;
+            this.ne = null;
+            this.so = null;
+            this.se = null;
+            this.nivel = 0;
+            this.poblacion = viva ? 1 : 0;
+            this.hash = viva ? 1 : 0;
+        }
+
+        /**
+         * Crea un nodo interior a partir de sus cuatro cuadrantes.
+         */
+        Nodo(Nodo no, Nodo ne, Nodo so, Nodo se) {
+            this.no = no;
+            this.ne = ne;
+            this.so = so;
+            this.se = se;
+            this.nivel = no.nivel + 1;
+            this.poblacion = no.poblacion + ne.poblacion + so.poblacion + se.poblacion;
+            int h = nivel;
+            h = 31 * h + System.identityHashCode(no);
+            h = 31 * h + System.identityHashCode(ne);
+            h = 31 * h + System.identityHashCode(so);
+            h = 31 * h + System.identityHashCode(se);
+            this.hash = h;
+        }
+
+        /**
+         * Dos nodos interiores son iguales si tienen exactamente los mismos
+         * hijos; como los hijos son canónicos basta con compararlos por
+         * identidad.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Nodo)) {
+                return false;
+            }
+            Nodo otro = (Nodo) o;
+            return nivel == otro.nivel && no == otro.no && ne == otro.ne
+                    && so == otro.so && se == otro.se;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Clave de la caché de resultados: un nodo y el salto aplicado
+     * ({@code 2^salto} generaciones).
+     */
+    private static final class ClaveResultado {
+
+        private final Nodo nodo;
+        private final int salto;
+
+        ClaveResultado(Nodo nodo, int salto) {
+            this.nodo = nodo;
+            this.salto = salto;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ClaveResultado)) {
+                return false;
+            }
+            ClaveResultado otra = (ClaveResultado) o;
+            return nodo == otra.nodo && salto == otra.salto;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * nodo.hashCode() + salto;
+        }
+    }
+
+    /**
+     * Hojas canónicas: célula muerta y célula viva.
+     */
+    private final Nodo muerta = new Nodo(false);
+    private final Nodo viva = new Nodo(true);
+
+    /**
+     * Límites de la tabla de nodos y de la caché de resultados.
+     */
+    private final int maxNodos;
+    private final int maxResultados;
+
+    /**
+     * Tabla de nodos canónicos.
+     */
+    private Map<Nodo, Nodo> nodos = new HashMap<>();
+
+    /**
+     * Caché de resultados con expulsión del menos usado recientemente.
+     */
+    private final LinkedHashMap<ClaveResultado, Nodo> resultados;
+
+    /**
+     * Nodos vacíos por nivel, para no reconstruirlos cada vez.
+     */
+    private final List<Nodo> vacios = new ArrayList<>();
+
+    /**
+     * Nodo raíz del universo y coordenadas (fila, columna) de su esquina
+     * superior izquierda.
+     */
+    private Nodo raiz;
+    private long origenFila;
+    private long origenColumna;
+
+    /**
+     * Número de generaciones simuladas desde la carga.
+     */
+    private long generacion;
+
+    /**
+     * Dimensiones de la vista que muestra {@link #toString()}, a partir de
+     * la célula (0, 0).
+     */
+    private int filasVista;
+    private int columnasVista;
+
+    /**
+     * Estadísticas de la caché de resultados.
+     */
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+    private long recolecciones;
+
+    /**
+     * Crea un universo vacío con los límites de caché por defecto.
+     */
+    public HashLife() {
+        this(MAX_NODOS_POR_DEFECTO, MAX_RESULTADOS_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un universo vacío con los límites de caché indicados.
+     *
+     * @param maxNodos      Número de nodos canónicos a partir del cual se
+     *                      reconstruye la tabla de nodos.
+     * @param maxResultados Número máximo de resultados memorizados.
+     * @throws IllegalArgumentException Si algún límite no es positivo.
+     */
+    public HashLife(int maxNodos, int maxResultados) {
+        if (maxNodos < 1 || maxResultados < 1) {
+            throw new IllegalArgumentException("Los límites de la caché deben ser mayores que 0.");
+        }
+        this.maxNodos = maxNodos;
+        this.maxResultados = maxResultados;
+        this.resultados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ClaveResultado, Nodo> mayor) {
+                if (size() > HashLife.this.maxResultados) {
+                    expulsiones++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.raiz = vacio(3);
+    }
+
+    /**
+     * Lee el estado inicial del fichero por defecto ('matriz' o
+     * 'matriz.txt'), con el mismo formato que
+     * {@link Tablero#leerEstadoActual()}.
+     *
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public void leerEstadoActual() throws IOException {
+        try (BufferedReader br = PersistenciaTablero.lector(PersistenciaTablero.abrirFicheroPorDefecto())) {
+            leerEstadoActual(br);
+        }
+    }
+
+    /**
+     * Lee el estado inicial de un fichero de texto con una línea por fila y
+     * un carácter ('0' o '1') por célula. La primera línea es la fila 0 y el
+     * primer carácter de cada línea la columna 0. La vista de
+     * {@link #toString()} pasa a cubrir el tamaño del fichero.
+     *
+     * @param ruta Ruta del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public void leerEstadoActual(String ruta) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(ruta))) {
+            leerEstadoActual(br);
+        }
+    }
+
+    /**
+     * Carga el universo desde un lector de texto con el formato de 'matriz'.
+     *
+     * @param br Lector del que se leen las filas.
+     * @throws IOException Si ocurre un error al leer.
+     */
+    private void leerEstadoActual(BufferedReader br) throws IOException {
+        List<String> lineas = new ArrayList<>();
+        String linea;
+        while ((linea = br.readLine()) != null) {
+            lineas.add(linea);
+        }
+        int columnas = 0;
+        for (String l : lineas) {
+            columnas = Math.max(columnas, l.length());
+        }
+
+        int nivel = 3;
+        while ((1L << nivel) < Math.max(lineas.size(), columnas)) {
+            nivel++;
+        }
+        raiz = construir(lineas, 0, 0, nivel);
+        origenFila = 0;
+        origenColumna = 0;
+        generacion = 0;
+        filasVista = lineas.size();
+        columnasVista = columnas;
+    }
+
+    /**
+     * Construye el nodo de nivel {@code nivel} cuya esquina superior
+     * izquierda es la célula (fila, col) del fichero.
+     */
+    private Nodo construir(List<String> lineas, int fila, int col, int nivel) {
+        if (fila >= lineas.size()) {
+            return vacio(nivel);
+        }
+        if (nivel == 0) {
+            String linea = lineas.get(fila);
+            return (col < linea.length() && linea.charAt(col) == '1') ? viva : muerta;
+        }
+        int mitad = 1 << (nivel - 1);
+        return crear(construir(lineas, fila, col, nivel - 1),
+                construir(lineas, fila, col + mitad, nivel - 1),
+                construir(lineas, fila + mitad, col, nivel - 1),
+                construir(lineas, fila + mitad, col + mitad, nivel - 1));
+    }
+
+    /**
+     * Avanza una generación.
+     */
+    public void transitarAlEstadoSiguiente() {
+        avanzarPotenciaDeDos(0);
+    }
+
+    /**
+     * Avanza el número de generaciones indicado, descomponiéndolo en saltos
+     * de potencias de dos.
+     *
+     * @param generaciones Número de generaciones a simular.
+     * @throws IllegalArgumentException Si el número de generaciones es negativo.
+     */
+    public void avanzar(long generaciones) {
+        if (generaciones < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo.");
+        }
+        for (int k = 0; generaciones != 0; k++, generaciones >>>= 1) {
+            if ((generaciones & 1) != 0) {
+                avanzarPotenciaDeDos(k);
+            }
+        }
+    }
+
+    /**
+     * Avanza {@code 2^k} generaciones en una sola llamada.
+     * <p>
+     * Antes del salto se amplía el universo con bordes vacíos hasta que toda
+     * la población queda en el cuarto central de la raíz y la raíz es al
+     * menos de nivel {@code k + 3}; así el patrón no puede salir de la zona
+     * central, que es la que devuelve el cálculo, durante el salto.
+     *
+     * @param k Exponente del salto.
+     * @throws IllegalArgumentException Si {@code k} es negativo o mayor que 60.
+     */
+    public void avanzarPotenciaDeDos(int k) {
+        if (k < 0 || k > 60) {
+            throw new IllegalArgumentException("El exponente del salto debe estar entre 0 y 60.");
+        }
+        while (raiz.nivel < k + 3 || !poblacionCentrada(raiz)) {
+            expandir();
+        }
+        int nivel = raiz.nivel;
+        raiz = resultado(raiz, k);
+        origenFila += 1L << (nivel - 2);
+        origenColumna += 1L << (nivel - 2);
+        generacion += 1L << k;
+        if (nodos.size() > maxNodos) {
+            recolectar();
+        }
+    }
+
+    /**
+     * Indica si toda la población del nodo está en su cuarto central.
+     */
+    private boolean poblacionCentrada(Nodo n) {
+        if (n.nivel < 3) {
+            return false;
+        }
+        long centro = n.no.se.se.poblacion + n.ne.so.so.poblacion
+                + n.so.ne.ne.poblacion + n.se.no.no.poblacion;
+        return centro == n.poblacion;
+    }
+
+    /**
+     * Duplica el lado de la raíz dejando el universo actual en el centro.
+     */
+    private void expandir() {
+        Nodo e = vacio(raiz.nivel - 1);
+        long mitad = 1L << (raiz.nivel - 1);
+        raiz = crear(crear(e, e, e, raiz.no),
+                crear(e, e, raiz.ne, e),
+                crear(e, raiz.so, e, e),
+                crear(raiz.se, e, e, e));
+        origenFila -= mitad;
+        origenColumna -= mitad;
+    }
+
+    /**
+     * Calcula el nodo central (de nivel {@code m.nivel - 1}) de {@code m}
+     * tras {@code 2^salto} generaciones, con {@code salto} limitado a
+     * {@code m.nivel - 2}.
+     */
+    private Nodo resultado(Nodo m, int salto) {
+        if (m.poblacion == 0) {
+            return vacio(m.nivel - 1);
+        }
+        int j = Math.min(salto, m.nivel - 2);
+        ClaveResultado clave = new ClaveResultado(m, j);
+        Nodo r = resultados.get(clave);
+        if (r != null) {
+            aciertos++;
+            return r;
+        }
+        fallos++;
+
+        if (m.nivel == 2) {
+            r = vida4x4(m);
+        } else {
+            // Nueve subcuadrados solapados de nivel m.nivel - 1
+            Nodo c1 = resultado(m.no, j);
+            Nodo c2 = resultado(crear(m.no.ne, m.ne.no, m.no.se, m.ne.so), j);
+            Nodo c3 = resultado(m.ne, j);
+            Nodo c4 = resultado(crear(m.no.so, m.no.se, m.so.no, m.so.ne), j);
+            Nodo c5 = resultado(crear(m.no.se, m.ne.so, m.so.ne, m.se.no), j);
+            Nodo c6 = resultado(crear(m.ne.so, m.ne.se, m.se.no, m.se.ne), j);
+            Nodo c7 = resultado(m.so, j);
+            Nodo c8 = resultado(crear(m.so.ne, m.se.no, m.so.se, m.se.so), j);
+            Nodo c9 = resultado(m.se, j);
+
+            if (j < m.nivel - 2) {
+                // Salto corto: basta con recomponer los centros
+                r = crear(crear(c1.se, c2.so, c4.ne, c5.no),
+                        crear(c2.se, c3.so, c5.ne, c6.no),
+                        crear(c4.se, c5.so, c7.ne, c8.no),
+                        crear(c5.se, c6.so, c8.ne, c9.no));
+            } else {
+                // Salto completo: segunda mitad del salto sobre los resultados
+                r = crear(resultado(crear(c1, c2, c4, c5), j),
+                        resultado(crear(c2, c3, c5, c6), j),
+                        resultado(crear(c4, c5, c7, c8), j),
+                        resultado(crear(c5, c6, c8, c9), j));
+            }
+        }
+        resultados.put(clave, r);
+        return r;
+    }
+
+    /**
+     * Caso base: calcula una generación del bloque central 2x2 de un nodo
+     * de nivel 2 (4x4 células) aplicando las reglas B3/S23.
+     */
+    private Nodo vida4x4(Nodo m) {
+        int bits = 0;
+        for (int fila = 0; fila < 4; fila++) {
+            for (int col = 0; col < 4; col++) {
+                if (celula(m, fila, col)) {
+                    bits |= 1 << (fila * 4 + col);
+                }
+            }
+        }
+        return crear(siguienteCelula(bits, 1, 1), siguienteCelula(bits, 1, 2),
+                siguienteCelula(bits, 2, 1), siguienteCelula(bits, 2, 2));
+    }
+
+    /**
+     * Estado siguiente de la célula (fila, col) de un bloque 4x4 codificado
+     * en los 16 bits menos significativos de {@code bits}.
+     */
+    private Nodo siguienteCelula(int bits, int fila, int col) {
+        int vecinos = 0;
+        for (int i = fila - 1; i <= fila + 1; i++) {
+            for (int j = col - 1; j <= col + 1; j++) {
+                if ((i != fila || j != col) && (bits & (1 << (i * 4 + j))) != 0) {
+                    vecinos++;
+                }
+            }
+        }
+        boolean estaViva = (bits & (1 << (fila * 4 + col))) != 0;
+        return (vecinos == 3 || (estaViva && vecinos == 2)) ? viva : muerta;
+    }
+
+    /**
+     * Devuelve el nodo canónico con los cuatro cuadrantes indicados,
+     * creándolo si no existía.
+     */
+    private Nodo crear(Nodo no, Nodo ne, Nodo so, Nodo se) {
+        Nodo candidato = new Nodo(no, ne, so, se);
+        Nodo existente = nodos.putIfAbsent(candidato, candidato);
+        return (existente != null) ? existente : candidato;
+    }
+
+    /**
+     * Devuelve el nodo canónico vacío del nivel indicado.
+     */
+    private Nodo vacio(int nivel) {
+        if (vacios.isEmpty()) {
+            vacios.add(muerta);
+        }
+        while (vacios.size() <= nivel) {
+            Nodo e = vacios.get(vacios.size() - 1);
+            vacios.add(crear(e, e, e, e));
+        }
+        return vacios.get(nivel);
+    }
+
+    /**
+     * Reconstruye la tabla de nodos solo con los nodos alcanzables desde la
+     * raíz y los nodos vacíos, y vacía la caché de resultados.
+     */
+    private void recolectar() {
+        nodos = new HashMap<>();
+        resultados.clear();
+        for (Nodo e : vacios) {
+            reinsertar(e);
+        }
+        reinsertar(raiz);
+        recolecciones++;
+    }
+
+    /**
+     * Vuelve a insertar en la tabla un nodo ya canónico y sus descendientes.
+     */
+    private void reinsertar(Nodo n) {
+        if (n.nivel == 0 || nodos.putIfAbsent(n, n) != null) {
+            return;
+        }
+        reinsertar(n.no);
+        reinsertar(n.ne);
+        reinsertar(n.so);
+        reinsertar(n.se);
+    }
+
+    /**
+     * Cambia el estado de una célula, ampliando el universo si la posición
+     * queda fuera de la raíz.
+     *
+     * @param fila Fila de la célula.
+     * @param col  Columna de la célula.
+     * @param v    {@code true} para dejarla viva, {@code false} para matarla.
+     */
+    public void establecerCelula(long fila, long col, boolean v) {
+        while (!dentroDeRaiz(fila, col)) {
+            expandir();
+        }
+        raiz = conCelula(raiz, fila - origenFila, col - origenColumna, v);
+    }
+
+    /**
+     * Devuelve una copia de {@code n} con la célula (fila, col), relativa a
+     * su esquina superior izquierda, en el estado indicado.
+     */
+    private Nodo conCelula(Nodo n, long fila, long col, boolean v) {
+        if (n.nivel == 0) {
+            return v ? viva : muerta;
+        }
+        long mitad = 1L << (n.nivel - 1);
+        if (fila < mitad) {
+            if (col < mitad) {
+                return crear(conCelula(n.no, fila, col, v), n.ne, n.so, n.se);
+            }
+            return crear(n.no, conCelula(n.ne, fila, col - mitad, v), n.so, n.se);
+        }
+        if (col < mitad) {
+            return crear(n.no, n.ne, conCelula(n.so, fila - mitad, col, v), n.se);
+        }
+        return crear(n.no, n.ne, n.so, conCelula(n.se, fila - mitad, col - mitad, v));
+    }
+
+    /**
+     * Indica si la célula (fila, col) está viva.
+     *
+     * @param fila Fila de la célula.
+     * @param col  Columna de la célula.
+     * @return {@code true} si la célula está viva.
+     */
+    public boolean estaViva(long fila, long col) {
+        if (!dentroDeRaiz(fila, col)) {
+            return false;
+        }
+        return celula(raiz, fila - origenFila, col - origenColumna);
+    }
+
+    /**
+     * Indica si la posición queda dentro del cuadrado que cubre la raíz.
+     */
+    private boolean dentroDeRaiz(long fila, long col) {
+        long lado = 1L << raiz.nivel;
+        return fila >= origenFila && fila - origenFila < lado
+                && col >= origenColumna && col - origenColumna < lado;
+    }
+
+    /**
+     * Lee la célula (fila, col), relativa a la esquina superior izquierda
+     * de {@code n}.
+     */
+    private boolean celula(Nodo n, long fila, long col) {
+        while (n.nivel > 0) {
+            if (n.poblacion == 0) {
+                return false;
+            }
+            long mitad = 1L << (n.nivel - 1);
+            if (fila < mitad) {
+                n = (col < mitad) ? n.no : n.ne;
+            } else {
+                n = (col < mitad) ? n.so : n.se;
+                fila -= mitad;
+            }
+            if (col >= mitad) {
+                col -= mitad;
+            }
+        }
+        return n.poblacion != 0;
+    }
+
+    /**
+     * Devuelve en texto la ventana del universo que empieza en (fila, col)
+     * con el tamaño indicado, en el formato de {@link Tablero#toString()}.
+     *
+     * @param fila     Fila de la esquina superior izquierda.
+     * @param col      Columna de la esquina superior izquierda.
+     * @param filas    Número de filas de la ventana.
+     * @param columnas Número de columnas de la ventana.
+     * @return Cadena con una línea por fila y un carácter por célula.
+     */
+    public String toString(long fila, long col, int filas, int columnas) {
+        StringBuilder sb = new StringBuilder(filas * (columnas + 1));
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                sb.append(estaViva(fila + i, col + j) ? '1' : '0');
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Devuelve en texto la ventana con el tamaño del fichero cargado,
+     * empezando en la célula (0, 0).
+     *
+     * @return Cadena con el estado de la ventana.
+     */
+    @Override
+    public String toString() {
+        return toString(0, 0, filasVista, columnasVista);
+    }
+
+    /**
+     * @return Número de células vivas del universo.
+     */
+    public long getPoblacion() {
+        return raiz.poblacion;
+    }
+
+    /**
+     * @return Número de generaciones simuladas desde la carga.
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * @return Número de nodos canónicos almacenados.
+     */
+    public int getNumeroNodos() {
+        return nodos.size();
+    }
+
+    /**
+     * @return Número de resultados memorizados.
+     */
+    public int getNumeroResultados() {
+        return resultados.size();
+    }
+
+    /**
+     * @return Número de consultas a la caché de resultados que acertaron.
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * @return Número de consultas a la caché de resultados que fallaron.
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return Proporción de aciertos de la caché de resultados (entre 0 y 1).
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return (total == 0) ? 0.0 : (double) aciertos / total;
+    }
+
+    /**
+     * @return Número de resultados expulsados de la caché por el límite.
+     */
+    public long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /**
+     * @return Número de veces que se ha reconstruido la tabla de nodos.
+     */
+    public long getRecolecciones() {
+        return recolecciones;
+    }
+}
@@ -0,0 +1,60 @@
+package dominio;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limita la velocidad de reproducción de una simulación a un número máximo
+ * de fotogramas por segundo.
+ * <p>
+ * En lugar de dormir un tiempo fijo tras cada generación, espera solo lo que
+ * falta hasta el instante del siguiente fotograma, de modo que el tiempo de
+ * cálculo y de dibujo no se suma a la pausa.
+ */
+public class LimitadorFotogramas {
+
+    /**
+     * Duración de cada fotograma en nanosegundos (0 = sin límite).
+     */
+    private final long periodoNanos;
+
+    /**
+     * Instante ({@link System#nanoTime()}) a partir del cual puede mostrarse
+     * el siguiente fotograma.
+     */
+    private long siguiente;
+
+    /**
+     * Crea un limitador.
+     *
+     * @param fotogramasPorSegundo Número máximo de fotogramas por segundo;
+     *                             0 o un valor negativo desactiva el límite.
+     */
+    public LimitadorFotogramas(double fotogramasPorSegundo) {
+        this.periodoNanos = (fotogramasPorSegundo > 0)
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / fotogramasPorSegundo)
+                : 0L;
+        this.siguiente = System.nanoTime();
+    }
+
+    /**
+     * Espera hasta que pueda mostrarse el siguiente fotograma. Si el anterior
+     * llegó tarde, no se intenta recuperar el retraso acumulado.
+     *
+     * @throws InterruptedException Si el hilo se interrumpe durante la espera.
+     */
+    public void esperar() throws InterruptedException {
+        if (periodoNanos == 0) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        while (siguiente - ahora > 0) {
+            LockSupport.parkNanos(this, siguiente - ahora);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            ahora = System.nanoTime();
+        }
+        siguiente = (ahora - siguiente > periodoNanos) ? ahora + periodoNanos : siguiente + periodoNanos;
+    }
+}
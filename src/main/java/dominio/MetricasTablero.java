@@ -0,0 +1,103 @@
+package dominio;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registro de las métricas comunes a {@link Tablero} y
+ * {@link TableroCompacto}:
+ * <ul>
+ *   <li>{@code tablero.generacion}: temporizador del cálculo de cada
+ *   generación.</li>
+ *   <li>{@code tablero.celulas.vivas}: células vivas del estado actual
+ *   (se cuentan al leer el indicador, no en cada generación).</li>
+ *   <li>{@code tablero.celulas}: número total de células.</li>
+ *   <li>{@code tablero.memoria.estimada}: bytes aproximados que ocupan los
+ *   dos búferes de estado (en el heap o, en un {@link TableroCompacto}
+ *   fuera del heap, en memoria directa o proyectada).</li>
+ * </ul>
+ * Los indicadores guardan una referencia débil al tablero, así que no
+ * impiden que se libere. Registrar otro tablero con exactamente las mismas
+ * etiquetas sustituye los indicadores del anterior; el temporizador se
+ * comparte. {@link Medidores#retirar()} quita los indicadores de un tablero
+ * que ya no se va a usar.
+ */
+final class MetricasTablero {
+
+    private MetricasTablero() {
+    }
+
+    /**
+     * Medidores registrados para un tablero.
+     *
+     * @param registro    Registro en el que están.
+     * @param generacion  Temporizador de {@code tablero.generacion}.
+     * @param indicadores Indicadores propios del tablero.
+     */
+    record Medidores(MeterRegistry registro, Timer generacion, List<Meter> indicadores) {
+
+        /**
+         * Quita los indicadores del registro, salvo los que ya sustituyó otro
+         * tablero con las mismas etiquetas; el temporizador, que se comparte,
+         * se conserva.
+         */
+        void retirar() {
+            for (Meter indicador : indicadores) {
+                Meter.Id id = indicador.getId();
+                // remove() busca por identificador: solo se quita si sigue siendo este
+                if (registro.find(id.getName()).tags(id.getTags()).meters().stream().anyMatch(m -> m == indicador)) {
+                    registro.remove(indicador);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra los indicadores del tablero y el temporizador de las
+     * generaciones.
+     *
+     * @param registro  Registro de métricas.
+     * @param tablero   Tablero medido.
+     * @param vivas     Función que cuenta las células vivas del tablero.
+     * @param celulas   Número total de células.
+     * @param bytes     Memoria estimada de los búferes de estado.
+     * @param etiquetas Etiquetas que distinguen este tablero de otros.
+     * @return Medidores registrados.
+     */
+    static <T> Medidores registrar(MeterRegistry registro, T tablero, ToDoubleFunction<T> vivas,
+                               long celulas, long bytes, Tag... etiquetas) {
+        Tags tags = Tags.of(etiquetas).and("motor", tablero.getClass().getSimpleName());
+        for (String nombre : new String[]{"tablero.celulas.vivas", "tablero.celulas", "tablero.memoria.estimada"}) {
+            // find().tags() también encuentra los que tienen más etiquetas
+            registro.find(nombre).tags(tags).meters().stream()
+                    .filter(medidor -> Tags.of(medidor.getId().getTags()).equals(tags))
+                    .forEach(registro::remove);
+        }
+        List<Meter> indicadores = List.of(
+                Gauge.builder("tablero.celulas.vivas", tablero, vivas)
+                        .tags(tags)
+                        .description("Células vivas del estado actual")
+                        .register(registro),
+                Gauge.builder("tablero.celulas", () -> celulas)
+                        .tags(tags)
+                        .description("Número de células del tablero")
+                        .register(registro),
+                Gauge.builder("tablero.memoria.estimada", () -> bytes)
+                        .tags(tags)
+                        .description("Memoria aproximada de los búferes de estado")
+                        .baseUnit("bytes")
+                        .register(registro));
+        Timer generacion = Timer.builder("tablero.generacion")
+                .tags(tags)
+                .description("Tiempo de cálculo de una generación")
+                .register(registro);
+        return new Medidores(registro, generacion, indicadores);
+    }
+}
@@ -0,0 +1,408 @@
+package dominio;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Búfer de palabras de 64 bits en el que {@link TableroCompacto} guarda un
+ * estado del tablero.
+ * <p>
+ * Hay dos implementaciones: un {@code long[]} en el heap y una fuera del
+ * heap, formada por segmentos de {@value #PALABRAS_POR_SEGMENTO} palabras
+ * (1 GiB), cada uno un {@link ByteBuffer} directo o proyectado desde un
+ * fichero. Las de fuera del heap se liberan en {@link #liberar()}, sin
+ * esperar al recolector de basura; después no debe accederse al búfer.
+ */
+abstract class PalabrasTablero {
+
+    /**
+     * Bits del índice dentro de un segmento fuera del heap.
+     */
+    private static final int BITS_SEGMENTO = 27;
+
+    /**
+     * Palabras de cada segmento fuera del heap.
+     */
+    static final int PALABRAS_POR_SEGMENTO = 1 << BITS_SEGMENTO;
+
+    private static final int MASCARA_SEGMENTO = PALABRAS_POR_SEGMENTO - 1;
+
+    /**
+     * {@code sun.misc.Unsafe} y su método {@code invokeCleaner}, que libera
+     * la memoria de un búfer directo al momento. Si no están disponibles, la
+     * memoria se libera cuando el recolector recoge el búfer.
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOCAR_LIMPIADOR;
+
+    static {
+        Object unsafe = null;
+        Method metodo = null;
+        try {
+            Class<?> clase = Class.forName("sun.misc.Unsafe");
+            Field campo = clase.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            unsafe = campo.get(null);
+            metodo = clase.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            metodo = null;
+        }
+        UNSAFE = unsafe;
+        INVOCAR_LIMPIADOR = metodo;
+    }
+
+    /**
+     * Número de palabras del búfer.
+     */
+    final int longitud;
+
+    private PalabrasTablero(int longitud) {
+        this.longitud = longitud;
+    }
+
+    /**
+     * Crea un búfer en el heap, con todas las palabras a cero.
+     *
+     * @param longitud Número de palabras.
+     * @return Búfer nuevo.
+     */
+    static PalabrasTablero enHeap(int longitud) {
+        return new EnHeap(longitud);
+    }
+
+    /**
+     * Crea un búfer fuera del heap con {@link ByteBuffer#allocateDirect},
+     * con todas las palabras a cero.
+     *
+     * @param longitud Número de palabras.
+     * @return Búfer nuevo.
+     */
+    static PalabrasTablero directo(int longitud) {
+        ByteBuffer[] segmentos = new ByteBuffer[numeroSegmentos(longitud)];
+        for (int s = 0; s < segmentos.length; s++) {
+            segmentos[s] = ByteBuffer.allocateDirect(8 * tamanoSegmento(longitud, s));
+        }
+        return new FueraDelHeap(longitud, segmentos);
+    }
+
+    /**
+     * Proyecta en memoria una zona de un fichero como búfer de palabras. Las
+     * páginas se cargan del disco cuando se accede a ellas, así que el
+     * búfer puede ser mayor que la memoria física. La proyección sigue
+     * siendo válida después de cerrar el canal.
+     *
+     * @param canal    Canal abierto para lectura y escritura.
+     * @param posicion Primer byte de la zona.
+     * @param longitud Número de palabras.
+     * @return Búfer con el contenido actual de la zona.
+     * @throws IOException Si ocurre un error al proyectar el fichero.
+     */
+    static PalabrasTablero proyectado(FileChannel canal, long posicion, int longitud) throws IOException {
+        ByteBuffer[] segmentos = new ByteBuffer[numeroSegmentos(longitud)];
+        for (int s = 0; s < segmentos.length; s++) {
+            segmentos[s] = canal.map(FileChannel.MapMode.READ_WRITE,
+                    posicion + 8L * s * PALABRAS_POR_SEGMENTO, 8L * tamanoSegmento(longitud, s));
+        }
+        return new FueraDelHeap(longitud, segmentos);
+    }
+
+    private static int numeroSegmentos(int longitud) {
+        return Math.max(1, (int) ((longitud + (long) MASCARA_SEGMENTO) >>> BITS_SEGMENTO));
+    }
+
+    private static int tamanoSegmento(int longitud, int segmento) {
+        return Math.min(PALABRAS_POR_SEGMENTO, longitud - segmento * PALABRAS_POR_SEGMENTO);
+    }
+
+    /**
+     * @param i Índice de la palabra.
+     * @return Valor de la palabra.
+     */
+    abstract long get(int i);
+
+    /**
+     * @param i     Índice de la palabra.
+     * @param valor Valor nuevo.
+     */
+    abstract void set(int i, long valor);
+
+    /**
+     * Pone todas las palabras a cero.
+     */
+    abstract void vaciar();
+
+    /**
+     * @return Array que respalda el búfer, o {@code null} si está fuera del heap.
+     */
+    abstract long[] arreglo();
+
+    /**
+     * Copia palabras del búfer a un array.
+     *
+     * @param desde    Primera palabra del búfer.
+     * @param destino  Array de destino.
+     * @param posicion Primera posición del array.
+     * @param numero   Número de palabras.
+     */
+    abstract void copiarA(int desde, long[] destino, int posicion, int numero);
+
+    /**
+     * Copia palabras de un array al búfer.
+     *
+     * @param origen   Array de origen.
+     * @param posicion Primera posición del array.
+     * @param desde    Primera palabra del búfer.
+     * @param numero   Número de palabras.
+     */
+    abstract void copiarDesde(long[] origen, int posicion, int desde, int numero);
+
+    /**
+     * Copia palabras de {@code origen} (desde su posición actual, que avanza)
+     * al búfer.
+     *
+     * @param origen Palabras de origen.
+     * @param desde  Primera palabra del búfer que se escribe.
+     * @param numero Número de palabras.
+     */
+    abstract void leer(LongBuffer origen, int desde, int numero);
+
+    /**
+     * Copia palabras del búfer a {@code destino} (desde su posición actual,
+     * que avanza).
+     *
+     * @param destino Palabras de destino.
+     * @param desde   Primera palabra del búfer que se lee.
+     * @param numero  Número de palabras.
+     */
+    abstract void escribir(LongBuffer destino, int desde, int numero);
+
+    /**
+     * Copia todas las palabras de {@code origen}, de la misma longitud, sin
+     * reservar memoria.
+     *
+     * @param origen Búfer de origen.
+     */
+    final void copiarDe(PalabrasTablero origen) {
+        long[] propio = arreglo();
+        long[] ajeno = origen.arreglo();
+        if (propio != null) {
+            origen.copiarA(0, propio, 0, longitud);
+        } else if (ajeno != null) {
+            copiarDesde(ajeno, 0, 0, longitud);
+        } else {
+            for (int i = 0; i < longitud; i++) {
+                set(i, origen.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} si las palabras están fuera del heap.
+     */
+    abstract boolean fueraDelHeap();
+
+    /**
+     * Libera la memoria fuera del heap. No hace nada con el búfer del heap.
+     */
+    abstract void liberar();
+
+    /**
+     * Búfer respaldado por un {@code long[]}.
+     */
+    private static final class EnHeap extends PalabrasTablero {
+
+        private final long[] palabras;
+
+        EnHeap(int longitud) {
+            super(longitud);
+            this.palabras = new long[longitud];
+        }
+
+        @Override
+        long get(int i) {
+            return palabras[i];
+        }
+
+        @Override
+        void set(int i, long valor) {
+            palabras[i] = valor;
+        }
+
+        @Override
+        void vaciar() {
+            Arrays.fill(palabras, 0L);
+        }
+
+        @Override
+        long[] arreglo() {
+            return palabras;
+        }
+
+        @Override
+        void copiarA(int desde, long[] destino, int posicion, int numero) {
+            System.arraycopy(palabras, desde, destino, posicion, numero);
+        }
+
+        @Override
+        void copiarDesde(long[] origen, int posicion, int desde, int numero) {
+            System.arraycopy(origen, posicion, palabras, desde, numero);
+        }
+
+        @Override
+        void leer(LongBuffer origen, int desde, int numero) {
+            origen.get(palabras, desde, numero);
+        }
+
+        @Override
+        void escribir(LongBuffer destino, int desde, int numero) {
+            destino.put(palabras, desde, numero);
+        }
+
+        @Override
+        boolean fueraDelHeap() {
+            return false;
+        }
+
+        @Override
+        void liberar() {
+        }
+    }
+
+    /**
+     * Búfer formado por segmentos de {@link ByteBuffer} directos o
+     * proyectados, vistos como {@link LongBuffer} en el orden de bytes
+     * nativo.
+     */
+    private static final class FueraDelHeap extends PalabrasTablero {
+
+        /**
+         * Búferes originales, que son los que se liberan.
+         */
+        private ByteBuffer[] bytes;
+
+        private LongBuffer[] segmentos;
+
+        FueraDelHeap(int longitud, ByteBuffer[] bytes) {
+            super(longitud);
+            this.bytes = bytes;
+            this.segmentos = new LongBuffer[bytes.length];
+            for (int s = 0; s < bytes.length; s++) {
+                segmentos[s] = bytes[s].order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+
+        @Override
+        long get(int i) {
+            return segmentos[i >>> BITS_SEGMENTO].get(i & MASCARA_SEGMENTO);
+        }
+
+        @Override
+        void set(int i, long valor) {
+            segmentos[i >>> BITS_SEGMENTO].put(i & MASCARA_SEGMENTO, valor);
+        }
+
+        @Override
+        void vaciar() {
+            long[] ceros = new long[4096];
+            for (LongBuffer segmento : segmentos) {
+                LongBuffer destino = segmento.duplicate();
+                destino.clear();
+                while (destino.hasRemaining()) {
+                    destino.put(ceros, 0, Math.min(ceros.length, destino.remaining()));
+                }
+            }
+        }
+
+        @Override
+        long[] arreglo() {
+            return null;
+        }
+
+        @Override
+        void copiarA(int desde, long[] destino, int posicion, int numero) {
+            while (numero > 0) {
+                LongBuffer segmento = segmentos[desde >>> BITS_SEGMENTO];
+                int indice = desde & MASCARA_SEGMENTO;
+                int n = Math.min(numero, segmento.limit() - indice);
+                segmento.get(indice, destino, posicion, n);
+                posicion += n;
+                desde += n;
+                numero -= n;
+            }
+        }
+
+        @Override
+        void copiarDesde(long[] origen, int posicion, int desde, int numero) {
+            while (numero > 0) {
+                LongBuffer segmento = segmentos[desde >>> BITS_SEGMENTO];
+                int indice = desde & MASCARA_SEGMENTO;
+                int n = Math.min(numero, segmento.limit() - indice);
+                segmento.put(indice, origen, posicion, n);
+                posicion += n;
+                desde += n;
+                numero -= n;
+            }
+        }
+
+        @Override
+        void leer(LongBuffer origen, int desde, int numero) {
+            while (numero > 0) {
+                LongBuffer segmento = segmentos[desde >>> BITS_SEGMENTO].duplicate();
+                segmento.position(desde & MASCARA_SEGMENTO);
+                int n = Math.min(numero, segmento.remaining());
+                LongBuffer trozo = origen.duplicate();
+                trozo.limit(trozo.position() + n);
+                segmento.put(trozo);
+                origen.position(origen.position() + n);
+                desde += n;
+                numero -= n;
+            }
+        }
+
+        @Override
+        void escribir(LongBuffer destino, int desde, int numero) {
+            while (numero > 0) {
+                LongBuffer segmento = segmentos[desde >>> BITS_SEGMENTO].duplicate();
+                segmento.position(desde & MASCARA_SEGMENTO);
+                int n = Math.min(numero, segmento.remaining());
+                segmento.limit(segmento.position() + n);
+                destino.put(segmento);
+                desde += n;
+                numero -= n;
+            }
+        }
+
+        @Override
+        boolean fueraDelHeap() {
+            return true;
+        }
+
+        @Override
+        void liberar() {
+            ByteBuffer[] liberados = bytes;
+            if (liberados == null) {
+                return;
+            }
+            // Sin referencias a las vistas, un acceso posterior falla en Java
+            // en lugar de leer memoria ya liberada
+            bytes = null;
+            segmentos = null;
+            if (INVOCAR_LIMPIADOR != null) {
+                for (ByteBuffer segmento : liberados) {
+                    try {
+                        INVOCAR_LIMPIADOR.invoke(UNSAFE, segmento);
+                    } catch (ReflectiveOperationException | RuntimeException e) {
+                        // Se liberará cuando el recolector recoja el búfer
+                    }
+                }
+            }
+        }
+    }
+}
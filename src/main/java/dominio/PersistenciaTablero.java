@@ -0,0 +1,553 @@
+package dominio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura y escritura de tableros del Juego de la Vida en disco.
+ * <p>
+ * Admite tres formatos:
+ * <ul>
+ *   <li><b>Binario</b>: cabecera con dimensiones y número de generación
+ *   seguida de las filas empaquetadas en bits, tal y como las guarda
+ *   {@link TableroCompacto}. Se lee y escribe a través de
+ *   {@link FileChannel}s proyectados en memoria, por bloques, de modo que
+ *   los tableros de varios gigabytes se cargan sin copias intermedias.
+ *   Sirve para guardar puntos de control y reanudar simulaciones largas.</li>
+ *   <li><b>Texto</b>: el formato del fichero 'matriz' (una línea por fila y
+ *   un carácter '0' o '1' por célula), procesado byte a byte en flujo sin
+ *   crear una cadena por línea.</li>
+ *   <li><b>RLE</b>: el formato habitual de los ficheros de patrones
+ *   ({@code x = ..., y = ...} seguido de series como {@code 3o2b$}).</li>
+ * </ul>
+ * Los lectores que crean el tablero lo hacen por defecto en el heap; sus
+ * variantes con un {@link TableroCompacto.Almacenamiento} o con un fichero
+ * de proyección lo crean en memoria directa o proyectado, y lo cierran si
+ * la lectura falla. {@link #leerTexto} carga el estado en un tablero ya
+ * creado, así que conserva su almacenamiento.
+ */
+public final class PersistenciaTablero {
+
+    /**
+     * Número mágico del formato binario ("VIDA" en ASCII).
+     */
+    private static final int MAGICO = 0x56494441;
+
+    /**
+     * Versión del formato binario.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Tamaño de la cabecera binaria: mágico, versión, filas, columnas
+     * (4 bytes cada uno) y generación (8 bytes).
+     */
+    private static final int TAMANO_CABECERA = 24;
+
+    /**
+     * Tamaño máximo, en bytes, de cada bloque proyectado en memoria.
+     */
+    private static final long TAMANO_BLOQUE = 1L << 30;
+
+    /**
+     * Longitud máxima de las líneas de un fichero RLE generado.
+     */
+    private static final int ANCHO_LINEA_RLE = 70;
+
+    /**
+     * Nombre del fichero de estado por defecto.
+     */
+    static final String FICHERO_POR_DEFECTO = "matriz";
+
+    private PersistenciaTablero() {
+    }
+
+    /**
+     * Abre el fichero de estado por defecto: 'matriz' o 'matriz.txt' en el
+     * directorio de trabajo y, si no existen, el recurso 'matriz.txt' del
+     * classpath.
+     *
+     * @return Flujo de lectura del fichero encontrado.
+     * @throws IOException Si no se encuentra ninguno de ellos
+     *                     ({@link FileNotFoundException}) o no se puede abrir.
+     */
+    static InputStream abrirFicheroPorDefecto() throws IOException {
+        for (String nombre : new String[]{FICHERO_POR_DEFECTO, FICHERO_POR_DEFECTO + ".txt"}) {
+            Path ruta = Paths.get(nombre);
+            if (Files.isRegularFile(ruta)) {
+                return Files.newInputStream(ruta);
+            }
+        }
+        InputStream recurso = PersistenciaTablero.class.getResourceAsStream("/" + FICHERO_POR_DEFECTO + ".txt");
+        if (recurso == null) {
+            throw new FileNotFoundException(FICHERO_POR_DEFECTO + " (No such file or directory)");
+        }
+        return recurso;
+    }
+
+    /**
+     * Abre un fichero de texto para leerlo línea a línea.
+     *
+     * @param entrada Flujo de bytes del fichero.
+     * @return Lector con búfer sobre el flujo.
+     */
+    static BufferedReader lector(InputStream entrada) {
+        return new BufferedReader(new InputStreamReader(entrada, StandardCharsets.US_ASCII));
+    }
+
+    // ------------------------------------------------------------------
+    // Formato binario
+    // ------------------------------------------------------------------
+
+    /**
+     * Guarda el tablero en formato binario.
+     *
+     * @param tablero Tablero a guardar.
+     * @param ruta    Fichero de destino (se sobrescribe si existe).
+     * @throws IOException Si ocurre un error al escribir el fichero.
+     */
+    public static void guardarBinario(TableroCompacto tablero, Path ruta) throws IOException {
+        PalabrasTablero palabras = tablero.palabras();
+        long tamano = TAMANO_CABECERA + 8L * palabras.longitud;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(MAGICO)
+                    .putInt(VERSION)
+                    .putInt(tablero.getFilas())
+                    .putInt(tablero.getColumnas())
+                    .putLong(tablero.getGeneracion());
+
+            int indice = 0;
+            for (long posicion = TAMANO_CABECERA; posicion < tamano; ) {
+                long bytes = Math.min(TAMANO_BLOQUE, tamano - posicion);
+                LongBuffer bloque = canal.map(FileChannel.MapMode.READ_WRITE, posicion, bytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                int numero = (int) (bytes / 8);
+                palabras.escribir(bloque, indice, numero);
+                indice += numero;
+                posicion += bytes;
+            }
+        }
+    }
+
+    /**
+     * Lee en el heap un tablero guardado con {@link #guardarBinario},
+     * incluido su número de generación.
+     *
+     * @param ruta Fichero de origen.
+     * @return Tablero con el estado y la generación guardados.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     */
+    public static TableroCompacto leerBinario(Path ruta) throws IOException {
+        return leerBinario(ruta, TableroCompacto::new);
+    }
+
+    /**
+     * Lee un tablero guardado con {@link #guardarBinario} en el heap o en
+     * memoria directa.
+     *
+     * @param ruta           Fichero de origen.
+     * @param almacenamiento {@link TableroCompacto.Almacenamiento#HEAP} o
+     *                       {@link TableroCompacto.Almacenamiento#DIRECTO}.
+     * @return Tablero con el estado y la generación guardados.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     * @throws IllegalArgumentException Si se pide
+     *                                  {@link TableroCompacto.Almacenamiento#PROYECTADO},
+     *                                  que necesita un fichero.
+     */
+    public static TableroCompacto leerBinario(Path ruta, TableroCompacto.Almacenamiento almacenamiento)
+            throws IOException {
+        return leerBinario(ruta, (filas, columnas) -> new TableroCompacto(filas, columnas, almacenamiento));
+    }
+
+    /**
+     * Lee un tablero guardado con {@link #guardarBinario} en un tablero
+     * proyectado desde {@code proyeccion} (véase
+     * {@link TableroCompacto#TableroCompacto(int, int, Path)}), para cargar
+     * tableros mayores que la memoria.
+     *
+     * @param ruta       Fichero de origen.
+     * @param proyeccion Fichero en el que se proyecta el estado; se crea o se
+     *                   vacía, así que no puede ser {@code ruta}.
+     * @return Tablero con el estado y la generación guardados.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     * @throws IllegalArgumentException Si {@code proyeccion} es el propio {@code ruta}.
+     */
+    public static TableroCompacto leerBinario(Path ruta, Path proyeccion) throws IOException {
+        comprobarProyeccion(ruta, proyeccion);
+        return leerBinario(ruta, (filas, columnas) -> new TableroCompacto(filas, columnas, proyeccion));
+    }
+
+    private static TableroCompacto leerBinario(Path ruta, CreadorTablero creador) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_CABECERA) {
+                throw new IOException("El fichero " + ruta + " no tiene cabecera de tablero.");
+            }
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANO_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+                throw new IOException("El fichero " + ruta + " no es un tablero binario válido.");
+            }
+            int filas = cabecera.getInt();
+            int columnas = cabecera.getInt();
+            long generacion = cabecera.getLong();
+            if (filas < 1 || columnas < 1) {
+                throw new IOException("El fichero " + ruta + " indica unas dimensiones no válidas: "
+                        + filas + "x" + columnas + ".");
+            }
+
+            // Se comprueba el tamaño antes de reservar el tablero
+            long tamano = TAMANO_CABECERA + 8L * filas * ((columnas + 63L) / 64);
+            if (canal.size() < tamano) {
+                throw new IOException("El fichero " + ruta + " está truncado.");
+            }
+            TableroCompacto tablero = creador.crear(filas, columnas);
+            try {
+                PalabrasTablero palabras = tablero.palabras();
+                int indice = 0;
+                for (long posicion = TAMANO_CABECERA; posicion < tamano; ) {
+                    long bytes = Math.min(TAMANO_BLOQUE, tamano - posicion);
+                    LongBuffer bloque = canal.map(FileChannel.MapMode.READ_ONLY, posicion, bytes)
+                            .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                    int numero = (int) (bytes / 8);
+                    palabras.leer(bloque, indice, numero);
+                    indice += numero;
+                    posicion += bytes;
+                }
+                tablero.palabrasModificadas();
+                tablero.setGeneracion(generacion);
+                return tablero;
+            } catch (IOException | RuntimeException e) {
+                tablero.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Crea el tablero vacío en el que se carga un fichero, con el
+     * almacenamiento pedido.
+     */
+    private interface CreadorTablero {
+        TableroCompacto crear(int filas, int columnas) throws IOException;
+    }
+
+    /**
+     * Comprueba que el fichero de proyección no es el de origen, que se
+     * vaciaría al crear el tablero.
+     */
+    private static void comprobarProyeccion(Path ruta, Path proyeccion) throws IOException {
+        if (Files.exists(proyeccion) && Files.isSameFile(ruta, proyeccion)) {
+            throw new IllegalArgumentException("El fichero de proyección no puede ser el de origen: " + ruta);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Formato de texto ('0' / '1')
+    // ------------------------------------------------------------------
+
+    /**
+     * Carga en el tablero un fichero de texto con el formato de 'matriz'. El
+     * tablero conserva su almacenamiento (heap, directo o proyectado).
+     *
+     * @param tablero Tablero en el que se carga el estado.
+     * @param ruta    Fichero de origen.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public static void leerTexto(TableroCompacto tablero, Path ruta) throws IOException {
+        try (InputStream entrada = Files.newInputStream(ruta)) {
+            leerTexto(tablero, entrada);
+        }
+    }
+
+    /**
+     * Carga en el tablero un flujo con el formato de 'matriz'. Las filas y
+     * columnas que sobran se ignoran; las que faltan quedan muertas.
+     *
+     * @param tablero Tablero en el que se carga el estado.
+     * @param entrada Flujo de origen (no se cierra).
+     * @throws IOException Si ocurre un error al leer el flujo.
+     */
+    public static void leerTexto(TableroCompacto tablero, InputStream entrada) throws IOException {
+        PalabrasTablero palabras = tablero.palabras();
+        palabras.vaciar();
+        int palabrasPorFila = tablero.getPalabrasPorFila();
+        int filas = tablero.getFilas();
+        int columnas = tablero.getColumnas();
+
+        InputStream in = new BufferedInputStream(entrada, 1 << 16);
+        int fila = 0;
+        int col = 0;
+        int c;
+        while (fila < filas && (c = in.read()) != -1) {
+            if (c == '\n') {
+                fila++;
+                col = 0;
+            } else if (c != '\r') {
+                if (c == '1' && col < columnas) {
+                    int indice = fila * palabrasPorFila + (col >>> 6);
+                    palabras.set(indice, palabras.get(indice) | (1L << col));
+                }
+                col++;
+            }
+        }
+        tablero.palabrasModificadas();
+    }
+
+    /**
+     * Guarda el tablero en el formato de texto de 'matriz', fila a fila.
+     *
+     * @param tablero Tablero a guardar.
+     * @param ruta    Fichero de destino (se sobrescribe si existe).
+     * @throws IOException Si ocurre un error al escribir el fichero.
+     */
+    public static void guardarTexto(TableroCompacto tablero, Path ruta) throws IOException {
+        try (OutputStream salida = Files.newOutputStream(ruta)) {
+            guardarTexto(tablero, salida);
+        }
+    }
+
+    /**
+     * Escribe el tablero en el formato de texto de 'matriz', reutilizando un
+     * único búfer de fila.
+     *
+     * @param tablero Tablero a guardar.
+     * @param salida  Flujo de destino (no se cierra).
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public static void guardarTexto(TableroCompacto tablero, OutputStream salida) throws IOException {
+        PalabrasTablero palabras = tablero.palabras();
+        int palabrasPorFila = tablero.getPalabrasPorFila();
+        int columnas = tablero.getColumnas();
+        byte[] linea = new byte[columnas + 1];
+        linea[columnas] = '\n';
+
+        OutputStream out = new BufferedOutputStream(salida, 1 << 16);
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            int base = fila * palabrasPorFila;
+            for (int col = 0; col < columnas; col++) {
+                linea[col] = (palabras.get(base + (col >>> 6)) & (1L << col)) != 0 ? (byte) '1' : (byte) '0';
+            }
+            out.write(linea);
+        }
+        out.flush();
+    }
+
+    // ------------------------------------------------------------------
+    // Formato RLE
+    // ------------------------------------------------------------------
+
+    /**
+     * Lee un patrón en formato RLE. Las líneas que empiezan por '#' se
+     * ignoran; la cabecera {@code x = ..., y = ...} fija las dimensiones del
+     * tablero. En el cuerpo, 'b' es una célula muerta, '$' un fin de fila,
+     * '!' el final del patrón y cualquier otra letra una célula viva.
+     *
+     * @param ruta Fichero de origen.
+     * @return Tablero en el heap con las dimensiones y el patrón del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero o no tiene cabecera.
+     */
+    public static TableroCompacto leerRle(Path ruta) throws IOException {
+        return leerRle(ruta, TableroCompacto::new);
+    }
+
+    /**
+     * Lee un patrón en formato RLE en un tablero en el heap o en memoria
+     * directa.
+     *
+     * @param ruta           Fichero de origen.
+     * @param almacenamiento {@link TableroCompacto.Almacenamiento#HEAP} o
+     *                       {@link TableroCompacto.Almacenamiento#DIRECTO}.
+     * @return Tablero con las dimensiones y el patrón del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero o no tiene cabecera.
+     * @throws IllegalArgumentException Si se pide
+     *                                  {@link TableroCompacto.Almacenamiento#PROYECTADO},
+     *                                  que necesita un fichero.
+     */
+    public static TableroCompacto leerRle(Path ruta, TableroCompacto.Almacenamiento almacenamiento)
+            throws IOException {
+        return leerRle(ruta, (filas, columnas) -> new TableroCompacto(filas, columnas, almacenamiento));
+    }
+
+    /**
+     * Lee un patrón en formato RLE en un tablero proyectado desde
+     * {@code proyeccion}.
+     *
+     * @param ruta       Fichero de origen.
+     * @param proyeccion Fichero en el que se proyecta el estado; se crea o se
+     *                   vacía, así que no puede ser {@code ruta}.
+     * @return Tablero con las dimensiones y el patrón del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero o no tiene cabecera.
+     * @throws IllegalArgumentException Si {@code proyeccion} es el propio {@code ruta}.
+     */
+    public static TableroCompacto leerRle(Path ruta, Path proyeccion) throws IOException {
+        comprobarProyeccion(ruta, proyeccion);
+        return leerRle(ruta, (filas, columnas) -> new TableroCompacto(filas, columnas, proyeccion));
+    }
+
+    private static TableroCompacto leerRle(Path ruta, CreadorTablero creador) throws IOException {
+        try (BufferedReader br = lector(Files.newInputStream(ruta))) {
+            String linea;
+            do {
+                linea = br.readLine();
+            } while (linea != null && (linea.isBlank() || linea.startsWith("#")));
+            if (linea == null) {
+                throw new IOException("El fichero " + ruta + " no contiene cabecera RLE.");
+            }
+            int columnas = valorCabecera(linea, "x");
+            int filas = valorCabecera(linea, "y");
+            if (filas < 1 || columnas < 1) {
+                throw new IOException("La cabecera RLE de " + ruta + " indica unas dimensiones no válidas: "
+                        + columnas + "x" + filas + ".");
+            }
+            TableroCompacto tablero = creador.crear(filas, columnas);
+            try {
+                PalabrasTablero palabras = tablero.palabras();
+                int palabrasPorFila = tablero.getPalabrasPorFila();
+
+                int fila = 0;
+                int col = 0;
+                int repeticiones = 0;
+                int c;
+                while ((c = br.read()) != -1 && c != '!') {
+                    if (c >= '0' && c <= '9') {
+                        repeticiones = repeticiones * 10 + (c - '0');
+                        continue;
+                    }
+                    int n = (repeticiones == 0) ? 1 : repeticiones;
+                    repeticiones = 0;
+                    if (c == '$') {
+                        fila += n;
+                        col = 0;
+                    } else if (c == 'b' || c == '.') {
+                        col += n;
+                    } else if (Character.isLetter(c)) {
+                        for (int k = 0; k < n; k++, col++) {
+                            if (fila < filas && col < columnas) {
+                                int indice = fila * palabrasPorFila + (col >>> 6);
+                                palabras.set(indice, palabras.get(indice) | (1L << col));
+                            }
+                        }
+                    }
+                }
+                tablero.palabrasModificadas();
+                return tablero;
+            } catch (IOException | RuntimeException e) {
+                tablero.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Extrae el valor entero de la clave indicada de una cabecera RLE.
+     */
+    private static int valorCabecera(String cabecera, String clave) throws IOException {
+        for (String parte : cabecera.split(",")) {
+            String[] claveValor = parte.split("=");
+            if (claveValor.length == 2 && claveValor[0].trim().equals(clave)) {
+                try {
+                    return Integer.parseInt(claveValor[1].trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Valor no válido para '" + clave + "' en la cabecera RLE.", e);
+                }
+            }
+        }
+        throw new IOException("La cabecera RLE no indica el valor de '" + clave + "'.");
+    }
+
+    /**
+     * Guarda el tablero en formato RLE con la regla B3/S23.
+     *
+     * @param tablero Tablero a guardar.
+     * @param ruta    Fichero de destino (se sobrescribe si existe).
+     * @throws IOException Si ocurre un error al escribir el fichero.
+     */
+    public static void guardarRle(TableroCompacto tablero, Path ruta) throws IOException {
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(ruta), 1 << 16)) {
+            EscritorRle escritor = new EscritorRle(salida);
+            escritor.texto("x = " + tablero.getColumnas() + ", y = " + tablero.getFilas() + ", rule = B3/S23\n");
+
+            PalabrasTablero palabras = tablero.palabras();
+            int palabrasPorFila = tablero.getPalabrasPorFila();
+            int finalesPendientes = 0;
+            for (int fila = 0; fila < tablero.getFilas(); fila++) {
+                int base = fila * palabrasPorFila;
+                boolean anterior = false;
+                int serie = 0;
+                boolean filaVacia = true;
+                for (int col = 0; col < tablero.getColumnas(); col++) {
+                    boolean viva = (palabras.get(base + (col >>> 6)) & (1L << col)) != 0;
+                    if (viva && filaVacia) {
+                        // Los finales de fila se acumulan hasta la siguiente fila con células vivas
+                        if (finalesPendientes > 0) {
+                            escritor.serie(finalesPendientes, '$');
+                            finalesPendientes = 0;
+                        }
+                        filaVacia = false;
+                    }
+                    if (serie > 0 && viva != anterior) {
+                        escritor.serie(serie, anterior ? 'o' : 'b');
+                        serie = 0;
+                    }
+                    anterior = viva;
+                    serie++;
+                }
+                // Las células muertas del final de la fila no se escriben
+                if (serie > 0 && anterior) {
+                    escritor.serie(serie, 'o');
+                }
+                finalesPendientes++;
+            }
+            escritor.serie(1, '!');
+            escritor.texto("\n");
+        }
+    }
+
+    /**
+     * Escribe series RLE respetando la longitud máxima de línea.
+     */
+    private static final class EscritorRle {
+
+        private final OutputStream salida;
+        private int ancho;
+
+        EscritorRle(OutputStream salida) {
+            this.salida = salida;
+        }
+
+        void serie(int n, char simbolo) throws IOException {
+            String token = (n == 1) ? String.valueOf(simbolo) : n + String.valueOf(simbolo);
+            if (ancho + token.length() > ANCHO_LINEA_RLE) {
+                salida.write('\n');
+                ancho = 0;
+            }
+            texto(token);
+            ancho += token.length();
+        }
+
+        void texto(String texto) throws IOException {
+            salida.write(texto.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
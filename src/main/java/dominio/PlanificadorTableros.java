@@ -0,0 +1,339 @@
+package dominio;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simula muchos {@link Tablero} independientes a la vez sobre un
+ * {@link ForkJoinPool}, hasta que cada uno se estabiliza, entra en un ciclo
+ * o alcanza un número máximo de generaciones.
+ * <p>
+ * Los tableros se agrupan en lotes de {@link #setTablerosPorLote(int)
+ * tamaño fijo}. Cada tarea avanza las generaciones de un
+ * {@link #setGeneracionesPorTurno(int) turno} a todos los tableros activos de
+ * su lote, retira los que han terminado y, si queda alguno, se vuelve a
+ * encolar. Los hilos ociosos roban turnos pendientes de los demás, así que
+ * los lotes que se estabilizan pronto no dejan hilos parados mientras otros
+ * siguen oscilando.
+ * <p>
+ * Para detectar el final se usa el historial de resúmenes de Zobrist de
+ * cada tablero ({@link Tablero#getPeriodo()}), dimensionado para recordar
+ * las últimas {@link #setPeriodoMaximo(int) generaciones}: en cuanto el
+ * estado actual coincide con el de hace {@code p} generaciones, el tablero
+ * repite un ciclo de periodo {@code p} (con {@code p = 1}, está quieto o
+ * muerto) y deja de planificarse.
+ */
+public class PlanificadorTableros {
+
+    /**
+     * Situación de un tablero al terminar la simulación.
+     */
+    public enum Estado {
+        /**
+         * El estado no cambia (incluye el tablero sin células vivas).
+         */
+        ESTABLE,
+        /**
+         * El estado se repite con un periodo mayor que 1.
+         */
+        OSCILANTE,
+        /**
+         * Se alcanzó el máximo de generaciones sin detectar un ciclo.
+         */
+        LIMITE
+    }
+
+    private final ForkJoinPool pool;
+    private int generacionesPorTurno = 32;
+    private int tablerosPorLote = 16;
+    private long maxGeneraciones = 10_000;
+    private int periodoMaximo = 16;
+
+    /**
+     * Crea un planificador que usa el pool común.
+     */
+    public PlanificadorTableros() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un planificador.
+     *
+     * @param pool Pool de hilos en el que se ejecutan los turnos.
+     */
+    public PlanificadorTableros(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param generacionesPorTurno Generaciones que avanza cada tablero antes
+     *                             de devolver el hilo a otros lotes.
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public void setGeneracionesPorTurno(int generacionesPorTurno) {
+        if (generacionesPorTurno < 1) {
+            throw new IllegalArgumentException("Las generaciones por turno deben ser mayores que 0.");
+        }
+        this.generacionesPorTurno = generacionesPorTurno;
+    }
+
+    /**
+     * @param tablerosPorLote Tableros que procesa cada tarea.
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public void setTablerosPorLote(int tablerosPorLote) {
+        if (tablerosPorLote < 1) {
+            throw new IllegalArgumentException("Los tableros por lote deben ser mayores que 0.");
+        }
+        this.tablerosPorLote = tablerosPorLote;
+    }
+
+    /**
+     * @param maxGeneraciones Generaciones tras las que se deja de simular un
+     *                        tablero aunque no se haya detectado un ciclo.
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public void setMaxGeneraciones(long maxGeneraciones) {
+        if (maxGeneraciones < 1) {
+            throw new IllegalArgumentException("El máximo de generaciones debe ser mayor que 0.");
+        }
+        this.maxGeneraciones = maxGeneraciones;
+    }
+
+    /**
+     * @param periodoMaximo Mayor periodo de oscilación que se detecta (número
+     *                      de resúmenes que se guardan por tablero).
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public void setPeriodoMaximo(int periodoMaximo) {
+        if (periodoMaximo < 1) {
+            throw new IllegalArgumentException("El periodo máximo debe ser mayor que 0.");
+        }
+        this.periodoMaximo = periodoMaximo;
+    }
+
+    /**
+     * Simula todos los tableros hasta que terminen y espera al resultado.
+     * Los tableros quedan en su último estado simulado, con el historial de
+     * ciclos reiniciado al empezar.
+     *
+     * @param tableros Tableros a simular (cada uno debe aparecer una sola vez).
+     * @return Situación final de cada tablero y rendimiento agregado.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public Resultado simular(List<Tablero> tableros) throws InterruptedException {
+        int n = tableros.size();
+        Simulacion[] simulaciones = new Simulacion[n];
+        for (int i = 0; i < n; i++) {
+            simulaciones[i] = new Simulacion(tableros.get(i), periodoMaximo);
+        }
+
+        int lotes = (n + tablerosPorLote - 1) / tablerosPorLote;
+        CountDownLatch pendientes = new CountDownLatch(lotes);
+        AtomicLong generaciones = new AtomicLong();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        long inicio = System.nanoTime();
+        for (int desde = 0; desde < n; desde += tablerosPorLote) {
+            Simulacion[] lote = new Simulacion[Math.min(tablerosPorLote, n - desde)];
+            System.arraycopy(simulaciones, desde, lote, 0, lote.length);
+            pool.execute(new Turno(lote, lote.length, pendientes, generaciones, error));
+        }
+        pendientes.await();
+        long nanos = System.nanoTime() - inicio;
+        if (error.get() != null) {
+            throw new IllegalStateException("Error al simular los tableros.", error.get());
+        }
+        return new Resultado(simulaciones, generaciones.get(), nanos);
+    }
+
+    /**
+     * Estado de la simulación de un tablero.
+     */
+    private final class Simulacion {
+
+        final Tablero tablero;
+        long generacion;
+        Estado estado;
+        int periodo;
+
+        Simulacion(Tablero tablero, int periodoMaximo) {
+            this.tablero = tablero;
+            tablero.setTamanoHistorial(periodoMaximo);
+        }
+
+        /**
+         * Avanza una generación y comprueba si el tablero ha entrado en un ciclo.
+         *
+         * @return {@code true} si el tablero ha terminado.
+         */
+        boolean avanzar() {
+            tablero.transitarAlEstadoSiguiente();
+            generacion++;
+            if (tablero.getPeriodo() != 0) {
+                periodo = tablero.getPeriodo();
+                estado = (periodo == 1) ? Estado.ESTABLE : Estado.OSCILANTE;
+                return true;
+            }
+            if (generacion >= maxGeneraciones) {
+                estado = Estado.LIMITE;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Turno de un lote: avanza cada tablero activo y se vuelve a encolar
+     * con los que no han terminado.
+     */
+    private final class Turno extends RecursiveAction {
+
+        private final Simulacion[] lote;
+        private final int activos;
+        private final CountDownLatch pendientes;
+        private final AtomicLong generaciones;
+        private final AtomicReference<Throwable> error;
+
+        Turno(Simulacion[] lote, int activos, CountDownLatch pendientes, AtomicLong generaciones,
+              AtomicReference<Throwable> error) {
+            this.lote = lote;
+            this.activos = activos;
+            this.pendientes = pendientes;
+            this.generaciones = generaciones;
+            this.error = error;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                int quedan = 0;
+                long avanzadas = 0;
+                for (int i = 0; i < activos; i++) {
+                    Simulacion simulacion = lote[i];
+                    boolean terminada = false;
+                    for (int g = 0; g < generacionesPorTurno && !terminada; g++) {
+                        terminada = simulacion.avanzar();
+                        avanzadas++;
+                    }
+                    if (!terminada) {
+                        // Compactamos los activos al principio del lote
+                        lote[quedan++] = simulacion;
+                    }
+                }
+                generaciones.addAndGet(avanzadas);
+                if (quedan > 0 && error.get() == null) {
+                    new Turno(lote, quedan, pendientes, generaciones, error).fork();
+                    return;
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            }
+            pendientes.countDown();
+        }
+    }
+
+    /**
+     * Resultado de una simulación.
+     */
+    public static final class Resultado {
+
+        private final Estado[] estados;
+        private final long[] generaciones;
+        private final int[] periodos;
+        private final long totalGeneraciones;
+        private final long nanos;
+
+        private Resultado(Simulacion[] simulaciones, long totalGeneraciones, long nanos) {
+            int n = simulaciones.length;
+            this.estados = new Estado[n];
+            this.generaciones = new long[n];
+            this.periodos = new int[n];
+            for (int i = 0; i < n; i++) {
+                estados[i] = simulaciones[i].estado;
+                generaciones[i] = simulaciones[i].generacion;
+                periodos[i] = simulaciones[i].periodo;
+            }
+            this.totalGeneraciones = totalGeneraciones;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @param i Posición del tablero en la lista simulada.
+         * @return Situación final del tablero.
+         */
+        public Estado getEstado(int i) {
+            return estados[i];
+        }
+
+        /**
+         * @param i Posición del tablero en la lista simulada.
+         * @return Generaciones simuladas hasta detectar el ciclo o el límite.
+         */
+        public long getGeneraciones(int i) {
+            return generaciones[i];
+        }
+
+        /**
+         * @param i Posición del tablero en la lista simulada.
+         * @return Periodo del ciclo (1 si es estable), o 0 si no se detectó.
+         */
+        public int getPeriodo(int i) {
+            return periodos[i];
+        }
+
+        /**
+         * @param i Posición del tablero en la lista simulada.
+         * @return Generación en la que empezó el ciclo, o -1 si no se detectó.
+         */
+        public long getInicioCiclo(int i) {
+            return (periodos[i] == 0) ? -1 : generaciones[i] - periodos[i];
+        }
+
+        /**
+         * @param estado Situación final.
+         * @return Número de tableros que terminaron en esa situación.
+         */
+        public int contar(Estado estado) {
+            int total = 0;
+            for (Estado e : estados) {
+                if (e == estado) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        /**
+         * @return Generaciones simuladas entre todos los tableros.
+         */
+        public long getTotalGeneraciones() {
+            return totalGeneraciones;
+        }
+
+        /**
+         * @return Duración de la simulación en segundos.
+         */
+        public double getSegundos() {
+            return nanos / 1e9;
+        }
+
+        /**
+         * @return Generaciones simuladas por segundo entre todos los tableros.
+         */
+        public double getGeneracionesPorSegundo() {
+            return (nanos == 0) ? 0.0 : totalGeneraciones * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d tableros: %d estables, %d oscilantes, %d en el límite; "
+                            + "%d generaciones en %.3f s (%.0f generaciones/s)",
+                    estados.length, contar(Estado.ESTABLE), contar(Estado.OSCILANTE), contar(Estado.LIMITE),
+                    totalGeneraciones, getSegundos(), getGeneracionesPorSegundo());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package dominio;
+
+import java.util.Locale;
+
+/**
+ * Regla de un autómata celular de tipo «Vida» (vecindad de Moore de 8
+ * células y dos estados), escrita en notación {@code B<nacimiento>/S<supervivencia>}:
+ * {@code B3/S23} es el Juego de la Vida de Conway y {@code B36/S23}, HighLife.
+ * <p>
+ * La regla se compila a una tabla de 18 entradas indexada por
+ * {@code estado * 9 + vecinosVivos}, de modo que aplicarla a una célula es
+ * un único acceso a memoria sin comparaciones.
+ */
+public final class ReglaVida {
+
+    /**
+     * Juego de la Vida de Conway.
+     */
+    public static final ReglaVida CONWAY = analizar("B3/S23");
+
+    /**
+     * HighLife: como Conway, pero con 6 vecinos también nace una célula.
+     */
+    public static final ReglaVida HIGHLIFE = analizar("B36/S23");
+
+    /**
+     * Estado siguiente de cada célula, indexado por
+     * {@code estadoActual * 9 + vecinosVivos}.
+     */
+    private final int[] tabla;
+
+    private final String texto;
+
+    private ReglaVida(int[] tabla, String texto) {
+        this.tabla = tabla;
+        this.texto = texto;
+    }
+
+    /**
+     * Analiza una regla en notación {@code B.../S...} (sin distinguir
+     * mayúsculas y en cualquier orden), por ejemplo {@code B36/S23} o
+     * {@code s23/b3}. Cada parte lista los números de vecinos, de 0 a 8, con
+     * los que una célula nace o sobrevive; puede estar vacía ({@code B3/S}).
+     *
+     * @param regla Texto de la regla.
+     * @return Regla equivalente.
+     * @throws IllegalArgumentException Si el texto no tiene el formato
+     *                                  indicado.
+     */
+    public static ReglaVida analizar(String regla) {
+        String[] partes = regla.strip().toUpperCase(Locale.ROOT).split("/", -1);
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Regla no válida: '" + regla + "'. Se espera B.../S...");
+        }
+        int[] tabla = new int[18];
+        boolean hayNacimiento = false;
+        boolean haySupervivencia = false;
+        for (String parte : partes) {
+            if (parte.isEmpty()) {
+                throw new IllegalArgumentException("Regla no válida: '" + regla + "'. Se espera B.../S...");
+            }
+            char tipo = parte.charAt(0);
+            int estado;
+            if (tipo == 'B' && !hayNacimiento) {
+                hayNacimiento = true;
+                estado = 0;
+            } else if (tipo == 'S' && !haySupervivencia) {
+                haySupervivencia = true;
+                estado = 1;
+            } else {
+                throw new IllegalArgumentException("Regla no válida: '" + regla + "'. Se espera B.../S...");
+            }
+            for (int k = 1; k < parte.length(); k++) {
+                char c = parte.charAt(k);
+                if (c < '0' || c > '8') {
+                    throw new IllegalArgumentException("Número de vecinos no válido en la regla '" + regla
+                            + "': '" + c + "'.");
+                }
+                tabla[estado * 9 + (c - '0')] = 1;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder("B");
+        for (int n = 0; n <= 8; n++) {
+            if (tabla[n] == 1) {
+                sb.append(n);
+            }
+        }
+        sb.append("/S");
+        for (int n = 0; n <= 8; n++) {
+            if (tabla[9 + n] == 1) {
+                sb.append(n);
+            }
+        }
+        return new ReglaVida(tabla, sb.toString());
+    }
+
+    /**
+     * @param vecinosVivos Número de vecinos vivos (0 a 8).
+     * @return {@code true} si una célula muerta con esos vecinos nace.
+     */
+    public boolean nace(int vecinosVivos) {
+        return tabla[vecinosVivos] == 1;
+    }
+
+    /**
+     * @param vecinosVivos Número de vecinos vivos (0 a 8).
+     * @return {@code true} si una célula viva con esos vecinos sigue viva.
+     */
+    public boolean sobrevive(int vecinosVivos) {
+        return tabla[9 + vecinosVivos] == 1;
+    }
+
+    /**
+     * Devuelve la tabla compilada, que no debe modificarse.
+     *
+     * @return Estado siguiente indexado por {@code estado * 9 + vecinosVivos}.
+     */
+    int[] tabla() {
+        return tabla;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ReglaVida otra && texto.equals(otra.texto);
+    }
+
+    @Override
+    public int hashCode() {
+        return texto.hashCode();
+    }
+
+    /**
+     * @return La regla en forma canónica, por ejemplo {@code B36/S23}.
+     */
+    @Override
+    public String toString() {
+        return texto;
+    }
+}
@@ -0,0 +1,313 @@
+package dominio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Dibuja en texto el estado de un tablero (o una ventana de él) sin crear
+ * objetos en cada generación.
+ * <p>
+ * El fotograma se escribe en un {@code byte[]} propio, con el formato de
+ * {@link Tablero#toString()} (un carácter '0' o '1' por célula y un salto de
+ * línea por fila), que se reutiliza de una generación a otra. Se puede enviar
+ * completo a un {@link OutputStream} o a un {@link WritableByteChannel}, o bien
+ * enviar solo las diferencias con el fotograma anterior como secuencias ANSI
+ * de posicionamiento del cursor, útiles para reproducir la simulación en una
+ * terminal a gran velocidad.
+ * <p>
+ * Uso típico: {@code renderizar(tablero)} seguido de
+ * {@code escribirFotograma(salida)} o {@code escribirDiferencias(salida)}.
+ */
+public class RenderizadorTablero {
+
+    /**
+     * Secuencia ANSI que borra la pantalla y lleva el cursor al inicio.
+     */
+    private static final byte[] BORRAR_PANTALLA = {0x1b, '[', '2', 'J', 0x1b, '[', 'H'};
+
+    /**
+     * Ventana del tablero que se dibuja: esquina superior izquierda y tamaño.
+     */
+    private final int filaInicial;
+    private final int columnaInicial;
+    private final int filas;
+    private final int columnas;
+
+    /**
+     * Fotograma actual y anterior (se intercambian al escribir diferencias),
+     * con sus envoltorios {@link ByteBuffer} reutilizables.
+     */
+    private byte[] fotograma;
+    private byte[] fotogramaAnterior;
+    private ByteBuffer bufferFotograma;
+    private ByteBuffer bufferAnterior;
+
+    /**
+     * Búfer en el que se componen las diferencias, ampliado solo cuando no
+     * cabe un fotograma completo de diferencias.
+     */
+    private byte[] diferencias;
+    private int longitudDiferencias;
+    private ByteBuffer bufferDiferencias;
+
+    /**
+     * Indica si hay un fotograma anterior con el que comparar.
+     */
+    private boolean hayAnterior;
+
+    /**
+     * Crea un renderizador para las primeras {@code filas} x {@code columnas}
+     * células del tablero.
+     *
+     * @param filas    Número de filas a dibujar.
+     * @param columnas Número de columnas a dibujar.
+     */
+    public RenderizadorTablero(int filas, int columnas) {
+        this(0, 0, filas, columnas);
+    }
+
+    /**
+     * Crea un renderizador para la ventana del tablero que empieza en
+     * (filaInicial, columnaInicial) con el tamaño indicado.
+     *
+     * @param filaInicial    Fila de la esquina superior izquierda.
+     * @param columnaInicial Columna de la esquina superior izquierda.
+     * @param filas          Número de filas a dibujar.
+     * @param columnas       Número de columnas a dibujar.
+     * @throws IllegalArgumentException Si la ventana no es válida.
+     */
+    public RenderizadorTablero(int filaInicial, int columnaInicial, int filas, int columnas) {
+        if (filaInicial < 0 || columnaInicial < 0 || filas < 1 || columnas < 1) {
+            throw new IllegalArgumentException("La ventana a dibujar no es válida.");
+        }
+        this.filaInicial = filaInicial;
+        this.columnaInicial = columnaInicial;
+        this.filas = filas;
+        this.columnas = columnas;
+        int tamano = Math.multiplyExact(filas, columnas + 1);
+        this.fotograma = new byte[tamano];
+        this.fotogramaAnterior = new byte[tamano];
+        this.bufferFotograma = ByteBuffer.wrap(fotograma);
+        this.bufferAnterior = ByteBuffer.wrap(fotogramaAnterior);
+        this.diferencias = new byte[256];
+        this.bufferDiferencias = ByteBuffer.wrap(diferencias);
+    }
+
+    /**
+     * Dibuja la ventana del tablero en el fotograma interno.
+     *
+     * @param tablero Tablero a dibujar.
+     * @return Fotograma interno; su contenido cambia en la siguiente llamada.
+     * @throws IndexOutOfBoundsException Si la ventana se sale del tablero.
+     */
+    public byte[] renderizar(TableroCompacto tablero) {
+        comprobarVentana(tablero.getFilas(), tablero.getColumnas());
+        PalabrasTablero palabras = tablero.palabras();
+        int palabrasPorFila = tablero.getPalabrasPorFila();
+        int p = 0;
+        for (int i = 0; i < filas; i++) {
+            int base = (filaInicial + i) * palabrasPorFila;
+            for (int j = columnaInicial; j < columnaInicial + columnas; j++) {
+                fotograma[p++] = (byte) ('0' + (int) ((palabras.get(base + (j >>> 6)) >>> j) & 1L));
+            }
+            fotograma[p++] = '\n';
+        }
+        return fotograma;
+    }
+
+    /**
+     * Dibuja la ventana del tablero en el fotograma interno.
+     *
+     * @param tablero Tablero a dibujar.
+     * @return Fotograma interno; su contenido cambia en la siguiente llamada.
+     * @throws IndexOutOfBoundsException Si la ventana se sale del tablero.
+     */
+    public byte[] renderizar(Tablero tablero) {
+        comprobarVentana(tablero.getFilas(), tablero.getColumnas());
+        int[][] celdas = tablero.celdas();
+        int p = 0;
+        for (int i = 0; i < filas; i++) {
+            // Las celdas tienen una fila y una columna de margen
+            int[] fila = celdas[filaInicial + i + 1];
+            for (int j = columnaInicial + 1; j <= columnaInicial + columnas; j++) {
+                fotograma[p++] = (byte) ('0' + fila[j]);
+            }
+            fotograma[p++] = '\n';
+        }
+        return fotograma;
+    }
+
+    /**
+     * Verifica que la ventana cabe en un tablero de las dimensiones dadas.
+     */
+    private void comprobarVentana(int filasTablero, int columnasTablero) {
+        if (filaInicial + filas > filasTablero || columnaInicial + columnas > columnasTablero) {
+            throw new IndexOutOfBoundsException("La ventana se sale del tablero de "
+                    + filasTablero + "x" + columnasTablero + ".");
+        }
+    }
+
+    /**
+     * Escribe el último fotograma dibujado completo.
+     *
+     * @param salida Flujo de destino (no se cierra).
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void escribirFotograma(OutputStream salida) throws IOException {
+        salida.write(fotograma, 0, fotograma.length);
+        salida.flush();
+        guardarComoAnterior();
+    }
+
+    /**
+     * Escribe el último fotograma dibujado completo.
+     *
+     * @param canal Canal de destino (no se cierra).
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void escribirFotograma(WritableByteChannel canal) throws IOException {
+        bufferFotograma.clear();
+        while (bufferFotograma.hasRemaining()) {
+            canal.write(bufferFotograma);
+        }
+        guardarComoAnterior();
+    }
+
+    /**
+     * Escribe solo las células que han cambiado respecto al fotograma
+     * anterior, agrupadas en tramos consecutivos de cada fila y precedidas de
+     * la secuencia ANSI que sitúa el cursor. La primera vez (o tras
+     * {@link #reiniciar()}) borra la pantalla y escribe el fotograma completo.
+     *
+     * @param salida Flujo de destino (no se cierra).
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void escribirDiferencias(OutputStream salida) throws IOException {
+        componerDiferencias();
+        salida.write(diferencias, 0, longitudDiferencias);
+        salida.flush();
+        guardarComoAnterior();
+    }
+
+    /**
+     * Igual que {@link #escribirDiferencias(OutputStream)}, sobre un canal.
+     *
+     * @param canal Canal de destino (no se cierra).
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void escribirDiferencias(WritableByteChannel canal) throws IOException {
+        componerDiferencias();
+        bufferDiferencias.clear().limit(longitudDiferencias);
+        while (bufferDiferencias.hasRemaining()) {
+            canal.write(bufferDiferencias);
+        }
+        guardarComoAnterior();
+    }
+
+    /**
+     * Olvida el fotograma anterior, de modo que las próximas diferencias
+     * vuelvan a dibujar la pantalla completa.
+     */
+    public void reiniciar() {
+        hayAnterior = false;
+    }
+
+    /**
+     * @return Longitud en bytes de las últimas diferencias compuestas.
+     */
+    public int getLongitudDiferencias() {
+        return longitudDiferencias;
+    }
+
+    /**
+     * Compone en {@code diferencias} la salida incremental respecto al
+     * fotograma anterior.
+     */
+    private void componerDiferencias() {
+        longitudDiferencias = 0;
+        if (!hayAnterior) {
+            anadir(BORRAR_PANTALLA, 0, BORRAR_PANTALLA.length);
+            anadir(fotograma, 0, fotograma.length);
+            return;
+        }
+        int ancho = columnas + 1;
+        for (int i = 0; i < filas; i++) {
+            int base = i * ancho;
+            int j = 0;
+            while (j < columnas) {
+                if (fotograma[base + j] == fotogramaAnterior[base + j]) {
+                    j++;
+                    continue;
+                }
+                int inicio = j;
+                while (j < columnas && fotograma[base + j] != fotogramaAnterior[base + j]) {
+                    j++;
+                }
+                moverCursor(i + 1, inicio + 1);
+                anadir(fotograma, base + inicio, j - inicio);
+            }
+        }
+        // Deja el cursor bajo el tablero
+        moverCursor(filas + 1, 1);
+    }
+
+    /**
+     * Añade la secuencia ANSI {@code ESC[fila;columnaH}.
+     */
+    private void moverCursor(int fila, int columna) {
+        asegurarCapacidad(24);
+        diferencias[longitudDiferencias++] = 0x1b;
+        diferencias[longitudDiferencias++] = '[';
+        anadirEntero(fila);
+        diferencias[longitudDiferencias++] = ';';
+        anadirEntero(columna);
+        diferencias[longitudDiferencias++] = 'H';
+    }
+
+    /**
+     * Añade los dígitos decimales de un entero positivo sin crear cadenas.
+     */
+    private void anadirEntero(int valor) {
+        int digitos = 1;
+        for (int v = valor; v >= 10; v /= 10) {
+            digitos++;
+        }
+        for (int k = digitos - 1; k >= 0; k--) {
+            diferencias[longitudDiferencias + k] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        longitudDiferencias += digitos;
+    }
+
+    private void anadir(byte[] origen, int desde, int longitud) {
+        asegurarCapacidad(longitud);
+        System.arraycopy(origen, desde, diferencias, longitudDiferencias, longitud);
+        longitudDiferencias += longitud;
+    }
+
+    private void asegurarCapacidad(int adicional) {
+        int necesaria = longitudDiferencias + adicional;
+        if (necesaria > diferencias.length) {
+            byte[] ampliado = new byte[Math.max(necesaria, diferencias.length * 2)];
+            System.arraycopy(diferencias, 0, ampliado, 0, longitudDiferencias);
+            diferencias = ampliado;
+            bufferDiferencias = ByteBuffer.wrap(diferencias);
+        }
+    }
+
+    /**
+     * Intercambia los búferes de fotograma para que el recién escrito pase a
+     * ser el anterior, sin copiarlo.
+     */
+    private void guardarComoAnterior() {
+        byte[] aux = fotogramaAnterior;
+        fotogramaAnterior = fotograma;
+        fotograma = aux;
+        ByteBuffer auxBuffer = bufferAnterior;
+        bufferAnterior = bufferFotograma;
+        bufferFotograma = auxBuffer;
+        hayAnterior = true;
+    }
+}
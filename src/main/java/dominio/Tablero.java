@@ -1,8 +1,16 @@
 package dominio;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Representa el tablero del Juego de la Vida de Conway.
@@ -10,49 +18,270 @@ import java.io.IOException;
  * Permite cargar el estado inicial desde un fichero o generarlo
  * aleatoriamente, aplicar las reglas del juego y transicionar
  * entre estados.
+ * <p>
+ * Las dos matrices funcionan como doble búfer: al transitar se calcula
+ * el estado siguiente y se intercambian las referencias, sin copiar
+ * células.
+ * <p>
+ * El tablero mantiene un resumen de Zobrist de su estado: el XOR de una
+ * clave aleatoria de 64 bits por cada célula viva. Al calcular el estado
+ * siguiente solo se aplica la clave de las células que cambian, así que
+ * mantenerlo cuesta O(células cambiadas) por generación. Los resúmenes de
+ * las últimas generaciones se guardan en un historial acotado; cuando el
+ * estado actual coincide con uno de ellos, el tablero ha entrado en un
+ * ciclo (véanse {@link #isEstable()}, {@link #getPeriodo()} y
+ * {@link #getInicioCiclo()}).
+ * <p>
+ * La regla ({@link ReglaVida}, por defecto {@code B3/S23}) y la
+ * {@link Topologia} son configurables. Las matrices tienen una fila y una
+ * columna de margen a cada lado: en un tablero plano el margen queda
+ * siempre muerto, y en uno toroidal se rellena antes de cada generación
+ * con las filas y columnas del lado opuesto. Así el bucle interior suma
+ * los ocho vecinos sin comprobar límites y consulta la regla en una tabla.
  */
 public class Tablero {
 
     /**
-     * Dimensión del tablero (número de filas y columnas).
+     * Forma de los bordes del tablero.
+     */
+    public enum Topologia {
+        /**
+         * Las células de fuera del tablero se consideran muertas.
+         */
+        PLANO,
+        /**
+         * Los bordes opuestos se tocan: el vecino de la última columna es la
+         * primera (y lo mismo con las filas).
+         */
+        TOROIDE
+    }
+
+    /**
+     * Dimensión del tablero por defecto (número de filas y columnas).
      */
     private static final int DIMENSION = 30;
 
+    /**
+     * Número de filas y de columnas del tablero (sin el margen).
+     */
+    private final int filas;
+    private final int columnas;
+
     /**
      * Matriz que representa el estado actual de cada célula:
-     * 1 = viva, 0 = muerta.
+     * 1 = viva, 0 = muerta. La célula (i, j) está en
+     * {@code estadoActual[i + 1][j + 1]}.
      */
-    private int[][] estadoActual = new int[DIMENSION][DIMENSION];
+    private int[][] estadoActual;
 
     /**
      * Matriz que representa el siguiente estado del tablero,
      * calculado a partir de {@code estadoActual}.
      */
-    private int[][] estadoSiguiente = new int[DIMENSION][DIMENSION];
+    private int[][] estadoSiguiente;
+
+    /**
+     * Regla que se aplica en cada generación y forma de los bordes.
+     */
+    private ReglaVida regla = ReglaVida.CONWAY;
+
+    private Topologia topologia = Topologia.PLANO;
+
+    /**
+     * Número de resúmenes que se guardan por defecto en el historial.
+     */
+    private static final int TAMANO_HISTORIAL = 64;
+
+    /**
+     * Semilla de las claves de Zobrist. Es fija para que el resumen de un
+     * estado no cambie entre ejecuciones.
+     */
+    private static final long SEMILLA_CLAVES = 0x5EEDL;
+
+    /**
+     * Claves de Zobrist compartidas por todos los tableros. Salen siempre de
+     * la misma secuencia, así que las de un tablero pequeño son un prefijo de
+     * las de uno grande: basta con guardar las del mayor tablero creado y
+     * ampliarlas cuando llega uno más grande.
+     */
+    private static volatile long[] clavesCompartidas = generarClaves(DIMENSION, DIMENSION);
+
+    /**
+     * Clave de Zobrist de cada célula, indexada como las matrices con margen
+     * ({@code (fila + 1) * (columnas + 2) + col + 1}); las del margen no se usan.
+     * Es el array compartido, que puede tener más claves de las necesarias.
+     */
+    private final long[] claves;
+
+    /**
+     * Resumen de Zobrist de {@code estadoActual} y de {@code estadoSiguiente}
+     * (este último solo es válido mientras se transita).
+     */
+    private long hashActual;
+    private long hashSiguiente;
+
+    /**
+     * Células vivas de {@code estadoActual} y de {@code estadoSiguiente}.
+     */
+    private long vivasActual;
+    private long vivasSiguiente;
+
+    /**
+     * Generaciones simuladas desde la última carga.
+     */
+    private long generacion;
+
+    /**
+     * Resúmenes de las últimas generaciones: el de la generación {@code g}
+     * está en {@code historial[g % historial.length]}.
+     */
+    private long[] historial = new long[TAMANO_HISTORIAL];
+
+    /**
+     * Periodo del ciclo detectado (1 = estado fijo), o 0 si no se ha
+     * detectado ninguno.
+     */
+    private int periodo;
+
+    /**
+     * Generación en la que empezó el ciclo detectado.
+     */
+    private long inicioCiclo = -1;
+
+    /**
+     * Temporizador de las generaciones, o {@code null} si las métricas no
+     * están activadas.
+     */
+    private Timer temporizadorGeneracion;
+
+    /**
+     * Crea un tablero vacío de 30x30.
+     */
+    public Tablero() {
+        this(DIMENSION, DIMENSION);
+    }
+
+    /**
+     * Crea un tablero vacío del tamaño indicado.
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @throws IllegalArgumentException Si alguna dimensión no es positiva.
+     */
+    public Tablero(int filas, int columnas) {
+        if (filas < 1 || columnas < 1) {
+            throw new IllegalArgumentException("Las dimensiones del tablero deben ser mayores que 0.");
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.estadoActual = new int[filas + 2][columnas + 2];
+        this.estadoSiguiente = new int[filas + 2][columnas + 2];
+        this.claves = clavesPara(filas, columnas);
+    }
+
+    /**
+     * Devuelve unas claves compartidas con al menos una por posición de las
+     * matrices con margen, y solo las genera si ningún tablero anterior
+     * necesitó tantas.
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @return Las claves compartidas.
+     */
+    private static long[] clavesPara(int filas, int columnas) {
+        long necesarias = (long) (filas + 2) * (columnas + 2);
+        long[] claves = clavesCompartidas;
+        if (claves.length >= necesarias) {
+            return claves;
+        }
+        synchronized (Tablero.class) {
+            claves = clavesCompartidas;
+            if (claves.length < necesarias) {
+                claves = generarClaves(filas, columnas);
+                clavesCompartidas = claves;
+            }
+            return claves;
+        }
+    }
+
+    /**
+     * Genera las claves de Zobrist de un tablero con margen.
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @return Una clave por posición de las matrices con margen.
+     */
+    private static long[] generarClaves(int filas, int columnas) {
+        return new SplittableRandom(SEMILLA_CLAVES).longs((long) (filas + 2) * (columnas + 2)).toArray();
+    }
 
     /**
      * Lee el estado inicial de un fichero llamado 'matriz' o 'matriz.txt'.
+     * Si ninguno existe en el directorio de trabajo, se usa el recurso
+     * 'matriz.txt' incluido en la aplicación.
      * <p>
-     * Cada línea del archivo debe tener exactamente 30 caracteres
-     * ('0' o '1'), y debe haber 30 líneas. Si el archivo no cumple
+     * Cada línea del archivo debe tener tantos caracteres como columnas
+     * ('0' o '1'), y debe haber una línea por fila (30 y 30 en el tablero
+     * por defecto). Si el archivo no cumple
      * este formato, el tablero se llenará hasta donde sea posible.
      *
      * @throws IOException Si ocurre un error al leer el fichero.
      */
     public void leerEstadoActual() throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader("matriz"))) {
-            for (int i = 0; i < DIMENSION; i++) {
-                String linea = br.readLine();
-                if (linea == null) {
-                    break; // No hay más líneas
-                }
-                for (int j = 0; j < DIMENSION && j < linea.length(); j++) {
-                    estadoActual[i][j] = (linea.charAt(j) == '1') ? 1 : 0;
-                }
+        try (BufferedReader br = PersistenciaTablero.lector(PersistenciaTablero.abrirFicheroPorDefecto())) {
+            leerEstadoActual(br);
+        }
+    }
+
+    /**
+     * Lee el estado inicial del fichero indicado, con el formato descrito
+     * en {@link #leerEstadoActual()}.
+     *
+     * @param ruta Ruta del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public void leerEstadoActual(String ruta) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(ruta))) {
+            leerEstadoActual(br);
+        }
+    }
+
+    /**
+     * Carga el estado actual desde un lector de texto.
+     *
+     * @param br Lector del que se leen las filas.
+     * @throws IOException Si ocurre un error al leer.
+     */
+    private void leerEstadoActual(BufferedReader br) throws IOException {
+        for (int i = 0; i < filas; i++) {
+            String linea = br.readLine();
+            if (linea == null) {
+                break; // No hay más líneas
+            }
+            for (int j = 0; j < columnas && j < linea.length(); j++) {
+                estadoActual[i + 1][j + 1] = (linea.charAt(j) == '1') ? 1 : 0;
             }
         }
-        // Calcula el estado siguiente tras la carga
-        generarEstadoSiguiente();
+        reiniciarHistorial();
+    }
+
+    /**
+     * Copia el estado actual de {@code origen}, que debe tener las mismas
+     * dimensiones, como si se hubiera cargado de un fichero. No reserva
+     * memoria, así que sirve para volver una y otra vez a un estado guardado
+     * sin crear tableros.
+     *
+     * @param origen Tablero del que se copia el estado.
+     * @throws IllegalArgumentException Si las dimensiones no coinciden.
+     */
+    public void copiarEstado(Tablero origen) {
+        if (origen.filas != filas || origen.columnas != columnas) {
+            throw new IllegalArgumentException("Las dimensiones de los tableros no coinciden.");
+        }
+        for (int i = 1; i <= filas; i++) {
+            System.arraycopy(origen.estadoActual[i], 1, estadoActual[i], 1, columnas);
+        }
+        reiniciarHistorial();
     }
 
     /**
@@ -61,85 +290,339 @@ public class Tablero {
      * Cada celda tiene una probabilidad del 50% de estar viva.
      */
     public void generarEstadoActualPorMontecarlo() {
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
+        for (int i = 1; i <= filas; i++) {
+            for (int j = 1; j <= columnas; j++) {
                 estadoActual[i][j] = (Math.random() < 0.5) ? 1 : 0;
             }
         }
-        generarEstadoSiguiente();
+        reiniciarHistorial();
     }
 
     /**
-     * Aplica las reglas del Juego de la Vida para generar la matriz
+     * Aplica la regla del tablero para generar la matriz
      * {@code estadoSiguiente} a partir de {@code estadoActual}.
+     * <p>
+     * Con la regla por defecto (Conway, {@code B3/S23}):
      * <ul>
      *   <li>Una célula viva con menos de 2 vecinos vivos muere (soledad).</li>
      *   <li>Una célula viva con 2 o 3 vecinos vivos sigue viva.</li>
      *   <li>Una célula viva con más de 3 vecinos vivos muere (superpoblación).</li>
      *   <li>Una célula muerta con exactamente 3 vecinos vivos nace.</li>
      * </ul>
+     * Gracias al margen, los ocho vecinos se suman sin comprobar límites, y
+     * el resumen solo lee la clave de las células que cambian. En un tablero
+     * que evoluciona cambian pocas, así que el salto se predice bien.
      */
     private void generarEstadoSiguiente() {
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                int vecinosVivos = contarVecinosVivos(i, j);
-
-                // Célula viva
-                if (estadoActual[i][j] == 1) {
-                    if (vecinosVivos == 2 || vecinosVivos == 3) {
-                        estadoSiguiente[i][j] = 1;
-                    } else {
-                        estadoSiguiente[i][j] = 0;
-                    }
-                }
-                // Célula muerta
-                else {
-                    if (vecinosVivos == 3) {
-                        estadoSiguiente[i][j] = 1;
-                    } else {
-                        estadoSiguiente[i][j] = 0;
-                    }
+        if (topologia == Topologia.TOROIDE) {
+            rellenarMargenToroidal();
+        }
+        int[] tabla = regla.tabla();
+        long[] claves = this.claves;
+        int ancho = columnas + 2;
+        long hash = hashActual;
+        long vivas = vivasActual;
+        for (int i = 1; i <= filas; i++) {
+            int[] arriba = estadoActual[i - 1];
+            int[] fila = estadoActual[i];
+            int[] abajo = estadoActual[i + 1];
+            int[] siguiente = estadoSiguiente[i];
+            int base = i * ancho;
+            for (int j = 1; j <= columnas; j++) {
+                int vecinosVivos = arriba[j - 1] + arriba[j] + arriba[j + 1]
+                        + fila[j - 1] + fila[j + 1]
+                        + abajo[j - 1] + abajo[j] + abajo[j + 1];
+                int actual = fila[j];
+                int nuevo = tabla[actual * 9 + vecinosVivos];
+                siguiente[j] = nuevo;
+
+                // Solo las células que cambian actualizan el resumen
+                if (nuevo != actual) {
+                    hash ^= claves[base + j];
+                    vivas += nuevo - actual;
                 }
             }
         }
+        hashSiguiente = hash;
+        vivasSiguiente = vivas;
     }
 
     /**
-     * Cuenta cuántos vecinos vivos tiene la célula en la posición (fila, col).
-     * <p>
-     * Se consideran vecinos las 8 celdas adyacentes (vertical, horizontal
-     * y diagonal).
-     *
-     * @param fila Índice de la fila.
-     * @param col  Índice de la columna.
-     * @return Número de vecinos vivos alrededor de la célula.
-     */
-    private int contarVecinosVivos(int fila, int col) {
-        int count = 0;
-        for (int i = fila - 1; i <= fila + 1; i++) {
-            for (int j = col - 1; j <= col + 1; j++) {
-                if (i == fila && j == col) {
-                    continue; // No contar la propia célula
+     * Copia en el margen de {@code estadoActual} las filas y columnas del
+     * lado opuesto (incluidas las esquinas), para que los bordes se toquen.
+     */
+    private void rellenarMargenToroidal() {
+        int[][] e = estadoActual;
+        System.arraycopy(e[filas], 1, e[0], 1, columnas);
+        System.arraycopy(e[1], 1, e[filas + 1], 1, columnas);
+        for (int i = 0; i <= filas + 1; i++) {
+            int[] fila = e[i];
+            fila[0] = fila[columnas];
+            fila[columnas + 1] = fila[1];
+        }
+    }
+
+    /**
+     * Calcula el estado siguiente e intercambia las referencias de
+     * {@code estadoActual} y {@code estadoSiguiente}.
+     */
+    public void transitarAlEstadoSiguiente() {
+        Timer temporizador = temporizadorGeneracion;
+        if (temporizador == null) {
+            generarEstadoSiguiente();
+        } else {
+            long inicio = System.nanoTime();
+            generarEstadoSiguiente();
+            temporizador.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        intercambiarEstados();
+    }
+
+    /**
+     * Publica las métricas del tablero en {@code registro}: tiempo de cada
+     * generación, células vivas, número de células y memoria estimada (véase
+     * {@link MetricasTablero}). Mientras no se llama, transitar no mide nada.
+     *
+     * @param registro  Registro de métricas.
+     * @param etiquetas Etiquetas que distinguen este tablero de otros.
+     */
+    public void registrarMetricas(MeterRegistry registro, Tag... etiquetas) {
+        // Dos matrices de filas + 2 filas de int[columnas + 2]
+        long bytes = 2L * (16 + 4L * (filas + 2) + (filas + 2) * (16 + 4L * (columnas + 2)));
+        temporizadorGeneracion = MetricasTablero.registrar(registro, this, Tablero::contarCelulasVivas,
+                (long) filas * columnas, bytes, etiquetas).generacion();
+    }
+
+    /**
+     * Devuelve el número de células vivas del estado actual, que se mantiene
+     * al calcular cada generación sin volver a recorrer el tablero.
+     *
+     * @return Número de células vivas.
+     */
+    public long contarCelulasVivas() {
+        return vivasActual;
+    }
+
+    /**
+     * Avanza el número de generaciones indicado en un bucle que alterna los
+     * dos búferes, sin reservar memoria ni copiar células.
+     *
+     * @param generaciones Número de generaciones a simular.
+     * @throws IllegalArgumentException Si el número de generaciones es negativo.
+     */
+    public void avanzar(int generaciones) {
+        if (generaciones < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo.");
+        }
+        for (int g = 0; g < generaciones; g++) {
+            transitarAlEstadoSiguiente();
+        }
+    }
+
+    /**
+     * Intercambia los búferes: el estado siguiente pasa a ser el actual y
+     * la matriz del estado anterior queda libre para el próximo cálculo.
+     */
+    private void intercambiarEstados() {
+        int[][] aux = estadoActual;
+        estadoActual = estadoSiguiente;
+        estadoSiguiente = aux;
+        hashActual = hashSiguiente;
+        vivasActual = vivasSiguiente;
+        generacion++;
+        registrarEnHistorial();
+    }
+
+    /**
+     * Recalcula el resumen y las células vivas desde cero y vacía el
+     * historial, tras cargar un estado nuevo.
+     */
+    private void reiniciarHistorial() {
+        long hash = 0;
+        long vivas = 0;
+        int ancho = columnas + 2;
+        for (int i = 1; i <= filas; i++) {
+            for (int j = 1; j <= columnas; j++) {
+                if (estadoActual[i][j] != 0) {
+                    hash ^= claves[i * ancho + j];
+                    vivas++;
                 }
-                if (i >= 0 && i < DIMENSION && j >= 0 && j < DIMENSION) {
-                    count += estadoActual[i][j];
+            }
+        }
+        hashActual = hash;
+        vivasActual = vivas;
+        generacion = 0;
+        periodo = 0;
+        inicioCiclo = -1;
+        historial[0] = hash;
+    }
+
+    /**
+     * Busca el resumen actual entre los de las generaciones guardadas y lo
+     * añade al historial. Solo se anota el primer ciclo detectado: a partir
+     * de él, el tablero lo repite indefinidamente.
+     */
+    private void registrarEnHistorial() {
+        if (periodo == 0) {
+            int guardados = (int) Math.min(generacion, historial.length);
+            for (int p = 1; p <= guardados; p++) {
+                if (historial[(int) ((generacion - p) % historial.length)] == hashActual) {
+                    periodo = p;
+                    inicioCiclo = generacion - p;
+                    break;
                 }
             }
         }
-        return count;
+        historial[(int) (generacion % historial.length)] = hashActual;
     }
 
     /**
-     * Copia el contenido de {@code estadoSiguiente} a {@code estadoActual},
-     * y luego recalcula un nuevo estado siguiente.
+     * Cambia el número de generaciones recientes que se recuerdan, que es el
+     * mayor periodo que puede detectarse. Vacía el historial.
+     *
+     * @param tamano Número de resúmenes guardados.
+     * @throws IllegalArgumentException Si no es positivo.
      */
-    public void transitarAlEstadoSiguiente() {
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                estadoActual[i][j] = estadoSiguiente[i][j];
+    public void setTamanoHistorial(int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño del historial debe ser mayor que 0.");
+        }
+        historial = new long[tamano];
+        reiniciarHistorial();
+    }
+
+    /**
+     * Indica si el tablero ha llegado a un estado fijo: la última generación
+     * no cambió ninguna célula (también si no queda ninguna viva).
+     *
+     * @return {@code true} si el estado ya no cambia.
+     */
+    public boolean isEstable() {
+        return periodo == 1;
+    }
+
+    /**
+     * @return {@code true} si no queda ninguna célula viva.
+     */
+    public boolean isMuerto() {
+        return vivasActual == 0;
+    }
+
+    /**
+     * @return Periodo del ciclo en el que ha entrado el tablero (1 si es
+     *         estable), o 0 si todavía no se ha detectado ninguno.
+     */
+    public int getPeriodo() {
+        return periodo;
+    }
+
+    /**
+     * @return Generación en la que empezó el ciclo detectado, o -1 si no se
+     *         ha detectado ninguno.
+     */
+    public long getInicioCiclo() {
+        return inicioCiclo;
+    }
+
+    /**
+     * @return Generaciones simuladas desde la última carga.
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * @return Número de filas del tablero.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * @return Número de columnas del tablero.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Cambia la regla que se aplica en las siguientes generaciones. Vacía el
+     * historial de ciclos, que dependía de la regla anterior.
+     *
+     * @param regla Regla nueva.
+     */
+    public void setRegla(ReglaVida regla) {
+        this.regla = Objects.requireNonNull(regla, "La regla no puede ser nula.");
+        reiniciarHistorial();
+    }
+
+    /**
+     * Cambia la regla a partir de su notación, por ejemplo {@code B36/S23}.
+     *
+     * @param regla Texto de la regla.
+     * @throws IllegalArgumentException Si el texto no es una regla válida.
+     * @see ReglaVida#analizar(String)
+     */
+    public void setRegla(String regla) {
+        setRegla(ReglaVida.analizar(regla));
+    }
+
+    /**
+     * @return Regla que se aplica en cada generación.
+     */
+    public ReglaVida getRegla() {
+        return regla;
+    }
+
+    /**
+     * Cambia la forma de los bordes en las siguientes generaciones. Vacía el
+     * historial de ciclos.
+     *
+     * @param topologia Topología nueva.
+     */
+    public void setTopologia(Topologia topologia) {
+        this.topologia = Objects.requireNonNull(topologia, "La topología no puede ser nula.");
+        if (topologia == Topologia.PLANO) {
+            // El margen vuelve a ser siempre muerto
+            for (int[][] e : new int[][][]{estadoActual, estadoSiguiente}) {
+                Arrays.fill(e[0], 0);
+                Arrays.fill(e[filas + 1], 0);
+                for (int[] fila : e) {
+                    fila[0] = 0;
+                    fila[columnas + 1] = 0;
+                }
             }
         }
-        generarEstadoSiguiente();
+        reiniciarHistorial();
+    }
+
+    /**
+     * @return Forma de los bordes del tablero.
+     */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+
+    /**
+     * Devuelve el resumen de Zobrist del estado actual. Dos estados iguales
+     * dan siempre el mismo valor; dos distintos coinciden con una
+     * probabilidad despreciable (del orden de 2<sup>-64</sup>).
+     *
+     * @return Resumen del estado actual.
+     */
+    public long hashEstado() {
+        return hashActual;
+    }
+
+    /**
+     * Devuelve la matriz del estado actual para dibujarla sin copiarla
+     * (véase {@link RenderizadorTablero}). Incluye el margen: la célula
+     * (i, j) está en {@code [i + 1][j + 1]}.
+     *
+     * @return Matriz interna del estado actual.
+     */
+    int[][] celdas() {
+        return estadoActual;
     }
 
     /**
@@ -152,8 +635,8 @@ public class Tablero {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
+        for (int i = 1; i <= filas; i++) {
+            for (int j = 1; j <= columnas; j++) {
                 sb.append(estadoActual[i][j]);
             }
             sb.append("\n");
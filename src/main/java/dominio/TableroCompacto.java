@@ -0,0 +1,1019 @@
+package dominio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tablero del Juego de la Vida de Conway con las células empaquetadas en bits.
+ * <p>
+ * Ofrece la misma API que {@link Tablero} ({@code leerEstadoActual},
+ * {@code generarEstadoActualPorMontecarlo}, {@code transitarAlEstadoSiguiente}
+ * y {@code toString}), pero guarda 64 células en cada {@code long} y admite
+ * cualquier número de filas y columnas indicado en la construcción.
+ * <p>
+ * El estado siguiente se calcula palabra a palabra: los 8 vecinos de las
+ * 64 células de una palabra se suman a la vez mediante sumadores binarios
+ * aplicados bit a bit, sin recorrer las células una por una.
+ * <p>
+ * Opcionalmente, cada generación puede repartirse en bandas de filas que se
+ * calculan en paralelo sobre un {@link ForkJoinPool} (véase
+ * {@link #activarParalelismo(ForkJoinPool, int)}). Como cada fila solo lee el
+ * estado actual y escribe su propia fila del siguiente, el resultado es
+ * idéntico al del cálculo secuencial.
+ * <p>
+ * En modo incremental ({@link #activarModoIncremental()}) el tablero se
+ * divide en teselas de una palabra de ancho y {@value #ALTO_TESELA} filas de
+ * alto, y en cada generación solo se recalculan las teselas que cambiaron en
+ * la anterior y sus vecinas. El resto no puede cambiar, y como tampoco cambió
+ * en la generación anterior, el búfer que se reutiliza ya contiene su estado.
+ * Así el coste de cada generación es proporcional a la actividad del tablero
+ * y no a su área.
+ * <p>
+ * Los dos búferes de estado pueden guardarse en el heap (lo normal), fuera
+ * de él en memoria directa, o proyectados desde un fichero para tableros
+ * mayores que la memoria física (véase {@link Almacenamiento}). Fuera del
+ * heap, tableros de decenas de miles de millones de células no alargan las
+ * pausas del recolector; a cambio, hay que llamar a {@link #close()} para
+ * liberar la memoria en cuanto el tablero deja de usarse.
+ */
+public class TableroCompacto implements AutoCloseable {
+
+    /**
+     * Dónde se guardan los búferes de estado.
+     */
+    public enum Almacenamiento {
+        /**
+         * En dos {@code long[]} del heap.
+         */
+        HEAP,
+        /**
+         * En memoria directa fuera del heap ({@link java.nio.ByteBuffer#allocateDirect}).
+         */
+        DIRECTO,
+        /**
+         * En un fichero proyectado en memoria, cuyas páginas se cargan bajo
+         * demanda (véase {@link TableroCompacto#TableroCompacto(int, int, Path)}).
+         */
+        PROYECTADO
+    }
+
+    /**
+     * Número de células que caben en cada palabra.
+     */
+    private static final int BITS_POR_PALABRA = 64;
+
+    /**
+     * Número de filas de cada tesela del modo incremental.
+     */
+    private static final int ALTO_TESELA = 64;
+
+    /**
+     * Número de filas del tablero.
+     */
+    private final int filas;
+
+    /**
+     * Número de columnas del tablero.
+     */
+    private final int columnas;
+
+    /**
+     * Número de palabras {@code long} que ocupa cada fila.
+     */
+    private final int palabrasPorFila;
+
+    /**
+     * Máscara de las columnas válidas de la última palabra de cada fila.
+     */
+    private final long mascaraUltimaPalabra;
+
+    /**
+     * Estado actual: la fila {@code f} ocupa las palabras
+     * {@code [f * palabrasPorFila, (f + 1) * palabrasPorFila)} y el bit
+     * {@code c % 64} de la palabra {@code c / 64} es la columna {@code c}.
+     */
+    private PalabrasTablero estadoActual;
+
+    /**
+     * Búfer en el que se escribe el siguiente estado antes de intercambiarlo
+     * con {@code estadoActual}.
+     */
+    private PalabrasTablero estadoSiguiente;
+
+    private final Almacenamiento almacenamiento;
+
+    /**
+     * Indica si se ha llamado a {@link #close()}. Solo cambia con el monitor
+     * del tablero, que también toma el indicador de células vivas, de modo
+     * que una lectura de métricas nunca accede a memoria ya liberada.
+     */
+    private volatile boolean cerrado;
+
+    /**
+     * Pool sobre el que se reparten las bandas de filas, o {@code null} si
+     * las generaciones se calculan en el hilo que llama.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Número máximo de filas que calcula cada tarea paralela sin dividirse.
+     */
+    private int granoFilas;
+
+    /**
+     * Número de generaciones simuladas desde la carga (o el valor guardado
+     * en el punto de control del que se cargó el tablero).
+     */
+    private long generacion;
+
+    /**
+     * Número de filas de teselas del modo incremental.
+     */
+    private final int filasTeselas;
+
+    /**
+     * Indica si está activo el modo incremental.
+     */
+    private boolean modoIncremental;
+
+    /**
+     * Teselas que cambiaron en la última generación (o se modificaron desde
+     * fuera): sus índices en {@code sucias[0, numSucias)} y una marca por
+     * tesela para no repetirlas.
+     */
+    private int[] sucias;
+    private boolean[] sucia;
+    private int numSucias;
+
+    /**
+     * Teselas que se recalculan en la generación en curso (las sucias y sus
+     * vecinas), con su marca por tesela.
+     */
+    private int[] activas;
+    private boolean[] activa;
+    private int numActivas;
+
+    /**
+     * Resultado del recálculo de cada tesela activa: {@code true} si alguna
+     * de sus células ha cambiado. Cada tesela solo la escribe la tarea que la
+     * calcula.
+     */
+    private boolean[] cambiada;
+
+    /**
+     * Temporizador de las generaciones, o {@code null} si las métricas no
+     * están activadas.
+     */
+    private Timer temporizadorGeneracion;
+
+    /**
+     * Medidores registrados, que se retiran al cerrar, o {@code null}.
+     */
+    private MetricasTablero.Medidores medidores;
+
+    /**
+     * Crea un tablero vacío (todas las células muertas) en el heap.
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @throws IllegalArgumentException Si alguna dimensión no es positiva.
+     */
+    public TableroCompacto(int filas, int columnas) {
+        this(filas, columnas, Almacenamiento.HEAP);
+    }
+
+    /**
+     * Crea un tablero vacío con los búferes de estado en el heap o en
+     * memoria directa.
+     *
+     * @param filas          Número de filas.
+     * @param columnas       Número de columnas.
+     * @param almacenamiento {@link Almacenamiento#HEAP} o {@link Almacenamiento#DIRECTO}.
+     * @throws IllegalArgumentException Si alguna dimensión no es positiva o se
+     *                                  pide {@link Almacenamiento#PROYECTADO}, que necesita un fichero.
+     */
+    public TableroCompacto(int filas, int columnas, Almacenamiento almacenamiento) {
+        this(almacenamiento, filas, columnas);
+        if (almacenamiento == Almacenamiento.PROYECTADO) {
+            throw new IllegalArgumentException(
+                    "Para proyectar el tablero en un fichero use TableroCompacto(int, int, Path).");
+        }
+        int longitud = longitud(filas, palabrasPorFila);
+        if (almacenamiento == Almacenamiento.DIRECTO) {
+            this.estadoActual = PalabrasTablero.directo(longitud);
+            this.estadoSiguiente = PalabrasTablero.directo(longitud);
+        } else {
+            this.estadoActual = PalabrasTablero.enHeap(longitud);
+            this.estadoSiguiente = PalabrasTablero.enHeap(longitud);
+        }
+    }
+
+    /**
+     * Crea un tablero vacío con los dos búferes de estado proyectados desde
+     * {@code fichero}, que se crea (o se vacía si existe) con el tamaño de
+     * ambos, {@code 2 * filas * ceil(columnas / 64) * 8} bytes. El fichero es
+     * espacio de trabajo, no un punto de control: sus palabras están en el
+     * orden de bytes de la máquina y no indican cuál de los dos búferes es el
+     * actual (para guardar el tablero, véase
+     * {@link PersistenciaTablero#guardarBinario}).
+     *
+     * @param filas    Número de filas.
+     * @param columnas Número de columnas.
+     * @param fichero  Fichero en el que se proyecta el estado.
+     * @throws IllegalArgumentException Si alguna dimensión no es positiva.
+     * @throws IOException              Si no se puede crear o proyectar el fichero.
+     */
+    public TableroCompacto(int filas, int columnas, Path fichero) throws IOException {
+        this(Almacenamiento.PROYECTADO, filas, columnas);
+        int longitud = longitud(filas, palabrasPorFila);
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.estadoActual = PalabrasTablero.proyectado(canal, 0, longitud);
+            try {
+                this.estadoSiguiente = PalabrasTablero.proyectado(canal, 8L * longitud, longitud);
+            } catch (IOException e) {
+                estadoActual.liberar();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Constructor común: comprueba y fija las dimensiones, pero no reserva
+     * los búferes.
+     */
+    private TableroCompacto(Almacenamiento almacenamiento, int filas, int columnas) {
+        if (filas < 1 || columnas < 1) {
+            throw new IllegalArgumentException("Las dimensiones del tablero deben ser mayores que 0.");
+        }
+        if (almacenamiento == null) {
+            throw new IllegalArgumentException("El almacenamiento no puede ser nulo.");
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        this.almacenamiento = almacenamiento;
+        this.palabrasPorFila = (columnas + BITS_POR_PALABRA - 1) / BITS_POR_PALABRA;
+        int restantes = columnas % BITS_POR_PALABRA;
+        this.mascaraUltimaPalabra = (restantes == 0) ? -1L : (1L << restantes) - 1;
+        this.filasTeselas = (filas + ALTO_TESELA - 1) / ALTO_TESELA;
+    }
+
+    /**
+     * @return Número de palabras de cada búfer de estado.
+     * @throws IllegalArgumentException Si el tablero no cabe en 2<sup>31</sup> palabras.
+     */
+    private static int longitud(int filas, int palabrasPorFila) {
+        long longitud = (long) filas * palabrasPorFila;
+        if (longitud > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El tablero es demasiado grande: " + longitud + " palabras.");
+        }
+        return (int) longitud;
+    }
+
+    /**
+     * Lee el estado inicial del fichero por defecto ('matriz' o
+     * 'matriz.txt'), con el mismo formato que
+     * {@link Tablero#leerEstadoActual()}: una línea por fila y un carácter
+     * ('0' o '1') por célula. Si el fichero es más pequeño que el tablero,
+     * el resto de células quedan muertas.
+     *
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public void leerEstadoActual() throws IOException {
+        try (InputStream entrada = PersistenciaTablero.abrirFicheroPorDefecto()) {
+            PersistenciaTablero.leerTexto(this, entrada);
+        }
+        generacion = 0;
+    }
+
+    /**
+     * Lee el estado inicial del fichero de texto indicado, con el formato
+     * de {@link #leerEstadoActual()}.
+     *
+     * @param ruta Ruta del fichero.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     */
+    public void leerEstadoActual(String ruta) throws IOException {
+        PersistenciaTablero.leerTexto(this, Paths.get(ruta));
+        generacion = 0;
+    }
+
+    /**
+     * Genera un estado inicial aleatorio en el que cada célula tiene una
+     * probabilidad del 50% de estar viva. Se rellena una palabra completa
+     * (64 células) por cada número aleatorio.
+     */
+    public void generarEstadoActualPorMontecarlo() {
+        comprobarAbierto();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < estadoActual.longitud; i++) {
+            estadoActual.set(i, random.nextLong());
+        }
+        limpiarColumnasSobrantes(estadoActual);
+        marcarTodasSucias();
+        generacion = 0;
+    }
+
+    /**
+     * Copia el estado actual y la generación de {@code origen}, que debe
+     * tener las mismas dimensiones. No reserva memoria, así que sirve para
+     * volver una y otra vez a un estado guardado sin crear tableros.
+     *
+     * @param origen Tablero del que se copia el estado.
+     * @throws IllegalArgumentException Si las dimensiones no coinciden.
+     * @throws IllegalStateException    Si alguno de los dos está cerrado.
+     */
+    public void copiarEstado(TableroCompacto origen) {
+        comprobarAbierto();
+        if (origen.filas != filas || origen.columnas != columnas) {
+            throw new IllegalArgumentException("Las dimensiones de los tableros no coinciden.");
+        }
+        estadoActual.copiarDe(origen.palabras());
+        marcarTodasSucias();
+        generacion = origen.generacion;
+    }
+
+    /**
+     * Calcula el siguiente estado en el búfer auxiliar y lo intercambia con
+     * el estado actual, sin copiar las células. En modo incremental solo se
+     * recalculan las teselas sucias y sus vecinas.
+     */
+    public void transitarAlEstadoSiguiente() {
+        comprobarAbierto();
+        Timer temporizador = temporizadorGeneracion;
+        if (temporizador == null) {
+            calcularEstadoSiguiente();
+        } else {
+            long inicio = System.nanoTime();
+            calcularEstadoSiguiente();
+            temporizador.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Cuerpo de {@link #transitarAlEstadoSiguiente()}, sin medir.
+     */
+    private void calcularEstadoSiguiente() {
+        PalabrasTablero origen = estadoActual;
+        PalabrasTablero destino = estadoSiguiente;
+        if (modoIncremental) {
+            prepararTeselasActivas();
+            if (pool == null) {
+                calcularTeselas(origen, destino, 0, numActivas);
+            } else {
+                int grano = Math.max(1, granoFilas * palabrasPorFila / ALTO_TESELA);
+                pool.invoke(new CalculoPorBloques((desde, hasta) -> calcularTeselas(origen, destino, desde, hasta),
+                        0, numActivas, grano));
+            }
+            recogerTeselasCambiadas();
+        } else if (pool == null) {
+            calcularFilas(origen, destino, 0, filas);
+        } else {
+            pool.invoke(new CalculoPorBloques((desde, hasta) -> calcularFilas(origen, destino, desde, hasta),
+                    0, filas, granoFilas));
+        }
+        PalabrasTablero aux = estadoActual;
+        estadoActual = estadoSiguiente;
+        estadoSiguiente = aux;
+        generacion++;
+    }
+
+    /**
+     * Avanza el número de generaciones indicado alternando los dos búferes,
+     * sin reservar memoria ni copiar células.
+     *
+     * @param generaciones Número de generaciones a simular.
+     * @throws IllegalArgumentException Si el número de generaciones es negativo.
+     */
+    public void avanzar(int generaciones) {
+        if (generaciones < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo.");
+        }
+        for (int g = 0; g < generaciones; g++) {
+            transitarAlEstadoSiguiente();
+        }
+    }
+
+    /**
+     * Activa el cálculo paralelo de las generaciones sobre el pool indicado.
+     * <p>
+     * El tablero se divide recursivamente en bandas de filas hasta que cada
+     * banda tiene como mucho {@code granoFilas} filas. Un grano pequeño
+     * reparte mejor la carga; uno grande reduce el coste de crear tareas.
+     *
+     * @param pool       Pool en el que se ejecutan las bandas.
+     * @param granoFilas Número máximo de filas por tarea.
+     * @throws IllegalArgumentException Si el grano no es positivo.
+     */
+    public void activarParalelismo(ForkJoinPool pool, int granoFilas) {
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool no puede ser nulo.");
+        }
+        if (granoFilas < 1) {
+            throw new IllegalArgumentException("El grano debe ser mayor que 0.");
+        }
+        this.pool = pool;
+        this.granoFilas = granoFilas;
+    }
+
+    /**
+     * Activa el cálculo paralelo sobre el pool común de la JVM, con un grano
+     * que reparte el tablero en unas 4 bandas por núcleo disponible.
+     */
+    public void activarParalelismo() {
+        ForkJoinPool comun = ForkJoinPool.commonPool();
+        int bandas = 4 * comun.getParallelism();
+        activarParalelismo(comun, Math.max(1, (filas + bandas - 1) / bandas));
+    }
+
+    /**
+     * Vuelve al cálculo secuencial de las generaciones.
+     */
+    public void desactivarParalelismo() {
+        this.pool = null;
+    }
+
+    /**
+     * Activa el modo incremental, en el que cada generación solo recalcula
+     * las teselas que cambiaron en la anterior y sus vecinas. La primera
+     * generación tras activarlo recalcula el tablero completo.
+     */
+    public void activarModoIncremental() {
+        if (modoIncremental) {
+            return;
+        }
+        int numTeselas = filasTeselas * palabrasPorFila;
+        sucias = new int[numTeselas];
+        sucia = new boolean[numTeselas];
+        activas = new int[numTeselas];
+        activa = new boolean[numTeselas];
+        cambiada = new boolean[numTeselas];
+        modoIncremental = true;
+        marcarTodasSucias();
+    }
+
+    /**
+     * Vuelve a recalcular el tablero completo en cada generación y libera
+     * las estructuras del modo incremental.
+     */
+    public void desactivarModoIncremental() {
+        modoIncremental = false;
+        sucias = null;
+        sucia = null;
+        activas = null;
+        activa = null;
+        cambiada = null;
+        numSucias = 0;
+        numActivas = 0;
+    }
+
+    /**
+     * Devuelve cuántas teselas se recalcularán en la próxima generación del
+     * modo incremental (las sucias, sin contar aún sus vecinas).
+     *
+     * @return Número de teselas sucias, o 0 si el modo incremental no está activo.
+     */
+    public int getTeselasSucias() {
+        return numSucias;
+    }
+
+    /**
+     * Marca la tesela {@code t} como sucia si no lo estaba ya.
+     *
+     * @param t Índice de la tesela.
+     */
+    private void marcarSucia(int t) {
+        if (!sucia[t]) {
+            sucia[t] = true;
+            sucias[numSucias++] = t;
+        }
+    }
+
+    /**
+     * Marca todas las teselas como sucias tras modificar el estado completo.
+     * No hace nada si el modo incremental no está activo.
+     */
+    private void marcarTodasSucias() {
+        if (!modoIncremental) {
+            return;
+        }
+        for (int t = 0; t < sucia.length; t++) {
+            marcarSucia(t);
+        }
+    }
+
+    /**
+     * Construye la lista de teselas activas con las teselas sucias y sus 8
+     * vecinas, y vacía la lista de sucias.
+     */
+    private void prepararTeselasActivas() {
+        numActivas = 0;
+        for (int i = 0; i < numSucias; i++) {
+            int t = sucias[i];
+            sucia[t] = false;
+            int filaTesela = t / palabrasPorFila;
+            int w = t % palabrasPorFila;
+            for (int f = Math.max(0, filaTesela - 1); f <= Math.min(filasTeselas - 1, filaTesela + 1); f++) {
+                for (int c = Math.max(0, w - 1); c <= Math.min(palabrasPorFila - 1, w + 1); c++) {
+                    int vecina = f * palabrasPorFila + c;
+                    if (!activa[vecina]) {
+                        activa[vecina] = true;
+                        activas[numActivas++] = vecina;
+                    }
+                }
+            }
+        }
+        numSucias = 0;
+    }
+
+    /**
+     * Recorre las teselas activas recién calculadas y marca como sucias las
+     * que han cambiado, para recalcularlas en la próxima generación.
+     */
+    private void recogerTeselasCambiadas() {
+        for (int i = 0; i < numActivas; i++) {
+            int t = activas[i];
+            activa[t] = false;
+            if (cambiada[t]) {
+                cambiada[t] = false;
+                marcarSucia(t);
+            }
+        }
+        numActivas = 0;
+    }
+
+    /**
+     * Calcula las teselas {@code activas[desde, hasta)} del siguiente estado
+     * y anota en {@code cambiada} cuáles han cambiado.
+     *
+     * @param origen  Estado del que se leen las células.
+     * @param destino Estado en el que se escriben las teselas calculadas.
+     * @param desde   Primera posición de la lista de activas (incluida).
+     * @param hasta   Última posición de la lista de activas (excluida).
+     */
+    private void calcularTeselas(PalabrasTablero origen, PalabrasTablero destino, int desde, int hasta) {
+        long[] temporal = crearFilasTemporales(origen, destino);
+        for (int i = desde; i < hasta; i++) {
+            int t = activas[i];
+            int w = t % palabrasPorFila;
+            int primeraFila = (t / palabrasPorFila) * ALTO_TESELA;
+            int ultimaFila = Math.min(filas, primeraFila + ALTO_TESELA);
+            boolean cambio = false;
+            for (int fila = primeraFila; fila < ultimaFila; fila++) {
+                cambio |= calcularFila(origen, destino, temporal, fila, w, w + 1);
+            }
+            cambiada[t] = cambio;
+        }
+    }
+
+    /**
+     * Calcula las filas {@code [desde, hasta)} del siguiente estado.
+     *
+     * @param origen  Estado del que se leen las células.
+     * @param destino Estado en el que se escriben las filas calculadas.
+     * @param desde   Primera fila (incluida).
+     * @param hasta   Última fila (excluida).
+     */
+    private void calcularFilas(PalabrasTablero origen, PalabrasTablero destino, int desde, int hasta) {
+        long[] temporal = crearFilasTemporales(origen, destino);
+        for (int fila = desde; fila < hasta; fila++) {
+            calcularFila(origen, destino, temporal, fila, 0, palabrasPorFila);
+        }
+    }
+
+    /**
+     * Crea el array temporal de un bloque de filas o teselas: las tres filas
+     * de origen y la fila calculada. Es propio de cada bloque, así que no
+     * queda nada en los hilos del pool al terminar.
+     *
+     * @return Array temporal, o {@code null} si los dos estados están en el heap.
+     */
+    private long[] crearFilasTemporales(PalabrasTablero origen, PalabrasTablero destino) {
+        return (origen.fueraDelHeap() || destino.fueraDelHeap()) ? new long[4 * palabrasPorFila] : null;
+    }
+
+    /**
+     * Trabajo que se reparte entre las tareas paralelas: calcula los
+     * elementos (filas o teselas) del intervalo {@code [desde, hasta)}.
+     */
+    private interface Bloque {
+        void calcular(int desde, int hasta);
+    }
+
+    /**
+     * Tarea que ejecuta un {@link Bloque} sobre un intervalo, dividiéndolo
+     * por la mitad mientras supere el grano indicado.
+     */
+    private static final class CalculoPorBloques extends RecursiveAction {
+
+        private final Bloque bloque;
+        private final int desde;
+        private final int hasta;
+        private final int grano;
+
+        CalculoPorBloques(Bloque bloque, int desde, int hasta, int grano) {
+            this.bloque = bloque;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.grano = grano;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= grano) {
+                bloque.calcular(desde, hasta);
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new CalculoPorBloques(bloque, desde, mitad, grano),
+                    new CalculoPorBloques(bloque, mitad, hasta, grano));
+        }
+    }
+
+    /**
+     * Calcula las palabras {@code [palabraDesde, palabraHasta)} de la fila
+     * {@code fila} del siguiente estado.
+     * <p>
+     * En el heap se trabaja directamente sobre los {@code long[]}. Fuera del
+     * heap se copian las palabras necesarias de las tres filas al array
+     * temporal del bloque, se calcula sobre él y se copia el resultado de
+     * vuelta, de modo que el bucle interior es el mismo en ambos casos.
+     *
+     * @param origen       Estado del que se leen las células.
+     * @param destino      Estado en el que se escribe la fila calculada.
+     * @param temporal     Array de {@link #crearFilasTemporales}.
+     * @param fila         Índice de la fila a calcular.
+     * @param palabraDesde Primera palabra de la fila (incluida).
+     * @param palabraHasta Última palabra de la fila (excluida).
+     * @return {@code true} si alguna célula calculada difiere del estado de origen.
+     */
+    private boolean calcularFila(PalabrasTablero origen, PalabrasTablero destino, long[] temporal, int fila,
+                                 int palabraDesde, int palabraHasta) {
+        long[] arrayOrigen = origen.arreglo();
+        long[] arrayDestino = destino.arreglo();
+        int actual = fila * palabrasPorFila;
+        if (arrayOrigen != null && arrayDestino != null) {
+            return calcularFila(arrayOrigen, actual, arrayDestino, actual, fila, palabraDesde, palabraHasta);
+        }
+
+        // Filas anterior, actual y siguiente en [0, 3 * palabrasPorFila) y
+        // la fila calculada a continuación
+        int primera = Math.max(0, palabraDesde - 1);
+        int numero = Math.min(palabrasPorFila, palabraHasta + 1) - primera;
+        if (fila > 0) {
+            origen.copiarA(actual - palabrasPorFila + primera, temporal, primera, numero);
+        }
+        origen.copiarA(actual + primera, temporal, palabrasPorFila + primera, numero);
+        if (fila < filas - 1) {
+            origen.copiarA(actual + palabrasPorFila + primera, temporal, 2 * palabrasPorFila + primera, numero);
+        }
+        int base = 3 * palabrasPorFila;
+        boolean cambio = calcularFila(temporal, palabrasPorFila, temporal, base, fila, palabraDesde, palabraHasta);
+        destino.copiarDesde(temporal, base + palabraDesde, actual + palabraDesde, palabraHasta - palabraDesde);
+        return cambio;
+    }
+
+    /**
+     * Aplica las reglas del Juego de la Vida a las 64 células de cada palabra
+     * {@code [palabraDesde, palabraHasta)} de la fila {@code fila}.
+     * <p>
+     * Para cada palabra se obtienen los 8 vectores de vecinos desplazando un
+     * bit las palabras de la fila anterior, la actual y la siguiente (tomando
+     * el bit que entra de la palabra contigua). Su suma se acumula en tres
+     * planos de bits {@code s0}, {@code s1} y {@code s2} (recuento módulo 8; 8
+     * vecinos equivale a 0, que también implica muerte) y la regla B3/S23 queda
+     * como {@code s1 & ~s2 & (s0 | viva)}.
+     *
+     * @param origen       Palabras de las que se leen las células.
+     * @param actual       Posición en {@code origen} de la primera palabra de
+     *                     la fila; las filas anterior y siguiente están a
+     *                     {@code palabrasPorFila} de distancia.
+     * @param destino      Palabras en las que se escribe la fila calculada.
+     * @param base         Posición en {@code destino} de la primera palabra de la fila.
+     * @param fila         Índice de la fila a calcular.
+     * @param palabraDesde Primera palabra de la fila (incluida).
+     * @param palabraHasta Última palabra de la fila (excluida).
+     * @return {@code true} si alguna célula calculada difiere del estado de origen.
+     */
+    private boolean calcularFila(long[] origen, int actual, long[] destino, int base, int fila,
+                                 int palabraDesde, int palabraHasta) {
+        int arriba = actual - palabrasPorFila;
+        int abajo = actual + palabrasPorFila;
+        boolean hayArriba = fila > 0;
+        boolean hayAbajo = fila < filas - 1;
+        int ultima = palabrasPorFila - 1;
+
+        // Ventana deslizante: palabra anterior, actual y siguiente de cada fila
+        long aPrev = 0L;
+        long bPrev = 0L;
+        long cPrev = 0L;
+        if (palabraDesde > 0) {
+            aPrev = hayArriba ? origen[arriba + palabraDesde - 1] : 0L;
+            bPrev = origen[actual + palabraDesde - 1];
+            cPrev = hayAbajo ? origen[abajo + palabraDesde - 1] : 0L;
+        }
+        long a = hayArriba ? origen[arriba + palabraDesde] : 0L;
+        long b = origen[actual + palabraDesde];
+        long c = hayAbajo ? origen[abajo + palabraDesde] : 0L;
+        long diferencias = 0L;
+
+        for (int w = palabraDesde; w < palabraHasta; w++) {
+            long aNext = 0L;
+            long bNext = 0L;
+            long cNext = 0L;
+            if (w < ultima) {
+                aNext = hayArriba ? origen[arriba + w + 1] : 0L;
+                bNext = origen[actual + w + 1];
+                cNext = hayAbajo ? origen[abajo + w + 1] : 0L;
+            }
+
+            // Vecinos a la izquierda (columna - 1) y a la derecha (columna + 1)
+            long a1 = (a << 1) | (aPrev >>> 63);
+            long a3 = (a >>> 1) | (aNext << 63);
+            long b1 = (b << 1) | (bPrev >>> 63);
+            long b3 = (b >>> 1) | (bNext << 63);
+            long c1 = (c << 1) | (cPrev >>> 63);
+            long c3 = (c >>> 1) | (cNext << 63);
+
+            // Sumadores completos por fila de vecinos
+            long xa = a1 ^ a;
+            long sa = xa ^ a3;
+            long ka = (a1 & a) | (a3 & xa);
+            long sb = b1 ^ b3;
+            long kb = b1 & b3;
+            long xc = c1 ^ c;
+            long sc = xc ^ c3;
+            long kc = (c1 & c) | (c3 & xc);
+
+            // Unidades
+            long xu = sa ^ sb;
+            long s0 = xu ^ sc;
+            long k1 = (sa & sb) | (sc & xu);
+
+            // Doses y cuatros
+            long xd = ka ^ kb;
+            long t = xd ^ kc;
+            long u = (ka & kb) | (kc & xd);
+            long s1 = t ^ k1;
+            long s2 = u ^ (t & k1);
+
+            long siguiente = s1 & ~s2 & (s0 | b);
+            if (w == ultima) {
+                siguiente &= mascaraUltimaPalabra;
+            }
+            destino[base + w] = siguiente;
+            diferencias |= siguiente ^ b;
+
+            aPrev = a;
+            bPrev = b;
+            cPrev = c;
+            a = aNext;
+            b = bNext;
+            c = cNext;
+        }
+        return diferencias != 0;
+    }
+
+    /**
+     * Pone a cero los bits de la última palabra de cada fila que no
+     * corresponden a ninguna columna del tablero.
+     *
+     * @param estado Estado a limpiar.
+     */
+    private void limpiarColumnasSobrantes(PalabrasTablero estado) {
+        for (int i = palabrasPorFila - 1; i < estado.longitud; i += palabrasPorFila) {
+            estado.set(i, estado.get(i) & mascaraUltimaPalabra);
+        }
+    }
+
+    /**
+     * Indica si la célula de la posición (fila, col) está viva.
+     *
+     * @param fila Índice de la fila.
+     * @param col  Índice de la columna.
+     * @return {@code true} si la célula está viva.
+     */
+    public boolean estaViva(int fila, int col) {
+        comprobarAbierto();
+        comprobarPosicion(fila, col);
+        return (estadoActual.get(fila * palabrasPorFila + (col >>> 6)) & (1L << col)) != 0;
+    }
+
+    /**
+     * Cambia el estado de la célula de la posición (fila, col).
+     *
+     * @param fila Índice de la fila.
+     * @param col  Índice de la columna.
+     * @param viva {@code true} para dejarla viva, {@code false} para matarla.
+     */
+    public void establecerCelula(int fila, int col, boolean viva) {
+        comprobarAbierto();
+        comprobarPosicion(fila, col);
+        int indice = fila * palabrasPorFila + (col >>> 6);
+        if (viva) {
+            estadoActual.set(indice, estadoActual.get(indice) | (1L << col));
+        } else {
+            estadoActual.set(indice, estadoActual.get(indice) & ~(1L << col));
+        }
+        if (modoIncremental) {
+            marcarSucia((fila / ALTO_TESELA) * palabrasPorFila + (col >>> 6));
+        }
+    }
+
+    /**
+     * Publica las métricas del tablero en {@code registro}: tiempo de cada
+     * generación, células vivas, número de células y memoria estimada (véase
+     * {@link MetricasTablero}). Mientras no se llama, transitar no mide nada.
+     * Los indicadores se retiran del registro al {@linkplain #close() cerrar}
+     * el tablero.
+     *
+     * @param registro  Registro de métricas.
+     * @param etiquetas Etiquetas que distinguen este tablero de otros.
+     * @throws IllegalStateException Si el tablero está cerrado.
+     */
+    public synchronized void registrarMetricas(MeterRegistry registro, Tag... etiquetas) {
+        comprobarAbierto();
+        long bytes = 2L * (16 + 8L * estadoActual.longitud);
+        if (medidores != null) {
+            medidores.retirar();
+        }
+        medidores = MetricasTablero.registrar(registro, this, TableroCompacto::contarCelulasVivasParaMetricas,
+                (long) filas * columnas, bytes, etiquetas);
+        temporizadorGeneracion = medidores.generacion();
+    }
+
+    /**
+     * Indicador de células vivas, que se lee desde el hilo de las métricas.
+     * Con el monitor, {@link #close()} no puede liberar los búferes mientras
+     * se cuentan.
+     *
+     * @return Células vivas, o {@code NaN} si el tablero está cerrado.
+     */
+    private synchronized double contarCelulasVivasParaMetricas() {
+        return cerrado ? Double.NaN : contarCelulasVivas();
+    }
+
+    /**
+     * Cuenta las células vivas del estado actual.
+     *
+     * @return Número de células vivas.
+     */
+    public long contarCelulasVivas() {
+        comprobarAbierto();
+        long vivas = 0;
+        for (int i = 0; i < estadoActual.longitud; i++) {
+            vivas += Long.bitCount(estadoActual.get(i));
+        }
+        return vivas;
+    }
+
+    /**
+     * @return Número de generaciones simuladas desde la carga.
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * Fija el número de generación, al reanudar desde un punto de control.
+     *
+     * @param generacion Número de generación.
+     */
+    void setGeneracion(long generacion) {
+        this.generacion = generacion;
+    }
+
+    /**
+     * Devuelve las palabras del estado actual, para leerlas o escribirlas en
+     * bloque desde {@link PersistenciaTablero}. Tras modificarlas debe
+     * llamarse a {@link #palabrasModificadas()}.
+     *
+     * @return Búfer interno del estado actual.
+     * @throws IllegalStateException Si el tablero está cerrado.
+     */
+    PalabrasTablero palabras() {
+        comprobarAbierto();
+        return estadoActual;
+    }
+
+    /**
+     * Avisa de que las palabras del estado actual se han modificado en
+     * bloque: limpia las columnas sobrantes y marca todo el tablero como
+     * sucio para el modo incremental.
+     */
+    void palabrasModificadas() {
+        limpiarColumnasSobrantes(estadoActual);
+        marcarTodasSucias();
+    }
+
+    /**
+     * @return Número de palabras {@code long} que ocupa cada fila.
+     */
+    int getPalabrasPorFila() {
+        return palabrasPorFila;
+    }
+
+    /**
+     * @return Número de filas del tablero.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * @return Número de columnas del tablero.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * @return Dónde se guardan los búferes de estado.
+     */
+    public Almacenamiento getAlmacenamiento() {
+        return almacenamiento;
+    }
+
+    /**
+     * Libera los búferes de estado. Fuera del heap, la memoria (o la
+     * proyección del fichero) se devuelve al sistema en el momento, sin
+     * esperar al recolector; no debe llamarse mientras otro hilo está
+     * usando el tablero. Después, cualquier operación sobre las células
+     * lanza {@link IllegalStateException}. Los indicadores de métricas se
+     * retiran antes de liberar la memoria. Llamarlo más de una vez no tiene
+     * efecto.
+     */
+    @Override
+    public synchronized void close() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        if (medidores != null) {
+            medidores.retirar();
+            medidores = null;
+        }
+        PalabrasTablero actual = estadoActual;
+        PalabrasTablero siguiente = estadoSiguiente;
+        estadoActual = null;
+        estadoSiguiente = null;
+        actual.liberar();
+        siguiente.liberar();
+    }
+
+    /**
+     * @throws IllegalStateException Si el tablero está cerrado.
+     */
+    private void comprobarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El tablero está cerrado.");
+        }
+    }
+
+    /**
+     * Verifica que la posición (fila, col) está dentro del tablero.
+     *
+     * @param fila Índice de la fila.
+     * @param col  Índice de la columna.
+     * @throws IndexOutOfBoundsException Si la posición queda fuera del tablero.
+     */
+    private void comprobarPosicion(int fila, int col) {
+        if (fila < 0 || fila >= filas || col < 0 || col >= columnas) {
+            throw new IndexOutOfBoundsException(
+                    "La posición (" + fila + ", " + col + ") está fuera del tablero.");
+        }
+    }
+
+    /**
+     * Devuelve una representación en texto del tablero con el mismo formato
+     * que {@link Tablero#toString()}: una línea por fila y un carácter por
+     * célula (0 = muerta, 1 = viva).
+     *
+     * @return Cadena de texto con el estado actual del tablero.
+     */
+    @Override
+    public String toString() {
+        comprobarAbierto();
+        StringBuilder sb = new StringBuilder(filas * (columnas + 1));
+        for (int i = 0; i < filas; i++) {
+            int base = i * palabrasPorFila;
+            for (int j = 0; j < columnas; j++) {
+                sb.append((estadoActual.get(base + (j >>> 6)) & (1L << j)) != 0 ? '1' : '0');
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
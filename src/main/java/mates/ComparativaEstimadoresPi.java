@@ -0,0 +1,65 @@
+package mates;
+
+import java.io.PrintStream;
+
+/**
+ * Comparativa de error frente a tiempo de los métodos de {@link MetodoPi}.
+ * <p>
+ * Para cada método y número de muestras se repite la estimación con varias
+ * semillas y se muestra el tiempo medio, el error cuadrático medio respecto
+ * a {@link Math#PI} y el error estándar medio que declara el propio
+ * estimador. Se ejecuta con:
+ * <pre>
+ * java -cp target/classes mates.ComparativaEstimadoresPi [muestrasMaximas] [repeticiones]
+ * </pre>
+ */
+public final class ComparativaEstimadoresPi {
+
+    private ComparativaEstimadoresPi() {
+    }
+
+    /**
+     * Ejecuta la comparativa con potencias de 10 desde 10^4 hasta
+     * {@code muestrasMaximas} (10^8 por defecto) y 5 repeticiones por defecto.
+     *
+     * @param args Muestras máximas y repeticiones, opcionales.
+     */
+    public static void main(String[] args) {
+        long maximo = (args.length > 0) ? Long.parseLong(args[0]) : 100_000_000L;
+        int repeticiones = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        comparar(maximo, repeticiones, System.out);
+    }
+
+    /**
+     * Ejecuta la comparativa y escribe una tabla en {@code salida}.
+     *
+     * @param muestrasMaximas Mayor número de muestras a probar.
+     * @param repeticiones    Semillas distintas por método y tamaño.
+     * @param salida          Destino de la tabla.
+     */
+    public static void comparar(long muestrasMaximas, int repeticiones, PrintStream salida) {
+        // Calentamiento para que el JIT compile los bucles antes de medir
+        for (MetodoPi metodo : MetodoPi.values()) {
+            metodo.crearEstimador().estimar(1_000_000, 0);
+        }
+
+        salida.printf("%-14s %12s %12s %12s %12s%n", "método", "muestras", "tiempo (ms)", "RMSE", "error est.");
+        for (MetodoPi metodo : MetodoPi.values()) {
+            EstimadorPi estimador = metodo.crearEstimador();
+            for (long n = 10_000; n <= muestrasMaximas; n *= 10) {
+                double segundos = 0;
+                double sumaErrores = 0;
+                double sumaErroresEstandar = 0;
+                for (int semilla = 1; semilla <= repeticiones; semilla++) {
+                    EstimacionPi estimacion = estimador.estimar(n, semilla);
+                    double error = estimacion.getValor() - Math.PI;
+                    segundos += estimacion.getSegundos();
+                    sumaErrores += error * error;
+                    sumaErroresEstandar += estimacion.getErrorEstandar();
+                }
+                salida.printf("%-14s %12d %12.3f %12.3e %12.3e%n", metodo, n, segundos * 1000 / repeticiones,
+                        Math.sqrt(sumaErrores / repeticiones), sumaErroresEstandar / repeticiones);
+            }
+        }
+    }
+}
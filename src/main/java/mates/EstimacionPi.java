@@ -0,0 +1,151 @@
+package mates;
+
+/**
+ * Resultado de una estimación de PI: el valor aproximado junto con su error
+ * estándar, el número de muestras empleadas y el rendimiento obtenido.
+ */
+public final class EstimacionPi {
+
+    /**
+     * Valor estimado de PI.
+     */
+    private final double valor;
+
+    /**
+     * Error estándar de la estimación (desviación típica del estimador).
+     */
+    private final double errorEstandar;
+
+    /**
+     * Número de puntos generados.
+     */
+    private final long muestras;
+
+    /**
+     * Tiempo de cálculo en nanosegundos.
+     */
+    private final long nanos;
+
+    /**
+     * Crea un resultado de estimación.
+     *
+     * @param valor         Valor estimado de PI.
+     * @param errorEstandar Error estándar de la estimación.
+     * @param muestras      Número de puntos generados.
+     * @param nanos         Tiempo de cálculo en nanosegundos.
+     */
+    public EstimacionPi(double valor, double errorEstandar, long muestras, long nanos) {
+        this.valor = valor;
+        this.errorEstandar = errorEstandar;
+        this.muestras = muestras;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Construye el resultado del método de Montecarlo clásico a partir del
+     * número de puntos que cayeron dentro del círculo.
+     * <p>
+     * La proporción de aciertos {@code p} es una binomial, así que el error
+     * estándar de {@code 4p} es {@code 4 * sqrt(p (1 - p) / n)}.
+     *
+     * @param aciertos Puntos dentro del círculo.
+     * @param muestras Puntos generados.
+     * @param nanos    Tiempo de cálculo en nanosegundos.
+     * @return Estimación correspondiente.
+     */
+    public static EstimacionPi desdeAciertos(long aciertos, long muestras, long nanos) {
+        double p = (double) aciertos / muestras;
+        return new EstimacionPi(4.0 * p, 4.0 * Math.sqrt(p * (1 - p) / muestras), muestras, nanos);
+    }
+
+    /**
+     * @return Valor estimado de PI.
+     */
+    public double getValor() {
+        return valor;
+    }
+
+    /**
+     * @return Error estándar de la estimación.
+     */
+    public double getErrorEstandar() {
+        return errorEstandar;
+    }
+
+    /**
+     * @return Número de puntos generados.
+     */
+    public long getMuestras() {
+        return muestras;
+    }
+
+    /**
+     * @return Tiempo de cálculo en segundos.
+     */
+    public double getSegundos() {
+        return nanos / 1e9;
+    }
+
+    /**
+     * Semiamplitud del intervalo de confianza normal para el nivel indicado:
+     * {@code z * errorEstandar}, con {@code z} el cuantil {@code (1 + nivel) / 2}
+     * de la normal estándar (1,96 para el 95%).
+     *
+     * @param nivelConfianza Nivel de confianza, entre 0 y 1 (por ejemplo 0.95).
+     * @return Semiamplitud del intervalo {@code valor ± semiamplitud}.
+     * @throws IllegalArgumentException Si el nivel no está en (0, 1).
+     */
+    public double getSemiamplitud(double nivelConfianza) {
+        if (!(nivelConfianza > 0 && nivelConfianza < 1)) {
+            throw new IllegalArgumentException("El nivel de confianza debe estar entre 0 y 1.");
+        }
+        return cuantilNormal((1 + nivelConfianza) / 2) * errorEstandar;
+    }
+
+    /**
+     * Cuantil de la normal estándar mediante la aproximación racional de
+     * Acklam (error relativo menor que 1.2e-9).
+     *
+     * @param p Probabilidad en (0, 1).
+     * @return Valor {@code z} tal que {@code P(Z <= z) = p}.
+     */
+    static double cuantilNormal(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double bajo = 0.02425;
+
+        if (p < bajo) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - bajo) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * @return Puntos generados por segundo.
+     */
+    public double getMuestrasPorSegundo() {
+        return (nanos == 0) ? 0.0 : muestras * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PI ≈ %.10f ± %.2e (%d muestras, %.3e muestras/s)",
+                valor, errorEstandar, muestras, getMuestrasPorSegundo());
+    }
+}
@@ -0,0 +1,34 @@
+package mates;
+
+/**
+ * Método de estimación de PI.
+ * <p>
+ * Todas las implementaciones reciben el número de puntos y una semilla, son
+ * reproducibles con la misma semilla y devuelven la estimación junto con su
+ * error estándar, de modo que los distintos métodos se pueden comparar por
+ * el error obtenido con el mismo número de muestras o el mismo tiempo.
+ *
+ * @see MetodoPi
+ */
+public interface EstimadorPi {
+
+    /**
+     * Estima PI con el número de muestras y la semilla indicados.
+     *
+     * @param muestras Número de puntos a generar.
+     * @param semilla  Semilla de la aleatorización.
+     * @return Estimación con su error estándar y rendimiento.
+     * @throws IllegalArgumentException Si el número de muestras es menor que 1.
+     */
+    EstimacionPi estimar(long muestras, long semilla);
+
+    /**
+     * Estima PI con una semilla aleatoria.
+     *
+     * @param muestras Número de puntos a generar.
+     * @return Estimación con su error estándar y rendimiento.
+     */
+    default EstimacionPi estimar(long muestras) {
+        return estimar(muestras, System.nanoTime());
+    }
+}
@@ -0,0 +1,114 @@
+package mates;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Estimación de PI por Montecarlo con variables antitéticas.
+ * <p>
+ * Cada punto aleatorio {@code (u, v)} del cuadrante [0, 1) x [0, 1) se
+ * acompaña de su reflejo {@code (1 - u, 1 - v)}. Como la indicadora del
+ * círculo es decreciente en ambas coordenadas, los dos aciertos están
+ * correlacionados negativamente y la media de cada par tiene menos varianza
+ * que la de dos puntos independientes. El error estándar se calcula a partir
+ * de la varianza observada de esas medias.
+ * <p>
+ * Los pares se reparten en bloques con generadores divididos de la semilla,
+ * igual que en {@link EstimadorPiParalelo}.
+ */
+public class EstimadorPiAntitetico implements EstimadorPi {
+
+    /**
+     * Número de pares de cada bloque.
+     */
+    private static final long PARES_POR_BLOQUE = 1L << 21;
+
+    /**
+     * Pool en el que se calculan los bloques.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Fábrica del generador raíz.
+     */
+    private final RandomGeneratorFactory<RandomGenerator> fabrica;
+
+    /**
+     * Crea un estimador que usa el pool común y el algoritmo por defecto.
+     */
+    public EstimadorPiAntitetico() {
+        this(ForkJoinPool.commonPool(), EstimadorPiParalelo.ALGORITMO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un estimador.
+     *
+     * @param pool      Pool en el que se reparten los bloques.
+     * @param algoritmo Nombre de un algoritmo divisible de {@link RandomGeneratorFactory}.
+     * @throws IllegalArgumentException Si el algoritmo no existe o no es divisible.
+     */
+    public EstimadorPiAntitetico(ForkJoinPool pool, String algoritmo) {
+        this.pool = pool;
+        this.fabrica = EstimadorPiParalelo.fabricaDivisible(algoritmo);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Los puntos se generan por pares, así que un número impar de muestras
+     * se redondea al par siguiente.
+     */
+    @Override
+    public EstimacionPi estimar(long muestras, long semilla) {
+        if (muestras < 1) {
+            throw new IllegalArgumentException("El número de pasos debe ser mayor que 0.");
+        }
+        long inicio = System.nanoTime();
+        long pares = (muestras + 1) / 2;
+        int bloques = (int) Math.min(Integer.MAX_VALUE, (pares + PARES_POR_BLOQUE - 1) / PARES_POR_BLOQUE);
+        RandomGenerator.SplittableGenerator raiz = (RandomGenerator.SplittableGenerator) fabrica.create(semilla);
+        RandomGenerator.SplittableGenerator[] generadores = new RandomGenerator.SplittableGenerator[bloques];
+        for (int i = 0; i < bloques; i++) {
+            generadores[i] = raiz.split();
+        }
+
+        // [pares con los dos puntos dentro, pares con un solo punto dentro]
+        double[] cuentas = SumaPorBloques.sumar(pool, bloques, bloque -> {
+            long n = Math.min(PARES_POR_BLOQUE, pares - bloque * PARES_POR_BLOQUE);
+            return contarPares(generadores[bloque], n);
+        });
+
+        // La media de cada par vale 1, 1/2 o 0
+        double media = (cuentas[0] + 0.5 * cuentas[1]) / pares;
+        double mediaCuadrados = (cuentas[0] + 0.25 * cuentas[1]) / pares;
+        double varianza = Math.max(0, mediaCuadrados - media * media);
+        return new EstimacionPi(4 * media, 4 * Math.sqrt(varianza / pares), 2 * pares,
+                System.nanoTime() - inicio);
+    }
+
+    /**
+     * Genera {@code n} pares antitéticos.
+     *
+     * @param generador Generador del bloque.
+     * @param n         Número de pares.
+     * @return Pares con los dos puntos dentro y pares con uno solo.
+     */
+    private static double[] contarPares(RandomGenerator generador, long n) {
+        long dos = 0;
+        long uno = 0;
+        for (long i = 0; i < n; i++) {
+            double u = generador.nextDouble();
+            double v = generador.nextDouble();
+            double ur = 1 - u;
+            double vr = 1 - v;
+            int dentro = ((u * u + v * v <= 1) ? 1 : 0) + ((ur * ur + vr * vr <= 1) ? 1 : 0);
+            if (dentro == 2) {
+                dos++;
+            } else if (dentro == 1) {
+                uno++;
+            }
+        }
+        return new double[]{dos, uno};
+    }
+}
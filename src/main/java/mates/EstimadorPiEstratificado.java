@@ -0,0 +1,120 @@
+package mates;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Estimación de PI por Montecarlo con muestreo estratificado.
+ * <p>
+ * El cuadrante [0, 1) x [0, 1) se divide en una rejilla de {@code k x k}
+ * celdas del mismo área y en cada una se generan al menos dos puntos. La
+ * estimación es la media de las proporciones de aciertos de las celdas y su
+ * varianza es la suma de las varianzas de cada celda. Las celdas que quedan
+ * enteras dentro o fuera del círculo no aportan varianza, así que solo
+ * cuenta la franja que cruza la circunferencia y el error decrece como
+ * {@code n^(-3/4)} en lugar de {@code n^(-1/2)}.
+ * <p>
+ * Las filas de la rejilla se reparten en bloques con generadores divididos
+ * de la semilla, igual que en {@link EstimadorPiParalelo}.
+ */
+public class EstimadorPiEstratificado implements EstimadorPi {
+
+    /**
+     * Número aproximado de muestras de cada bloque.
+     */
+    private static final long MUESTRAS_POR_BLOQUE = 1L << 22;
+
+    /**
+     * Pool en el que se calculan los bloques.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Fábrica del generador raíz.
+     */
+    private final RandomGeneratorFactory<RandomGenerator> fabrica;
+
+    /**
+     * Crea un estimador que usa el pool común y el algoritmo por defecto.
+     */
+    public EstimadorPiEstratificado() {
+        this(ForkJoinPool.commonPool(), EstimadorPiParalelo.ALGORITMO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un estimador.
+     *
+     * @param pool      Pool en el que se reparten los bloques.
+     * @param algoritmo Nombre de un algoritmo divisible de {@link RandomGeneratorFactory}.
+     * @throws IllegalArgumentException Si el algoritmo no existe o no es divisible.
+     */
+    public EstimadorPiEstratificado(ForkJoinPool pool, String algoritmo) {
+        this.pool = pool;
+        this.fabrica = EstimadorPiParalelo.fabricaDivisible(algoritmo);
+    }
+
+    @Override
+    public EstimacionPi estimar(long muestras, long semilla) {
+        if (muestras < 1) {
+            throw new IllegalArgumentException("El número de pasos debe ser mayor que 0.");
+        }
+        long inicio = System.nanoTime();
+        long k = Math.max(1, (long) Math.sqrt(muestras / 2.0));
+        long celdas = k * k;
+        long porCelda = muestras / celdas;
+        // Las primeras 'resto' celdas reciben un punto más
+        long resto = muestras % celdas;
+
+        long filasPorBloque = Math.max(1, MUESTRAS_POR_BLOQUE / (k * porCelda));
+        int bloques = (int) Math.min(Integer.MAX_VALUE, (k + filasPorBloque - 1) / filasPorBloque);
+        filasPorBloque = (k + bloques - 1) / bloques;
+        RandomGenerator.SplittableGenerator raiz = (RandomGenerator.SplittableGenerator) fabrica.create(semilla);
+        RandomGenerator.SplittableGenerator[] generadores = new RandomGenerator.SplittableGenerator[bloques];
+        for (int i = 0; i < bloques; i++) {
+            generadores[i] = raiz.split();
+        }
+
+        long filasBloque = filasPorBloque;
+        // [suma de proporciones, suma de varianzas de las proporciones]
+        double[] sumas = SumaPorBloques.sumar(pool, bloques, bloque -> {
+            long desde = bloque * filasBloque;
+            long hasta = Math.min(k, desde + filasBloque);
+            return muestrearFilas(generadores[bloque], k, porCelda, resto, desde, hasta);
+        });
+
+        return new EstimacionPi(4 * sumas[0] / celdas, 4 * Math.sqrt(sumas[1]) / celdas, muestras,
+                System.nanoTime() - inicio);
+    }
+
+    /**
+     * Muestrea las celdas de las filas {@code [desde, hasta)} de la rejilla.
+     *
+     * @return Suma de las proporciones de aciertos de las celdas y suma de
+     *         las varianzas estimadas de esas proporciones.
+     */
+    private static double[] muestrearFilas(RandomGenerator generador, long k, long porCelda, long resto,
+                                           long desde, long hasta) {
+        double lado = 1.0 / k;
+        double sumaProporciones = 0;
+        double sumaVarianzas = 0;
+        for (long fila = desde; fila < hasta; fila++) {
+            for (long columna = 0; columna < k; columna++) {
+                long n = (fila * k + columna < resto) ? porCelda + 1 : porCelda;
+                long aciertos = 0;
+                for (long i = 0; i < n; i++) {
+                    double x = (columna + generador.nextDouble()) * lado;
+                    double y = (fila + generador.nextDouble()) * lado;
+                    if (x * x + y * y <= 1) {
+                        aciertos++;
+                    }
+                }
+                double p = (double) aciertos / n;
+                sumaProporciones += p;
+                // Varianza insesgada de la proporción: p (1 - p) / (n - 1)
+                sumaVarianzas += p * (1 - p) / Math.max(1, n - 1);
+            }
+        }
+        return new double[]{sumaProporciones, sumaVarianzas};
+    }
+}
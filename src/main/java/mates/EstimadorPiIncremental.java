@@ -0,0 +1,360 @@
+package mates;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estimación de PI por Montecarlo que se ejecuta por lotes hasta alcanzar
+ * la precisión pedida.
+ * <p>
+ * En lugar de fijar de antemano el número de puntos, el cálculo genera lotes
+ * de {@link #setTamanoLote(long) tamaño fijo} y, tras cada uno, publica la
+ * estimación acumulada con su intervalo de confianza. Se detiene en cuanto
+ * se cumple la primera de las condiciones configuradas:
+ * <ul>
+ *   <li>la semiamplitud del intervalo es menor o igual que el error objetivo,</li>
+ *   <li>se agota el presupuesto de tiempo,</li>
+ *   <li>se alcanza el número máximo de muestras, o</li>
+ *   <li>se pide parar: {@link #detener()} o cancelar la suscripción de
+ *       {@link #comoPublicador}.</li>
+ * </ul>
+ * Los lotes se calculan con un {@link EstimadorPiParalelo}, continuando la
+ * misma secuencia de generadores, así que con la misma semilla y la misma
+ * configuración el resultado es reproducible.
+ */
+public class EstimadorPiIncremental {
+
+    /**
+     * Tamaño de lote por defecto.
+     */
+    private static final long TAMANO_LOTE_POR_DEFECTO = 1L << 24;
+
+    /**
+     * Estimador que calcula cada lote.
+     */
+    private final EstimadorPiParalelo estimador;
+
+    private long tamanoLote = TAMANO_LOTE_POR_DEFECTO;
+    private double errorObjetivo;
+    private double nivelConfianza = 0.95;
+    private Duration presupuesto;
+    private long maxMuestras;
+
+    /**
+     * Oyentes a los que se notifica cada progreso.
+     */
+    private final List<Consumer<ProgresoPi>> oyentes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Petición de parada desde otro hilo para {@link #estimar(long)}.
+     */
+    private volatile boolean detenido;
+
+    /**
+     * Crea un estimador incremental que calcula los lotes en el pool común.
+     */
+    public EstimadorPiIncremental() {
+        this(new EstimadorPiParalelo());
+    }
+
+    /**
+     * Crea un estimador incremental que calcula los lotes con el estimador
+     * paralelo indicado.
+     *
+     * @param estimador Estimador de cada lote.
+     */
+    public EstimadorPiIncremental(EstimadorPiParalelo estimador) {
+        this.estimador = estimador;
+    }
+
+    /**
+     * @param tamanoLote Número de puntos de cada lote.
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public void setTamanoLote(long tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0.");
+        }
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Fija la precisión a alcanzar: el cálculo se detiene cuando el intervalo
+     * de confianza tiene una semiamplitud menor o igual que {@code errorObjetivo}.
+     *
+     * @param errorObjetivo  Error absoluto objetivo (por ejemplo 1e-4).
+     * @param nivelConfianza Nivel de confianza (por ejemplo 0.95).
+     * @throws IllegalArgumentException Si algún valor no es válido.
+     */
+    public void setErrorObjetivo(double errorObjetivo, double nivelConfianza) {
+        if (!(errorObjetivo > 0)) {
+            throw new IllegalArgumentException("El error objetivo debe ser mayor que 0.");
+        }
+        if (!(nivelConfianza > 0 && nivelConfianza < 1)) {
+            throw new IllegalArgumentException("El nivel de confianza debe estar entre 0 y 1.");
+        }
+        this.errorObjetivo = errorObjetivo;
+        this.nivelConfianza = nivelConfianza;
+    }
+
+    /**
+     * @param presupuesto Tiempo máximo de cálculo, o {@code null} para no limitarlo.
+     */
+    public void setPresupuesto(Duration presupuesto) {
+        this.presupuesto = presupuesto;
+    }
+
+    /**
+     * @param maxMuestras Número máximo de puntos, o 0 para no limitarlo.
+     * @throws IllegalArgumentException Si es negativo.
+     */
+    public void setMaxMuestras(long maxMuestras) {
+        if (maxMuestras < 0) {
+            throw new IllegalArgumentException("El número máximo de muestras no puede ser negativo.");
+        }
+        this.maxMuestras = maxMuestras;
+    }
+
+    /**
+     * Registra un oyente que recibe el progreso tras cada lote, en el hilo
+     * que ejecuta el cálculo. El último progreso recibido indica el motivo
+     * de parada.
+     *
+     * @param oyente Oyente a registrar.
+     */
+    public void agregarOyente(Consumer<ProgresoPi> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Pide que el cálculo de {@link #estimar(long)} en curso se detenga al
+     * terminar el lote actual. Si no hay ninguno en curso, se detendrá el
+     * siguiente tras su primer lote. No afecta a los cálculos de
+     * {@link #comoPublicador}, que se detienen cancelando su suscripción.
+     */
+    public void detener() {
+        detenido = true;
+    }
+
+    /**
+     * Ejecuta la estimación hasta que se cumpla una condición de parada,
+     * notificando el progreso a los oyentes registrados. Al terminar se
+     * descarta la petición de {@link #detener()}.
+     *
+     * @param semilla Semilla para obtener resultados reproducibles.
+     * @return Último progreso, con la estimación final y el motivo de parada.
+     * @throws IllegalStateException Si no hay ninguna condición de parada configurada.
+     */
+    public ProgresoPi estimar(long semilla) {
+        try {
+            return estimar(semilla, progreso -> {
+                for (Consumer<ProgresoPi> oyente : oyentes) {
+                    oyente.accept(progreso);
+                }
+            }, () -> detenido);
+        } finally {
+            detenido = false;
+        }
+    }
+
+    /**
+     * Ejecuta una estimación independiente, con su propio oyente y su propia
+     * condición de parada; los oyentes registrados y {@link #detener()} no
+     * intervienen. Puede llamarse desde varios hilos a la vez mientras no
+     * se cambie la configuración.
+     *
+     * @param semilla Semilla para obtener resultados reproducibles.
+     * @param oyente  Recibe el progreso tras cada lote, en el hilo que llama.
+     * @param detener Se consulta tras cada lote; si devuelve {@code true}, el
+     *                cálculo termina con {@link ProgresoPi.MotivoParada#DETENIDO}.
+     * @return Último progreso, con la estimación final y el motivo de parada.
+     * @throws IllegalStateException Si no hay ninguna condición de parada configurada.
+     */
+    public ProgresoPi estimar(long semilla, Consumer<ProgresoPi> oyente, BooleanSupplier detener) {
+        if (errorObjetivo == 0 && presupuesto == null && maxMuestras == 0) {
+            throw new IllegalStateException("Debe configurarse un error objetivo, un presupuesto de tiempo "
+                    + "o un número máximo de muestras.");
+        }
+        long inicio = System.nanoTime();
+        long limiteNanos = (presupuesto == null) ? Long.MAX_VALUE : presupuesto.toNanos();
+        RandomGenerator.SplittableGenerator raiz = estimador.crearGenerador(semilla);
+
+        long muestras = 0;
+        long aciertos = 0;
+        long lotes = 0;
+        while (true) {
+            long lote = (maxMuestras == 0) ? tamanoLote : Math.min(tamanoLote, maxMuestras - muestras);
+            aciertos += estimador.contarAciertos(lote, raiz);
+            muestras += lote;
+            lotes++;
+
+            long transcurrido = System.nanoTime() - inicio;
+            EstimacionPi estimacion = EstimacionPi.desdeAciertos(aciertos, muestras, transcurrido);
+            ProgresoPi.MotivoParada motivo = null;
+            if (errorObjetivo > 0 && estimacion.getSemiamplitud(nivelConfianza) <= errorObjetivo) {
+                motivo = ProgresoPi.MotivoParada.PRECISION_ALCANZADA;
+            } else if (maxMuestras > 0 && muestras >= maxMuestras) {
+                motivo = ProgresoPi.MotivoParada.MUESTRAS_AGOTADAS;
+            } else if (transcurrido >= limiteNanos) {
+                motivo = ProgresoPi.MotivoParada.TIEMPO_AGOTADO;
+            } else if (detener.getAsBoolean()) {
+                motivo = ProgresoPi.MotivoParada.DETENIDO;
+            }
+
+            ProgresoPi progreso = new ProgresoPi(estimacion, nivelConfianza, lotes, motivo);
+            oyente.accept(progreso);
+            if (motivo != null) {
+                MetricasPi.registrar("incremental", muestras, transcurrido);
+                return progreso;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un publicador reactivo de la estimación. Cada suscripción
+     * lanza un cálculo independiente en {@code ejecutor}, con su propio
+     * oyente y su propia condición de parada, publica un {@link ProgresoPi}
+     * por lote y completa el flujo tras el último (o lo cierra con el error
+     * producido).
+     * <p>
+     * Los elementos se entregan en el mismo hilo que calcula, y solo cuando
+     * el suscriptor los ha pedido: mientras no hay demanda, el cálculo
+     * espera. Cancelar la suscripción detiene el cálculo.
+     *
+     * @param semilla  Semilla del cálculo.
+     * @param ejecutor Ejecutor en el que corre cada cálculo.
+     * @return Publicador de progresos.
+     */
+    public Flow.Publisher<ProgresoPi> comoPublicador(long semilla, Executor ejecutor) {
+        return suscriptor -> {
+            Suscripcion suscripcion = new Suscripcion(Objects.requireNonNull(suscriptor));
+            try {
+                ejecutor.execute(() -> suscripcion.ejecutar(semilla));
+            } catch (RejectedExecutionException e) {
+                suscriptor.onSubscribe(suscripcion);
+                suscriptor.onError(e);
+            }
+        };
+    }
+
+    /**
+     * Igual que {@link #comoPublicador(long, Executor)}, sobre el pool común.
+     *
+     * @param semilla Semilla del cálculo.
+     * @return Publicador de progresos.
+     */
+    public Flow.Publisher<ProgresoPi> comoPublicador(long semilla) {
+        return comoPublicador(semilla, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Suscripción de {@link #comoPublicador}: lleva la demanda pendiente y
+     * la cancelación, y ejecuta el cálculo entregando cada progreso cuando
+     * hay demanda.
+     */
+    private final class Suscripcion implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ProgresoPi> suscriptor;
+
+        /**
+         * Elementos pedidos y aún no entregados.
+         */
+        private long demanda;
+
+        private boolean cancelada;
+
+        /**
+         * Error de una petición no válida, que se notifica al suscriptor.
+         */
+        private IllegalArgumentException errorPeticion;
+
+        Suscripcion(Flow.Subscriber<? super ProgresoPi> suscriptor) {
+            this.suscriptor = suscriptor;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (n <= 0) {
+                if (errorPeticion == null) {
+                    errorPeticion = new IllegalArgumentException("La demanda debe ser mayor que 0: " + n);
+                }
+                cancelada = true;
+            } else {
+                long total = demanda + n;
+                demanda = (total < 0) ? Long.MAX_VALUE : total;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelada = true;
+            notifyAll();
+        }
+
+        private synchronized boolean isCancelada() {
+            return cancelada;
+        }
+
+        /**
+         * Espera a que haya demanda y entrega el progreso.
+         *
+         * @throws CancellationException Si la suscripción se cancela mientras
+         *                               tanto, para terminar el cálculo.
+         */
+        private void entregar(ProgresoPi progreso) {
+            synchronized (this) {
+                try {
+                    while (demanda == 0 && !cancelada) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelada = true;
+                }
+                if (cancelada) {
+                    throw new CancellationException();
+                }
+                demanda--;
+            }
+            suscriptor.onNext(progreso);
+        }
+
+        void ejecutar(long semilla) {
+            suscriptor.onSubscribe(this);
+            try {
+                estimar(semilla, this::entregar, this::isCancelada);
+            } catch (CancellationException e) {
+                // Cancelada o con una petición no válida
+            } catch (RuntimeException e) {
+                if (!isCancelada()) {
+                    cancel();
+                    suscriptor.onError(e);
+                }
+                return;
+            }
+            IllegalArgumentException error;
+            boolean completar;
+            synchronized (this) {
+                error = errorPeticion;
+                completar = !cancelada;
+                cancelada = true;
+            }
+            if (error != null) {
+                suscriptor.onError(error);
+            } else if (completar) {
+                suscriptor.onComplete();
+            }
+        }
+    }
+}
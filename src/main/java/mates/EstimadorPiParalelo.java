@@ -0,0 +1,168 @@
+package mates;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Aproximación de PI por el método de Montecarlo repartida entre varios
+ * núcleos.
+ * <p>
+ * Las muestras se dividen en bloques de tamaño fijo y cada bloque usa su
+ * propio generador, obtenido dividiendo ({@code split}) un generador raíz
+ * creado a partir de la semilla. Los generadores no se comparten entre
+ * hilos, así que no hay contención, y como la división en bloques no depende
+ * del número de hilos, la misma semilla da siempre el mismo resultado.
+ */
+public class EstimadorPiParalelo implements EstimadorPi {
+
+    /**
+     * Número de muestras de cada bloque.
+     */
+    private static final long MUESTRAS_POR_BLOQUE = 1L << 22;
+
+    /**
+     * Algoritmo de generación por defecto.
+     */
+    static final String ALGORITMO_POR_DEFECTO = "L64X128MixRandom";
+
+    /**
+     * Pool en el que se calculan los bloques.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Fábrica del generador raíz.
+     */
+    private final RandomGeneratorFactory<RandomGenerator> fabrica;
+
+    /**
+     * Indica si se usa el núcleo vectorial (cuando está disponible).
+     */
+    private boolean vectorial;
+
+    /**
+     * Crea un estimador que usa el pool común y el algoritmo por defecto.
+     */
+    public EstimadorPiParalelo() {
+        this(ForkJoinPool.commonPool(), ALGORITMO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un estimador.
+     *
+     * @param pool      Pool en el que se reparten los bloques.
+     * @param algoritmo Nombre de un algoritmo divisible de
+     *                  {@link RandomGeneratorFactory} (por ejemplo
+     *                  "SplittableRandom" o "L64X128MixRandom").
+     * @throws IllegalArgumentException Si el algoritmo no existe o no es divisible.
+     */
+    public EstimadorPiParalelo(ForkJoinPool pool, String algoritmo) {
+        this.pool = pool;
+        this.fabrica = fabricaDivisible(algoritmo);
+    }
+
+    /**
+     * Obtiene la fábrica de un algoritmo divisible.
+     *
+     * @param algoritmo Nombre del algoritmo.
+     * @return Fábrica del algoritmo.
+     * @throws IllegalArgumentException Si el algoritmo no existe o no es divisible.
+     */
+    static RandomGeneratorFactory<RandomGenerator> fabricaDivisible(String algoritmo) {
+        RandomGeneratorFactory<RandomGenerator> fabrica = RandomGeneratorFactory.of(algoritmo);
+        if (!fabrica.isSplittable()) {
+            throw new IllegalArgumentException("El algoritmo " + algoritmo + " no es divisible.");
+        }
+        return fabrica;
+    }
+
+    /**
+     * Activa o desactiva el núcleo vectorial de {@link KernelMontecarlo}. Si
+     * la JVM no tiene cargado {@code jdk.incubator.vector}, se sigue usando
+     * el bucle escalar. El núcleo vectorial genera otra secuencia de puntos,
+     * así que con la misma semilla da un resultado distinto del escalar
+     * (aunque igualmente reproducible).
+     *
+     * @param vectorial {@code true} para usar el núcleo vectorial.
+     */
+    public void setVectorial(boolean vectorial) {
+        this.vectorial = vectorial;
+    }
+
+    @Override
+    public EstimacionPi estimar(long muestras, long semilla) {
+        if (muestras < 1) {
+            throw new IllegalArgumentException("El número de pasos debe ser mayor que 0.");
+        }
+        long inicio = System.nanoTime();
+        long aciertos = contarAciertos(muestras, crearGenerador(semilla));
+        return EstimacionPi.desdeAciertos(aciertos, muestras, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Crea el generador raíz a partir de la semilla.
+     *
+     * @param semilla Semilla del generador.
+     * @return Generador divisible del algoritmo configurado.
+     */
+    RandomGenerator.SplittableGenerator crearGenerador(long semilla) {
+        return (RandomGenerator.SplittableGenerator) fabrica.create(semilla);
+    }
+
+    /**
+     * Genera {@code muestras} puntos en paralelo y cuenta los aciertos. Los
+     * generadores de los bloques se obtienen dividiendo {@code raiz} en un
+     * orden fijo, así que llamadas sucesivas con la misma raíz continúan la
+     * misma secuencia reproducible.
+     *
+     * @param muestras Número de puntos a generar.
+     * @param raiz     Generador del que se dividen los de cada bloque.
+     * @return Número de puntos dentro del círculo.
+     */
+    long contarAciertos(long muestras, RandomGenerator.SplittableGenerator raiz) {
+        int bloques = (int) Math.min(Integer.MAX_VALUE, (muestras + MUESTRAS_POR_BLOQUE - 1) / MUESTRAS_POR_BLOQUE);
+        RandomGenerator.SplittableGenerator[] generadores = new RandomGenerator.SplittableGenerator[bloques];
+        for (int i = 0; i < bloques; i++) {
+            generadores[i] = raiz.split();
+        }
+        return pool.invoke(new CalculoBloques(generadores, muestras, vectorial, 0, bloques));
+    }
+
+    /**
+     * Tarea que suma los aciertos de los bloques {@code [desde, hasta)},
+     * dividiéndose por la mitad hasta quedarse con un solo bloque.
+     */
+    private static final class CalculoBloques extends RecursiveTask<Long> {
+
+        private final RandomGenerator.SplittableGenerator[] generadores;
+        private final long muestras;
+        private final boolean vectorial;
+        private final int desde;
+        private final int hasta;
+
+        CalculoBloques(RandomGenerator.SplittableGenerator[] generadores, long muestras, boolean vectorial,
+                       int desde, int hasta) {
+            this.generadores = generadores;
+            this.muestras = muestras;
+            this.vectorial = vectorial;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Long compute() {
+            if (hasta - desde == 1) {
+                long primera = desde * MUESTRAS_POR_BLOQUE;
+                long n = Math.min(MUESTRAS_POR_BLOQUE, muestras - primera);
+                return KernelMontecarlo.contarAciertos(generadores[desde], n, vectorial);
+            }
+            int mitad = (desde + hasta) >>> 1;
+            CalculoBloques izquierda = new CalculoBloques(generadores, muestras, vectorial, desde, mitad);
+            izquierda.fork();
+            long derecha = new CalculoBloques(generadores, muestras, vectorial, mitad, hasta).compute();
+            return izquierda.join() + derecha;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package mates;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Estimación de PI por cuasi-Montecarlo con la secuencia de Sobol.
+ * <p>
+ * Los puntos de la secuencia de Sobol en dos dimensiones cubren el cuadrante
+ * [0, 1) x [0, 1) de forma mucho más uniforme que los aleatorios (baja
+ * discrepancia), así que el error de la proporción de aciertos decrece más
+ * deprisa que {@code n^(-1/2)}. Como la secuencia es determinista, para
+ * obtener un error estándar se usan {@value #REPLICAS} réplicas, cada una
+ * con un desplazamiento digital aleatorio (XOR de las coordenadas con bits
+ * derivados de la semilla); la estimación es la media de las réplicas y el
+ * error sale de la dispersión entre ellas.
+ * <p>
+ * Los puntos se generan en orden de código Gray, con un XOR por coordenada
+ * y punto, y cada réplica se trocea en bloques que se reparten en el pool.
+ */
+public class EstimadorPiSobol implements EstimadorPi {
+
+    /**
+     * Número de réplicas desplazadas.
+     */
+    static final int REPLICAS = 16;
+
+    /**
+     * Número de puntos de cada bloque.
+     */
+    private static final long PUNTOS_POR_BLOQUE = 1L << 22;
+
+    /**
+     * 2^-53: convierte los 53 bits altos de un {@code long} en un
+     * {@code double} uniforme en [0, 1).
+     */
+    private static final double ESCALA = 0x1.0p-53;
+
+    /**
+     * Números de dirección de la primera dimensión (van der Corput en base 2).
+     */
+    private static final long[] DIRECCIONES_X = new long[64];
+
+    /**
+     * Números de dirección de la segunda dimensión (polinomio primitivo
+     * {@code x + 1}, {@code m1 = 1}).
+     */
+    private static final long[] DIRECCIONES_Y = new long[64];
+
+    static {
+        DIRECCIONES_Y[0] = 1L << 63;
+        for (int j = 0; j < 64; j++) {
+            DIRECCIONES_X[j] = 1L << (63 - j);
+            if (j > 0) {
+                DIRECCIONES_Y[j] = DIRECCIONES_Y[j - 1] ^ (DIRECCIONES_Y[j - 1] >>> 1);
+            }
+        }
+    }
+
+    /**
+     * Pool en el que se calculan los bloques.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un estimador que usa el pool común.
+     */
+    public EstimadorPiSobol() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un estimador.
+     *
+     * @param pool Pool en el que se reparten los bloques.
+     */
+    public EstimadorPiSobol(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Con menos de dos muestras solo hay una réplica y el error estándar es
+     * {@code NaN}.
+     */
+    @Override
+    public EstimacionPi estimar(long muestras, long semilla) {
+        if (muestras < 1) {
+            throw new IllegalArgumentException("El número de pasos debe ser mayor que 0.");
+        }
+        long inicio = System.nanoTime();
+        int replicas = (int) Math.min(REPLICAS, muestras);
+        long[] desplazamientos = new long[2 * replicas];
+        RandomGenerator generador = RandomGeneratorFactory.of(EstimadorPiParalelo.ALGORITMO_POR_DEFECTO).create(semilla);
+        for (int i = 0; i < desplazamientos.length; i++) {
+            desplazamientos[i] = generador.nextLong();
+        }
+
+        long porReplica = muestras / replicas;
+        long resto = muestras % replicas;
+        long maximo = porReplica + (resto > 0 ? 1 : 0);
+        int trozos = (int) ((maximo + PUNTOS_POR_BLOQUE - 1) / PUNTOS_POR_BLOQUE);
+        int bloques = (int) Math.min(Integer.MAX_VALUE, (long) replicas * trozos);
+
+        // Aciertos de cada réplica
+        double[] aciertos = SumaPorBloques.sumar(pool, bloques, bloque -> {
+            int replica = bloque / trozos;
+            long n = porReplica + (replica < resto ? 1 : 0);
+            long desde = (bloque % trozos) * PUNTOS_POR_BLOQUE;
+            long hasta = Math.min(n, desde + PUNTOS_POR_BLOQUE);
+            double[] cuenta = new double[replicas];
+            if (desde < hasta) {
+                cuenta[replica] = contarAciertos(desde, hasta, desplazamientos[2 * replica],
+                        desplazamientos[2 * replica + 1]);
+            }
+            return cuenta;
+        });
+
+        double total = 0;
+        double[] estimaciones = new double[replicas];
+        for (int r = 0; r < replicas; r++) {
+            total += aciertos[r];
+            estimaciones[r] = 4 * aciertos[r] / (porReplica + (r < resto ? 1 : 0));
+        }
+        double media = 0;
+        for (double e : estimaciones) {
+            media += e / replicas;
+        }
+        double sumaCuadrados = 0;
+        for (double e : estimaciones) {
+            sumaCuadrados += (e - media) * (e - media);
+        }
+        double errorEstandar = Math.sqrt(sumaCuadrados / (replicas - 1) / replicas);
+        return new EstimacionPi(4 * total / muestras, errorEstandar, muestras, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Cuenta los aciertos de los puntos {@code [desde, hasta)} de la secuencia
+     * desplazada.
+     */
+    private static long contarAciertos(long desde, long hasta, long desplazamientoX, long desplazamientoY) {
+        // Punto 'desde': XOR de las direcciones de los bits de su código Gray
+        long gray = desde ^ (desde >>> 1);
+        long x = desplazamientoX;
+        long y = desplazamientoY;
+        for (int j = 0; gray != 0; j++, gray >>>= 1) {
+            if ((gray & 1) != 0) {
+                x ^= DIRECCIONES_X[j];
+                y ^= DIRECCIONES_Y[j];
+            }
+        }
+
+        long aciertos = 0;
+        for (long i = desde; i < hasta; i++) {
+            double px = (x >>> 11) * ESCALA;
+            double py = (y >>> 11) * ESCALA;
+            if (px * px + py * py <= 1) {
+                aciertos++;
+            }
+            int bit = Long.numberOfTrailingZeros(i + 1);
+            x ^= DIRECCIONES_X[bit];
+            y ^= DIRECCIONES_Y[bit];
+        }
+        return aciertos;
+    }
+}
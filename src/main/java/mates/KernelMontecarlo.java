@@ -0,0 +1,73 @@
+package mates;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Punto de acceso a los núcleos de cálculo del método de Montecarlo.
+ * <p>
+ * El núcleo vectorial ({@link KernelPiVectorial}) solo se usa si se pide
+ * expresamente y el módulo {@code jdk.incubator.vector} está cargado
+ * (la JVM se arrancó con {@code --add-modules jdk.incubator.vector}); en otro
+ * caso se recurre de forma transparente al bucle escalar.
+ */
+public final class KernelMontecarlo {
+
+    /**
+     * Nombre del módulo de la Vector API.
+     */
+    private static final String MODULO_VECTORIAL = "jdk.incubator.vector";
+
+    /**
+     * Indica si el módulo de la Vector API está presente en la capa de
+     * arranque de la JVM.
+     */
+    private static final boolean VECTORIAL_DISPONIBLE =
+            ModuleLayer.boot().findModule(MODULO_VECTORIAL).isPresent();
+
+    private KernelMontecarlo() {
+    }
+
+    /**
+     * @return {@code true} si el núcleo vectorial puede usarse en esta JVM.
+     */
+    public static boolean vectorialDisponible() {
+        return VECTORIAL_DISPONIBLE;
+    }
+
+    /**
+     * Cuenta cuántos de los {@code n} puntos aleatorios del cuadrante
+     * [0, 1) x [0, 1) caen dentro del círculo unitario.
+     *
+     * @param generador Generador de números aleatorios del bloque.
+     * @param n         Número de puntos.
+     * @param vectorial {@code true} para usar el núcleo vectorial si está disponible.
+     * @return Número de aciertos.
+     */
+    public static long contarAciertos(RandomGenerator generador, long n, boolean vectorial) {
+        if (vectorial && VECTORIAL_DISPONIBLE) {
+            return KernelPiVectorial.contarAciertos(generador, n);
+        }
+        return contarAciertosEscalar(generador, n);
+    }
+
+    /**
+     * Núcleo escalar: un punto por iteración. Se usa el cuadrante
+     * [0, 1) x [0, 1), que tiene la misma proporción de aciertos que el
+     * cuadrado [-1, 1] x [-1, 1].
+     *
+     * @param generador Generador de números aleatorios del bloque.
+     * @param n         Número de puntos.
+     * @return Número de aciertos.
+     */
+    static long contarAciertosEscalar(RandomGenerator generador, long n) {
+        long aciertos = 0;
+        for (long i = 0; i < n; i++) {
+            double x = generador.nextDouble();
+            double y = generador.nextDouble();
+            if (x * x + y * y <= 1) {
+                aciertos++;
+            }
+        }
+        return aciertos;
+    }
+}
@@ -0,0 +1,111 @@
+package mates;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Núcleo del método de Montecarlo sobre la Vector API de la JDK
+ * ({@code jdk.incubator.vector}).
+ * <p>
+ * Cada carril del vector lleva su propio generador xorshift64*, de modo que
+ * los números aleatorios se generan y se comprueban dentro de los registros
+ * vectoriales: en cada iteración se producen cuatro puntos, uno por carril,
+ * y los aciertos se suman carril a carril en un vector que solo se reduce
+ * al final.
+ * <p>
+ * La especie es fija, de 256 bits, y no la preferida de la máquina: el
+ * número de carriles decide cuántos generadores hay y qué puntos salen, así
+ * que con una especie que dependiera del procesador (4 carriles con AVX2, 8
+ * con AVX-512) la misma semilla daría resultados distintos en cada máquina.
+ * Con AVX2 o AVX-512 cada operación es una instrucción; en procesadores sin
+ * registros de 256 bits el resultado es el mismo, pero más lento.
+ * <p>
+ * Esta clase solo debe cargarse si el módulo está disponible; el acceso se
+ * hace siempre a través de {@link KernelMontecarlo}.
+ */
+final class KernelPiVectorial {
+
+    private static final VectorSpecies<Long> ESPECIE_LONG = LongVector.SPECIES_256;
+    private static final VectorSpecies<Double> ESPECIE_DOUBLE = DoubleVector.SPECIES_256;
+
+    /**
+     * Multiplicador de xorshift64*.
+     */
+    private static final long MULTIPLICADOR = 0x2545F4914F6CDD1DL;
+
+    /**
+     * 2^-53: convierte los 53 bits altos de un {@code long} en un
+     * {@code double} uniforme en [0, 1).
+     */
+    private static final double ESCALA = 0x1.0p-53;
+
+    private KernelPiVectorial() {
+    }
+
+    /**
+     * @return Número de puntos que se comprueban en cada iteración.
+     */
+    static int carriles() {
+        return ESPECIE_LONG.length();
+    }
+
+    /**
+     * Cuenta cuántos de los {@code n} puntos caen dentro del círculo unitario.
+     * Los estados de los carriles se siembran con {@code generador}; los
+     * puntos que no llenan un vector completo se generan con él directamente.
+     *
+     * @param generador Generador del que se toman las semillas de los carriles.
+     * @param n         Número de puntos.
+     * @return Número de aciertos.
+     */
+    static long contarAciertos(RandomGenerator generador, long n) {
+        int carriles = ESPECIE_LONG.length();
+        long[] semillasX = new long[carriles];
+        long[] semillasY = new long[carriles];
+        for (int i = 0; i < carriles; i++) {
+            // xorshift no admite un estado nulo
+            semillasX[i] = generador.nextLong() | 1L;
+            semillasY[i] = generador.nextLong() | 1L;
+        }
+        LongVector estadoX = LongVector.fromArray(ESPECIE_LONG, semillasX, 0);
+        LongVector estadoY = LongVector.fromArray(ESPECIE_LONG, semillasY, 0);
+        DoubleVector uno = DoubleVector.broadcast(ESPECIE_DOUBLE, 1.0);
+        LongVector acierto = LongVector.broadcast(ESPECIE_LONG, 1L);
+
+        // Aciertos de cada carril; se suman una sola vez, al terminar
+        LongVector aciertos = LongVector.zero(ESPECIE_LONG);
+        long iteraciones = n / carriles;
+        for (long i = 0; i < iteraciones; i++) {
+            estadoX = avanzar(estadoX);
+            estadoY = avanzar(estadoY);
+            DoubleVector x = aDouble(estadoX.mul(MULTIPLICADOR));
+            DoubleVector y = aDouble(estadoY.mul(MULTIPLICADOR));
+            VectorMask<Double> dentro = x.fma(x, y.mul(y)).compare(VectorOperators.LE, uno);
+            aciertos = aciertos.add(acierto, dentro.cast(ESPECIE_LONG));
+        }
+        return aciertos.reduceLanes(VectorOperators.ADD) + KernelMontecarlo.contarAciertosEscalar(generador, n - iteraciones * carriles);
+    }
+
+    /**
+     * Paso de xorshift64* (sin la multiplicación final) en todos los carriles.
+     */
+    private static LongVector avanzar(LongVector x) {
+        x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 12));
+        x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHL, 25));
+        return x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 27));
+    }
+
+    /**
+     * Convierte cada carril en un {@code double} uniforme en [0, 1).
+     */
+    private static DoubleVector aDouble(LongVector bits) {
+        return ((DoubleVector) bits.lanewise(VectorOperators.LSHR, 11)
+                .convert(VectorOperators.L2D, 0))
+                .mul(ESCALA);
+    }
+}
@@ -1,5 +1,9 @@
 package mates;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Locale;
+
             /**
              * Clase que proporciona métodos matemáticos de utilidad.
              * <p>
@@ -24,6 +28,8 @@ package mates;
                     if (pasos < 1) {
                         throw new IllegalArgumentException("El número de pasos debe ser mayor que 0.");
                     }
+                    boolean medida = MetricasPi.activas();
+                    long inicio = medida ? System.nanoTime() : 0;
 
                     long aciertos = 0;
                     double areaCuadrado = 4.0;
@@ -39,7 +45,98 @@ package mates;
                         }
                     }
 
+                    if (medida) {
+                        MetricasPi.registrar("original", pasos, System.nanoTime() - inicio);
+                    }
+
                     // Relación de aciertos respecto al total, multiplicada por el área del cuadrado (4)
                     return areaCuadrado * ((double) aciertos / pasos);
                 }
+
+                /**
+                 * Genera una aproximación al número PI mediante el método de Montecarlo,
+                 * repartiendo los puntos entre todos los núcleos disponibles.
+                 * <p>
+                 * Cada hilo usa su propio generador derivado de {@code semilla}, por lo que
+                 * no hay contención y la misma semilla produce siempre el mismo resultado.
+                 *
+                 * @param pasos   Cantidad de puntos a generar.
+                 * @param semilla Semilla para obtener resultados reproducibles.
+                 * @return Aproximación de PI junto con su error estándar y rendimiento.
+                 * @see EstimadorPiParalelo
+                 */
+                public static EstimacionPi generarNumeroPiParalelo(long pasos, long semilla) {
+                    return medir("paralelo", new EstimadorPiParalelo().estimar(pasos, semilla));
+                }
+
+                /**
+                 * Igual que {@link #generarNumeroPiParalelo(long, long)}, pero comprobando
+                 * varios puntos a la vez con instrucciones SIMD a través de la Vector API
+                 * ({@code jdk.incubator.vector}). Si la JVM no se arrancó con
+                 * {@code --add-modules jdk.incubator.vector}, se usa el cálculo escalar.
+                 * <p>
+                 * El núcleo vectorial usa siempre cuatro carriles, sea cual sea el ancho
+                 * de los registros del procesador, así que la misma semilla da el mismo
+                 * resultado en cualquier máquina con el módulo cargado. Sin él, el
+                 * resultado es el del cálculo escalar, distinto aunque igual de
+                 * reproducible.
+                 *
+                 * @param pasos   Cantidad de puntos a generar.
+                 * @param semilla Semilla para obtener resultados reproducibles.
+                 * @return Aproximación de PI junto con su error estándar y rendimiento.
+                 * @see KernelMontecarlo#vectorialDisponible()
+                 */
+                public static EstimacionPi generarNumeroPiVectorial(long pasos, long semilla) {
+                    EstimadorPiParalelo estimador = new EstimadorPiParalelo();
+                    estimador.setVectorial(true);
+                    return medir("vectorial", estimador.estimar(pasos, semilla));
+                }
+
+                /**
+                 * Genera una aproximación al número PI con el método indicado. Los métodos
+                 * distintos del uniforme reducen la varianza (variables antitéticas,
+                 * muestreo estratificado) o usan una secuencia de baja discrepancia (Sobol),
+                 * y alcanzan la misma precisión con muchos menos puntos.
+                 *
+                 * @param pasos   Cantidad de puntos a generar.
+                 * @param semilla Semilla para obtener resultados reproducibles.
+                 * @param metodo  Método de estimación.
+                 * @return Aproximación de PI junto con su error estándar y rendimiento.
+                 * @see ComparativaEstimadoresPi
+                 */
+                public static EstimacionPi generarNumeroPi(long pasos, long semilla, MetodoPi metodo) {
+                    return medir(metodo.name().toLowerCase(Locale.ROOT), metodo.crearEstimador().estimar(pasos, semilla));
+                }
+
+                /**
+                 * Publica en {@code registro} la duración, el número de puntos y el
+                 * rendimiento de cada estimación posterior, etiquetados por método
+                 * ({@code pi.estimacion}, {@code pi.muestras} y
+                 * {@code pi.muestras.por.segundo}). Con {@code null} se desactivan; es
+                 * el estado inicial, y entonces no se mide nada.
+                 *
+                 * @param registro Registro de métricas, o {@code null}.
+                 */
+                public static void registrarMetricas(MeterRegistry registro) {
+                    MetricasPi.activar(registro);
+                }
+
+                /**
+                 * Deja de publicar métricas en {@code registro}, si es el activo. Si
+                 * después se activó otro registro, no hace nada, así que quien cierra
+                 * su registro no desactiva el de otro.
+                 *
+                 * @param registro Registro que se retira.
+                 */
+                public static void retirarMetricas(MeterRegistry registro) {
+                    MetricasPi.desactivar(registro);
+                }
+
+                /**
+                 * Registra una estimación que ya trae su duración y la devuelve.
+                 */
+                private static EstimacionPi medir(String metodo, EstimacionPi estimacion) {
+                    MetricasPi.registrar(metodo, estimacion.getMuestras(), Math.round(estimacion.getSegundos() * 1e9));
+                    return estimacion;
+                }
             }
\ No newline at end of file
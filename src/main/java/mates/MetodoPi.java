@@ -0,0 +1,42 @@
+package mates;
+
+import java.util.function.Supplier;
+
+/**
+ * Métodos de estimación de PI disponibles.
+ */
+public enum MetodoPi {
+
+    /**
+     * Puntos aleatorios uniformes ({@link EstimadorPiParalelo}).
+     */
+    UNIFORME(EstimadorPiParalelo::new),
+
+    /**
+     * Puntos uniformes con su reflejo antitético ({@link EstimadorPiAntitetico}).
+     */
+    ANTITETICO(EstimadorPiAntitetico::new),
+
+    /**
+     * Muestreo estratificado en una rejilla ({@link EstimadorPiEstratificado}).
+     */
+    ESTRATIFICADO(EstimadorPiEstratificado::new),
+
+    /**
+     * Cuasi-Montecarlo con la secuencia de Sobol ({@link EstimadorPiSobol}).
+     */
+    SOBOL(EstimadorPiSobol::new);
+
+    private final Supplier<EstimadorPi> fabrica;
+
+    MetodoPi(Supplier<EstimadorPi> fabrica) {
+        this.fabrica = fabrica;
+    }
+
+    /**
+     * @return Nuevo estimador de este método que usa el pool común.
+     */
+    public EstimadorPi crearEstimador() {
+        return fabrica.get();
+    }
+}
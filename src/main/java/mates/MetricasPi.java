@@ -0,0 +1,82 @@
+package mates;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de las estimaciones de π, etiquetadas por método:
+ * <ul>
+ *   <li>{@code pi.estimacion}: temporizador de cada estimación completa.</li>
+ *   <li>{@code pi.muestras}: contador de puntos generados.</li>
+ *   <li>{@code pi.muestras.por.segundo}: rendimiento de cada estimación.</li>
+ * </ul>
+ * Solo se mide algo después de {@link Matematicas#registrarMetricas}; hasta
+ * entonces el coste para quien llama es leer un campo y compararlo con
+ * {@code null} una vez por estimación.
+ */
+final class MetricasPi {
+
+    /**
+     * Registro en el que se publican las métricas, o {@code null} si están
+     * desactivadas.
+     */
+    private static volatile MeterRegistry registro;
+
+    private MetricasPi() {
+    }
+
+    static synchronized void activar(MeterRegistry nuevo) {
+        registro = nuevo;
+    }
+
+    /**
+     * Desactiva las métricas si se están publicando en {@code actual}.
+     */
+    static synchronized void desactivar(MeterRegistry actual) {
+        if (registro == actual) {
+            registro = null;
+        }
+    }
+
+    /**
+     * @return {@code true} si hay que medir las estimaciones.
+     */
+    static boolean activas() {
+        return registro != null;
+    }
+
+    /**
+     * Registra una estimación terminada.
+     *
+     * @param metodo   Nombre del método de estimación.
+     * @param muestras Puntos generados.
+     * @param nanos    Duración de la estimación.
+     */
+    static void registrar(String metodo, long muestras, long nanos) {
+        MeterRegistry actual = registro;
+        if (actual == null) {
+            return;
+        }
+        Timer.builder("pi.estimacion")
+                .tag("metodo", metodo)
+                .description("Duración de una estimación de PI")
+                .register(actual)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("pi.muestras")
+                .tag("metodo", metodo)
+                .description("Puntos generados")
+                .register(actual)
+                .increment(muestras);
+        if (nanos > 0) {
+            DistributionSummary.builder("pi.muestras.por.segundo")
+                    .tag("metodo", metodo)
+                    .description("Puntos generados por segundo en cada estimación")
+                    .register(actual)
+                    .record(muestras * 1e9 / nanos);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package mates;
+
+/**
+ * Estado de una estimación incremental de PI tras un lote de muestras:
+ * la estimación acumulada, su intervalo de confianza y, en el último
+ * progreso, el motivo por el que se detuvo el cálculo.
+ */
+public final class ProgresoPi {
+
+    /**
+     * Motivo por el que terminó una estimación incremental.
+     */
+    public enum MotivoParada {
+        /** Se alcanzó el error objetivo con el nivel de confianza pedido. */
+        PRECISION_ALCANZADA,
+        /** Se agotó el presupuesto de tiempo. */
+        TIEMPO_AGOTADO,
+        /** Se generó el número máximo de muestras. */
+        MUESTRAS_AGOTADAS,
+        /** Se pidió detener el cálculo desde fuera. */
+        DETENIDO
+    }
+
+    /**
+     * Estimación acumulada hasta este lote.
+     */
+    private final EstimacionPi estimacion;
+
+    /**
+     * Nivel de confianza del intervalo.
+     */
+    private final double nivelConfianza;
+
+    /**
+     * Número de lotes calculados.
+     */
+    private final long lotes;
+
+    /**
+     * Motivo de parada, o {@code null} si el cálculo continúa.
+     */
+    private final MotivoParada motivoParada;
+
+    /**
+     * Crea un progreso.
+     *
+     * @param estimacion     Estimación acumulada.
+     * @param nivelConfianza Nivel de confianza del intervalo.
+     * @param lotes          Número de lotes calculados.
+     * @param motivoParada   Motivo de parada, o {@code null} si continúa.
+     */
+    public ProgresoPi(EstimacionPi estimacion, double nivelConfianza, long lotes, MotivoParada motivoParada) {
+        this.estimacion = estimacion;
+        this.nivelConfianza = nivelConfianza;
+        this.lotes = lotes;
+        this.motivoParada = motivoParada;
+    }
+
+    /**
+     * @return Estimación acumulada hasta este lote.
+     */
+    public EstimacionPi getEstimacion() {
+        return estimacion;
+    }
+
+    /**
+     * @return Semiamplitud del intervalo de confianza de la estimación.
+     */
+    public double getSemiamplitud() {
+        return estimacion.getSemiamplitud(nivelConfianza);
+    }
+
+    /**
+     * @return Nivel de confianza del intervalo.
+     */
+    public double getNivelConfianza() {
+        return nivelConfianza;
+    }
+
+    /**
+     * @return Número de lotes calculados.
+     */
+    public long getLotes() {
+        return lotes;
+    }
+
+    /**
+     * @return Motivo de parada, o {@code null} si el cálculo continúa.
+     */
+    public MotivoParada getMotivoParada() {
+        return motivoParada;
+    }
+
+    /**
+     * @return {@code true} si este es el último progreso del cálculo.
+     */
+    public boolean isTerminado() {
+        return motivoParada != null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PI ≈ %.10f ± %.2e (%.0f%%), %d muestras, %.3e muestras/s%s",
+                estimacion.getValor(), getSemiamplitud(), nivelConfianza * 100, estimacion.getMuestras(),
+                estimacion.getMuestrasPorSegundo(), isTerminado() ? " [" + motivoParada + "]" : "");
+    }
+}
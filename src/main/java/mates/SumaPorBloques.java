@@ -0,0 +1,55 @@
+package mates;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * Tarea que calcula los bloques {@code [desde, hasta)} en paralelo y suma
+ * componente a componente los vectores que devuelve cada uno, dividiéndose
+ * por la mitad hasta quedarse con un solo bloque.
+ * <p>
+ * La suma se hace siempre en el mismo orden (izquierda + derecha), así que
+ * el resultado no depende del número de hilos del pool.
+ */
+final class SumaPorBloques extends RecursiveTask<double[]> {
+
+    private final IntFunction<double[]> bloque;
+    private final int desde;
+    private final int hasta;
+
+    private SumaPorBloques(IntFunction<double[]> bloque, int desde, int hasta) {
+        this.bloque = bloque;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Calcula los bloques {@code 0 .. bloques - 1} en {@code pool}.
+     *
+     * @param pool    Pool en el que se reparten los bloques.
+     * @param bloques Número de bloques (al menos 1).
+     * @param bloque  Cálculo de un bloque a partir de su índice; todos
+     *                devuelven vectores de la misma longitud.
+     * @return Suma de los vectores de todos los bloques.
+     */
+    static double[] sumar(ForkJoinPool pool, int bloques, IntFunction<double[]> bloque) {
+        return pool.invoke(new SumaPorBloques(bloque, 0, bloques));
+    }
+
+    @Override
+    protected double[] compute() {
+        if (hasta - desde == 1) {
+            return bloque.apply(desde);
+        }
+        int mitad = (desde + hasta) >>> 1;
+        SumaPorBloques izquierda = new SumaPorBloques(bloque, desde, mitad);
+        izquierda.fork();
+        double[] derecha = new SumaPorBloques(bloque, mitad, hasta).compute();
+        double[] suma = izquierda.join();
+        for (int i = 0; i < suma.length; i++) {
+            suma[i] += derecha[i];
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,307 @@
+package practica3;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Versión de {@link Graph} segura para varios hilos: admite {@code addVertex}
+ * y {@code addEdge} concurrentes desde muchos productores mientras otros
+ * hilos consultan caminos.
+ * <p>
+ * La lista de adyacencia es un {@link ConcurrentHashMap} con un conjunto
+ * concurrente por vértice, así que las inserciones de distintos hilos no se
+ * bloquean entre sí. Como cada arista no dirigida son dos inserciones, cada
+ * par de vértices se protege con uno de {@value #STRIPES} cerrojos
+ * (elegido de forma simétrica, igual para (v1, v2) y (v2, v1)) para que una
+ * arista se añada una sola vez aunque dos hilos la inserten a la vez en
+ * sentidos opuestos.
+ * <p>
+ * Las consultas se hacen sobre una instantánea {@link CsrGraph} coherente.
+ * Cada mutación se anota además en un registro de solo adición, y las
+ * mutaciones comparten el cerrojo de lectura de un
+ * {@link ReentrantReadWriteLock}. Para una instantánea nueva basta tomar el
+ * de escritura un instante, para fijar cuántas entradas del registro están
+ * completas; el CSR se construye después, fuera del cerrojo, aplicando esas
+ * entradas a una copia privada de la lista de adyacencia, así que los
+ * productores no esperan a la reconstrucción (a cambio de guardar las
+ * aristas dos veces). La instantánea se guarda
+ * junto con la {@linkplain #version() versión} del grafo y solo se
+ * reconstruye cuando esta ha cambiado.
+ *
+ * @param <V> Tipo de los vértices.
+ */
+public class ConcurrentGraph<V> {
+
+    /**
+     * Número de cerrojos para las aristas.
+     */
+    static final int STRIPES = 64;
+
+    /**
+     * Lista de adyacencia concurrente.
+     */
+    private final Map<V, Set<V>> adjacencyList = new ConcurrentHashMap<>();
+
+    /**
+     * Cerrojos de los pares de vértices.
+     */
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Cerrojo de lectura para las mutaciones y de escritura para fijar el
+     * corte del registro de una instantánea.
+     */
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    /**
+     * Número de mutaciones aplicadas, que coincide con el de entradas
+     * añadidas al registro.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Mutaciones aún no aplicadas a {@link #snapshotAdjacency}, en orden. Se
+     * añaden con el cerrojo de lectura, así que todas las anteriores a un
+     * corte tomado con el de escritura están delante de las posteriores.
+     */
+    private final Queue<Mutation<V>> log = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Copia de la lista de adyacencia con las mutaciones hasta la última
+     * instantánea. Solo se usa con el monitor de {@link #log}, que
+     * serializa la construcción de instantáneas.
+     */
+    private final Map<V, List<V>> snapshotAdjacency = new HashMap<>();
+
+    /**
+     * Número de aristas.
+     */
+    private final AtomicLong edgeCount = new AtomicLong();
+
+    /**
+     * Última instantánea construida y la versión a la que corresponde. Al
+     * principio es la del grafo vacío, con versión 0.
+     */
+    private volatile Snapshot<V> snapshot = new Snapshot<>(0, CsrGraph.fromAdjacency(Map.of()));
+
+    private record Snapshot<V>(long version, CsrGraph<V> graph) {
+    }
+
+    /**
+     * Entrada del registro: un vértice nuevo ({@code adjacent} nulo) o una
+     * arista nueva.
+     */
+    private record Mutation<V>(V vertex, V adjacent) {
+    }
+
+    /**
+     * Crea un grafo vacío.
+     */
+    public ConcurrentGraph() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Añade el vértice {@code v} al grafo.
+     *
+     * @param v Vértice a añadir.
+     * @return {@code true} si el vértice se ha añadido (no existía),
+     *         {@code false} si ya existía.
+     */
+    public boolean addVertex(V v) {
+        if (adjacencyList.containsKey(v)) {
+            return false;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            return insertVertex(v);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Añade una arista entre {@code v1} y {@code v2}, y la inversa. En caso
+     * de que no exista alguno de los vértices, también se añade.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return {@code true} si la arista no existía y se ha añadido,
+     *         {@code false} si ya existía.
+     */
+    public boolean addEdge(V v1, V v2) {
+        Set<V> adjacents = adjacencyList.get(v1);
+        if (adjacents != null && adjacents.contains(v2)) {
+            return false;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            insertVertex(v1);
+            insertVertex(v2);
+            synchronized (stripes[(v1.hashCode() ^ v2.hashCode()) & (STRIPES - 1)]) {
+                if (!adjacencyList.get(v1).add(v2)) {
+                    return false;
+                }
+                adjacencyList.get(v2).add(v1);
+            }
+            log.add(new Mutation<>(v1, v2));
+            edgeCount.incrementAndGet();
+            version.incrementAndGet();
+            return true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el conjunto de vértices adyacentes a {@code v}. La vista es de
+     * solo lectura y refleja las inserciones posteriores.
+     *
+     * @param v Vértice del que se obtienen los adyacentes.
+     * @return Conjunto de vértices adyacentes a {@code v}.
+     * @throws Exception Si el vértice {@code v} no existe en el grafo.
+     */
+    public Set<V> obtainAdjacents(V v) throws Exception {
+        Set<V> adjacents = adjacencyList.get(v);
+        if (adjacents == null) {
+            throw new Exception("El vértice " + v + " no existe en el grafo.");
+        }
+        return Collections.unmodifiableSet(adjacents);
+    }
+
+    /**
+     * Comprueba si el grafo contiene el vértice dado.
+     *
+     * @param v Vértice para la comprobación.
+     * @return {@code true} si el vértice existe en el grafo,
+     *         {@code false} en caso contrario.
+     */
+    public boolean containsVertex(V v) {
+        return adjacencyList.containsKey(v);
+    }
+
+    /**
+     * @return Número de vértices.
+     */
+    public int vertexCount() {
+        return adjacencyList.size();
+    }
+
+    /**
+     * @return Número de aristas (cada arista no dirigida cuenta una vez).
+     */
+    public long edgeCount() {
+        return edgeCount.get();
+    }
+
+    /**
+     * Versión del grafo: aumenta con cada vértice o arista añadidos, así que
+     * dos lecturas con la misma versión ven el mismo grafo.
+     *
+     * @return Número de mutaciones aplicadas.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Devuelve una instantánea coherente del grafo, que no refleja los
+     * cambios posteriores. Mientras no haya mutaciones se devuelve siempre
+     * la misma; tras una mutación, la siguiente llamada espera a que
+     * terminen las inserciones en curso, fija el corte y construye una
+     * nueva sin bloquear a los productores.
+     *
+     * @return Instantánea del grafo en formato CSR.
+     */
+    public CsrGraph<V> snapshot() {
+        Snapshot<V> current = snapshot;
+        if (current.version() == version.get()) {
+            return current.graph();
+        }
+        synchronized (log) {
+            current = snapshot;
+            long applied = current.version();
+            long stable;
+            snapshotLock.writeLock().lock();
+            try {
+                // Con el cerrojo de escritura no hay mutaciones en curso
+                stable = version.get();
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            if (stable == applied) {
+                return current.graph();
+            }
+            for (long i = applied; i < stable; i++) {
+                apply(log.remove());
+            }
+            current = new Snapshot<>(stable, CsrGraph.fromAdjacency(snapshotAdjacency));
+            snapshot = current;
+            return current.graph();
+        }
+    }
+
+    /**
+     * Obtiene, en caso de existir, un camino entre {@code v1} y {@code v2}
+     * sobre la {@linkplain #snapshot() instantánea} actual.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Lista de vértices que representan un camino desde {@code v1}
+     *         hasta {@code v2}, o {@code null} si no existe camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        return snapshot().onePath(v1, v2);
+    }
+
+    /**
+     * Devuelve la representación de la instantánea actual en formato de
+     * lista de adyacencia.
+     *
+     * @return Cadena con la representación del grafo.
+     */
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Añade el vértice si no existe. Debe llamarse con el cerrojo de lectura.
+     */
+    private boolean insertVertex(V v) {
+        if (adjacencyList.containsKey(v) || adjacencyList.putIfAbsent(v, ConcurrentHashMap.newKeySet()) != null) {
+            return false;
+        }
+        log.add(new Mutation<>(v, null));
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Aplica una entrada del registro a {@link #snapshotAdjacency}. Cada
+     * arista aparece una sola vez en el registro, aunque quizá antes que el
+     * alta de sus vértices si la hizo otro hilo.
+     */
+    private void apply(Mutation<V> mutation) {
+        List<V> adjacents = snapshotAdjacency.computeIfAbsent(mutation.vertex(), k -> new ArrayList<>());
+        V adjacent = mutation.adjacent();
+        if (adjacent == null) {
+            return;
+        }
+        adjacents.add(adjacent);
+        if (!adjacent.equals(mutation.vertex())) {
+            snapshotAdjacency.computeIfAbsent(adjacent, k -> new ArrayList<>()).add(mutation.vertex());
+        }
+    }
+}
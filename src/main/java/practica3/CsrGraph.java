@@ -0,0 +1,407 @@
+package practica3;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Instantánea inmutable de un grafo en formato CSR (<i>compressed sparse
+ * row</i>).
+ * <p>
+ * Los vértices se numeran con identificadores {@code 0 .. idBound() - 1} y
+ * los adyacentes de todos ellos se guardan seguidos en un único
+ * {@code int[] targets}: los del vértice {@code id} ocupan las posiciones
+ * {@code [offsets[id], offsets[id + 1])}. Recorrer el grafo es, por tanto,
+ * recorrer dos arrays contiguos, sin objetos por arista.
+ * <p>
+ * Cuando se construye desde un {@link Graph} con vértices de cualquier tipo,
+ * un diccionario traduce entre los vértices y sus identificadores; cuando se
+ * construye desde un {@link IntGraph}, el identificador es el propio vértice.
+ *
+ * @param <V> Tipo de los vértices.
+ */
+public final class CsrGraph<V> {
+
+    /**
+     * Inicio de los adyacentes de cada identificador; tiene {@code idBound + 1}
+     * posiciones.
+     */
+    private final int[] offsets;
+
+    /**
+     * Adyacentes de todos los vértices, seguidos.
+     */
+    private final int[] targets;
+
+    /**
+     * Vértice de cada identificador, o {@code null} si el identificador es
+     * el propio vértice.
+     */
+    private final Object[] vertices;
+
+    /**
+     * Identificador de cada vértice, o {@code null} si el identificador es
+     * el propio vértice.
+     */
+    private final Map<V, Integer> ids;
+
+    /**
+     * Identificadores que corresponden a un vértice, o {@code null} si lo
+     * son todos.
+     */
+    private final boolean[] present;
+
+    /**
+     * Peso de cada arista, en paralelo con {@code targets}, o {@code null}
+     * si todas pesan 1.
+     */
+    private final double[] weights;
+
+    private final int vertexCount;
+    private final long edgeCount;
+
+    private CsrGraph(int[] offsets, int[] targets, double[] weights, Object[] vertices, Map<V, Integer> ids,
+                     boolean[] present, int vertexCount, long edgeCount) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.vertices = vertices;
+        this.ids = ids;
+        this.present = present;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Crea un CSR con diccionario de vértices.
+     *
+     * @param offsets   Inicio de los adyacentes de cada identificador.
+     * @param targets   Adyacentes de todos los vértices.
+     * @param vertices  Vértice de cada identificador.
+     * @param ids       Identificador de cada vértice.
+     * @param edgeCount Número de aristas no dirigidas.
+     */
+    static <V> CsrGraph<V> withDictionary(int[] offsets, int[] targets, Object[] vertices, Map<V, Integer> ids,
+                                          long edgeCount) {
+        return new CsrGraph<>(offsets, targets, null, vertices, ids, null, vertices.length, edgeCount);
+    }
+
+    /**
+     * Crea un CSR con diccionario a partir de una lista de adyacencia no
+     * dirigida, numerando los vértices en el orden en que se recorren.
+     *
+     * @param adjacency Adyacentes de cada vértice.
+     */
+    static <V> CsrGraph<V> fromAdjacency(Map<V, ? extends Collection<V>> adjacency) {
+        Object[] vertices = adjacency.keySet().toArray();
+        Map<V, Integer> ids = new HashMap<>(vertices.length * 4 / 3 + 1);
+        for (int id = 0; id < vertices.length; id++) {
+            @SuppressWarnings("unchecked")
+            V v = (V) vertices[id];
+            ids.put(v, id);
+        }
+
+        int[] offsets = new int[vertices.length + 1];
+        long selfLoops = 0;
+        for (int id = 0; id < vertices.length; id++) {
+            Collection<V> adjacents = adjacency.get(vertices[id]);
+            offsets[id + 1] = Math.addExact(offsets[id], adjacents.size());
+            if (adjacents.contains(vertices[id])) {
+                selfLoops++;
+            }
+        }
+        int[] targets = new int[offsets[vertices.length]];
+        for (int id = 0; id < vertices.length; id++) {
+            int i = offsets[id];
+            for (V adj : adjacency.get(vertices[id])) {
+                targets[i++] = ids.get(adj);
+            }
+        }
+        return withDictionary(offsets, targets, vertices, ids, (targets.length + selfLoops) / 2);
+    }
+
+    /**
+     * Crea un CSR en el que el identificador es el propio vértice.
+     *
+     * @param offsets   Inicio de los adyacentes de cada identificador.
+     * @param targets   Adyacentes de todos los vértices.
+     * @param present   Identificadores que corresponden a un vértice.
+     * @param edgeCount Número de aristas no dirigidas.
+     */
+    static CsrGraph<Integer> identity(int[] offsets, int[] targets, boolean[] present, long edgeCount) {
+        int count = 0;
+        for (boolean p : present) {
+            if (p) {
+                count++;
+            }
+        }
+        return new CsrGraph<>(offsets, targets, null, null, null, present, count, edgeCount);
+    }
+
+    /**
+     * Devuelve una copia de este grafo con un peso en cada arista, para las
+     * búsquedas ponderadas de {@link PathFinder}. Los arrays de adyacencia
+     * se comparten con este grafo.
+     *
+     * @param weight Peso de la arista entre dos identificadores; se evalúa
+     *               una vez por sentido de cada arista.
+     * @return Grafo ponderado.
+     * @throws IllegalArgumentException Si algún peso es negativo o no es un número.
+     */
+    public CsrGraph<V> withWeights(EdgeWeight weight) {
+        double[] w = new double[targets.length];
+        for (int id = 0; id < idBound(); id++) {
+            for (int i = offsets[id], end = offsets[id + 1]; i < end; i++) {
+                w[i] = weight.weight(id, targets[i]);
+                if (!(w[i] >= 0)) {
+                    throw new IllegalArgumentException("El peso de la arista " + vertexOf(id) + " -> "
+                            + vertexOf(targets[i]) + " debe ser un número no negativo.");
+                }
+            }
+        }
+        return new CsrGraph<>(offsets, targets, w, vertices, ids, present, vertexCount, edgeCount);
+    }
+
+    /**
+     * @return {@code true} si las aristas tienen pesos propios.
+     */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * @return Número de vértices.
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return Número de aristas (cada arista no dirigida cuenta una vez).
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return Mayor identificador más uno; los arrays indexados por
+     *         identificador deben tener este tamaño.
+     */
+    public int idBound() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Obtiene el identificador de un vértice.
+     *
+     * @param v Vértice.
+     * @return Identificador de {@code v}, o -1 si no existe.
+     */
+    public int idOf(V v) {
+        if (ids != null) {
+            Integer id = ids.get(v);
+            return (id == null) ? -1 : id;
+        }
+        int id = (v instanceof Integer) ? (Integer) v : -1;
+        return containsId(id) ? id : -1;
+    }
+
+    /**
+     * Obtiene el vértice de un identificador.
+     *
+     * @param id Identificador.
+     * @return Vértice correspondiente.
+     * @throws IndexOutOfBoundsException Si el identificador no es válido.
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexOf(int id) {
+        if (!containsId(id)) {
+            throw new IndexOutOfBoundsException("El identificador " + id + " no corresponde a ningún vértice.");
+        }
+        return (vertices != null) ? (V) vertices[id] : (V) Integer.valueOf(id);
+    }
+
+    /**
+     * Comprueba si el grafo contiene el vértice dado.
+     *
+     * @param v Vértice para la comprobación.
+     * @return {@code true} si el vértice existe en el grafo.
+     */
+    public boolean containsVertex(V v) {
+        return idOf(v) >= 0;
+    }
+
+    /**
+     * Comprueba si un identificador corresponde a un vértice.
+     *
+     * @param id Identificador.
+     * @return {@code true} si corresponde a un vértice.
+     */
+    public boolean containsId(int id) {
+        return id >= 0 && id < offsets.length - 1 && (present == null || present[id]);
+    }
+
+    /**
+     * @param id Identificador de un vértice.
+     * @return Número de adyacentes del vértice.
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Recorre los identificadores de los adyacentes de {@code id}.
+     *
+     * @param id     Identificador de un vértice.
+     * @param action Acción a aplicar a cada adyacente.
+     */
+    public void forEachAdjacent(int id, IntConsumer action) {
+        for (int i = offsets[id], end = offsets[id + 1]; i < end; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+    /**
+     * Obtiene el conjunto de vértices adyacentes a {@code v}.
+     *
+     * @param v Vértice del que se obtienen los adyacentes.
+     * @return Conjunto de vértices adyacentes a {@code v}.
+     * @throws Exception Si el vértice {@code v} no existe en el grafo.
+     */
+    public Set<V> obtainAdjacents(V v) throws Exception {
+        int id = idOf(v);
+        if (id < 0) {
+            throw new Exception("El vértice " + v + " no existe en el grafo.");
+        }
+        Set<V> adjacents = new LinkedHashSet<>();
+        for (int i = offsets[id], end = offsets[id + 1]; i < end; i++) {
+            adjacents.add(vertexOf(targets[i]));
+        }
+        return adjacents;
+    }
+
+    /**
+     * Array de inicios de los adyacentes, para los recorridos del paquete.
+     * No debe modificarse.
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * Array de adyacentes, para los recorridos del paquete. No debe
+     * modificarse.
+     */
+    int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Array de pesos en paralelo con {@link #targets()}, o {@code null} si
+     * todas las aristas pesan 1. No debe modificarse.
+     */
+    double[] weights() {
+        return weights;
+    }
+
+    /**
+     * Obtiene, en caso de existir, un camino entre {@code v1} y {@code v2}
+     * con el mismo recorrido en profundidad que {@link Graph#onePath}.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Lista de vértices de un camino desde {@code v1} hasta
+     *         {@code v2}, o {@code null} si no existe camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        int[] path = onePathById(idOf(v1), idOf(v2));
+        if (path == null) {
+            return null;
+        }
+        List<V> result = new ArrayList<>(path.length);
+        for (int id : path) {
+            result.add(vertexOf(id));
+        }
+        return result;
+    }
+
+    /**
+     * Igual que {@link #onePath(Object, Object)}, pero con identificadores.
+     * Tiene otro nombre para que, en un {@code CsrGraph<Integer>}, una
+     * llamada con vértices {@code int} no elija esta versión por error.
+     *
+     * @param from Identificador del vértice origen.
+     * @param to   Identificador del vértice destino.
+     * @return Identificadores de un camino desde {@code from} hasta
+     *         {@code to}, o {@code null} si no existe camino.
+     */
+    public int[] onePathById(int from, int to) {
+        if (!containsId(from) || !containsId(to)) {
+            return null;
+        }
+        // parent[v] = identificador desde el que se llegó a v, más uno (0 = no visitado)
+        int[] parent = new int[idBound()];
+        int[] stack = new int[vertexCount];
+        int top = 0;
+        stack[top++] = from;
+        parent[from] = from + 1;
+
+        while (top > 0) {
+            int current = stack[--top];
+            if (current == to) {
+                return buildPath(parent, from, to);
+            }
+            for (int i = offsets[current], end = offsets[current + 1]; i < end; i++) {
+                int adj = targets[i];
+                if (parent[adj] == 0) {
+                    parent[adj] = current + 1;
+                    stack[top++] = adj;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reconstruye el camino desde {@code from} hasta {@code to} a partir del
+     * array de padres (cada posición guarda el padre más uno).
+     */
+    static int[] buildPath(int[] parent, int from, int to) {
+        int length = 1;
+        for (int step = to; step != from; step = parent[step] - 1) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int step = to, i = length - 1; i >= 0; step = parent[step] - 1, i--) {
+            path[i] = step;
+        }
+        return path;
+    }
+
+    /**
+     * Devuelve la representación del grafo en formato de lista de adyacencia,
+     * donde cada línea muestra un vértice y sus adyacentes.
+     *
+     * @return Cadena con la representación del grafo.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int id = 0; id < idBound(); id++) {
+            if (!containsId(id)) {
+                continue;
+            }
+            sb.append(vertexOf(id)).append(" -> [");
+            for (int i = offsets[id], end = offsets[id + 1]; i < end; i++) {
+                sb.append(i > offsets[id] ? ", " : "").append(vertexOf(targets[i]));
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+}
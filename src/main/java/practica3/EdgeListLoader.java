@@ -0,0 +1,548 @@
+package practica3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Carga masiva de grafos de enteros desde ficheros de aristas.
+ * <p>
+ * Admite dos formatos:
+ * <ul>
+ *   <li><b>Texto</b>: una arista por línea, como dos enteros no negativos
+ *   separados por espacios o tabuladores ({@code "3 17"}). Lo que siga al
+ *   segundo número (por ejemplo un peso) se ignora, una línea con un solo
+ *   número añade un vértice aislado y las líneas que empiezan por
+ *   {@code '#'} o {@code '%'} son comentarios. El fichero se divide en
+ *   trozos que empiezan al principio de una línea; cada trozo se proyecta en
+ *   memoria y se analiza en paralelo byte a byte, sin crear una cadena por
+ *   línea.</li>
+ *   <li><b>Binario</b>: la representación {@link CsrGraph} tal cual
+ *   (cabecera, mapa de bits de vértices, {@code offsets} y {@code targets}
+ *   en little-endian), de modo que cargarlo es copiar los arrays desde la
+ *   proyección en memoria, sin analizar ni ordenar nada. Sirve para
+ *   reiniciar rápido tras haber cargado el texto una vez.</li>
+ * </ul>
+ * En ambos casos el resultado es un {@link CsrGraph} cuyo identificador es
+ * el propio vértice, que se construye de una vez (contando grados,
+ * reservando los arrays exactos y ordenando y quitando repetidos de cada
+ * lista de adyacentes). {@link Graph#fromCsr} lo convierte en un
+ * {@link Graph} con colecciones ya dimensionadas.
+ */
+public final class EdgeListLoader {
+
+    /**
+     * Número mágico del formato binario ("GRAF" en ASCII).
+     */
+    private static final int MAGIC = 0x47524146;
+
+    /**
+     * Versión del formato binario.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Tamaño de la cabecera binaria: mágico, versión, límite de
+     * identificadores y reservado (4 bytes cada uno), número de adyacentes
+     * y número de aristas (8 bytes cada uno).
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * Tamaño máximo, en bytes, de cada bloque proyectado en memoria.
+     */
+    private static final long BLOCK_SIZE = 1L << 30;
+
+    /**
+     * Tamaño mínimo y máximo de los trozos de texto que se analizan en
+     * paralelo.
+     */
+    private static final long MIN_CHUNK = 1L << 20;
+    private static final long MAX_CHUNK = 1L << 26;
+
+    private EdgeListLoader() {
+    }
+
+    // ------------------------------------------------------------------
+    // Formato de texto
+    // ------------------------------------------------------------------
+
+    /**
+     * Carga un fichero de aristas en formato texto, analizándolo en el pool
+     * común.
+     *
+     * @param path Fichero de origen.
+     * @return Grafo no dirigido sin aristas repetidas.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     */
+    public static CsrGraph<Integer> loadText(Path path) throws IOException {
+        return loadText(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Carga un fichero de aristas en formato texto.
+     *
+     * @param path Fichero de origen.
+     * @param pool Pool en el que se analizan los trozos.
+     * @return Grafo no dirigido sin aristas repetidas.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     */
+    public static CsrGraph<Integer> loadText(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long chunk = channel.size() / (4L * Math.max(1, pool.getParallelism())) + 1;
+            return loadText(channel, pool, Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, chunk)));
+        }
+    }
+
+    /**
+     * Carga un fichero de aristas en formato texto dividiéndolo en trozos de
+     * unos {@code chunkSize} bytes (cada uno se alarga hasta el final de la
+     * línea en la que acaba). El resultado no depende del tamaño de trozo.
+     *
+     * @param path      Fichero de origen.
+     * @param pool      Pool en el que se analizan los trozos.
+     * @param chunkSize Tamaño aproximado de cada trozo, en bytes; los
+     *                  mayores de 64 MiB se reducen a ese tamaño.
+     * @return Grafo no dirigido sin aristas repetidas.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     * @throws IllegalArgumentException Si {@code chunkSize} no es positivo.
+     */
+    public static CsrGraph<Integer> loadText(Path path, ForkJoinPool pool, long chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("El tamaño de trozo debe ser positivo: " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return loadText(channel, pool, Math.min(MAX_CHUNK, chunkSize));
+        }
+    }
+
+    /**
+     * Analiza en {@code pool} los trozos de unos {@code chunk} bytes del
+     * fichero y construye el CSR.
+     */
+    private static CsrGraph<Integer> loadText(FileChannel channel, ForkJoinPool pool, long chunk) throws IOException {
+        long[] bounds = chunkBounds(channel, chunk);
+        int chunks = bounds.length - 1;
+        int[][] pairs = new int[chunks][];
+        int[] counts = new int[chunks];
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(i -> {
+                try {
+                    ParsedChunk parsed = parseChunk(channel, bounds[i], bounds[i + 1]);
+                    pairs[i] = parsed.pairs;
+                    counts[i] = parsed.count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return build(pairs, counts);
+    }
+
+    /**
+     * Divide el fichero en trozos de unos {@code chunk} bytes que empiezan
+     * al principio de una línea.
+     *
+     * @return Posiciones de inicio de cada trozo, seguidas del tamaño del fichero.
+     */
+    private static long[] chunkBounds(FileChannel channel, long chunk) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(256);
+        long position = chunk;
+        while (position < size) {
+            // Avanzamos hasta el siguiente salto de línea
+            long start = -1;
+            long cursor = position;
+            while (start < 0 && cursor < size) {
+                window.clear();
+                int read = channel.read(window, cursor);
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') {
+                        start = cursor + i + 1;
+                        break;
+                    }
+                }
+                cursor += Math.max(read, 1);
+            }
+            if (start < 0 || start >= size) {
+                break;
+            }
+            bounds.add(start);
+            position = start + chunk;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Aristas de un trozo: pares (origen, destino) seguidos; un destino -1
+     * indica un vértice aislado.
+     */
+    private record ParsedChunk(int[] pairs, int count) {
+    }
+
+    /**
+     * Analiza los bytes {@code [start, end)} del fichero.
+     */
+    private static ParsedChunk parseChunk(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int length = buffer.limit();
+        int[] pairs = new int[Math.min(1 << 20, Math.max(16, length / 4))];
+        int count = 0;
+
+        int i = 0;
+        while (i < length) {
+            // Inicio de línea: saltamos espacios
+            byte b = buffer.get(i);
+            while ((b == ' ' || b == '\t' || b == '\r') && ++i < length) {
+                b = buffer.get(i);
+            }
+            if (i >= length) {
+                break;
+            }
+            if (b == '\n' || b == '#' || b == '%') {
+                i = skipLine(buffer, i, length);
+                continue;
+            }
+
+            int[] numbers = {-1, -1};
+            for (int n = 0; n < 2 && i < length; n++) {
+                b = buffer.get(i);
+                while ((b == ' ' || b == '\t') && ++i < length) {
+                    b = buffer.get(i);
+                }
+                if (i >= length || b == '\n' || b == '\r') {
+                    break;
+                }
+                if (b < '0' || b > '9') {
+                    throw new IOException("Carácter no válido '" + (char) b + "' en la posición " + (start + i) + ".");
+                }
+                long value = 0;
+                while (i < length && (b = buffer.get(i)) >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > Integer.MAX_VALUE - 1) {
+                        throw new IOException("Vértice demasiado grande en la posición " + (start + i) + ".");
+                    }
+                    i++;
+                }
+                numbers[n] = (int) value;
+            }
+            if (count + 2 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[count++] = numbers[0];
+            pairs[count++] = numbers[1];
+            i = skipLine(buffer, i, length);
+        }
+        return new ParsedChunk(pairs, count);
+    }
+
+    /**
+     * @return Posición siguiente al próximo salto de línea (o el final).
+     */
+    private static int skipLine(MappedByteBuffer buffer, int i, int length) {
+        while (i < length && buffer.get(i) != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    /**
+     * Construye el CSR a partir de las aristas de todos los trozos.
+     */
+    private static CsrGraph<Integer> build(int[][] pairs, int[] counts) {
+        int idBound = 0;
+        for (int c = 0; c < pairs.length; c++) {
+            for (int i = 0; i < counts[c]; i++) {
+                idBound = Math.max(idBound, pairs[c][i] + 1);
+            }
+        }
+
+        // Grados (con repetidos) y vértices presentes
+        boolean[] present = new boolean[idBound];
+        int[] offsets = new int[idBound + 1];
+        for (int c = 0; c < pairs.length; c++) {
+            int[] p = pairs[c];
+            for (int i = 0; i < counts[c]; i += 2) {
+                int u = p[i];
+                int v = p[i + 1];
+                present[u] = true;
+                if (v >= 0) {
+                    present[v] = true;
+                    offsets[u + 1]++;
+                    if (u != v) {
+                        offsets[v + 1]++;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < idBound; v++) {
+            offsets[v + 1] = Math.addExact(offsets[v + 1], offsets[v]);
+        }
+
+        int[] targets = new int[offsets[idBound]];
+        int[] cursor = Arrays.copyOf(offsets, idBound);
+        for (int c = 0; c < pairs.length; c++) {
+            int[] p = pairs[c];
+            for (int i = 0; i < counts[c]; i += 2) {
+                int u = p[i];
+                int v = p[i + 1];
+                if (v >= 0) {
+                    targets[cursor[u]++] = v;
+                    if (u != v) {
+                        targets[cursor[v]++] = u;
+                    }
+                }
+            }
+            pairs[c] = null;
+        }
+
+        // Ordenamos y quitamos repetidos de cada lista en paralelo...
+        int[] unique = new int[idBound];
+        IntStream.range(0, idBound).parallel().forEach(v -> {
+            int from = offsets[v];
+            int to = offsets[v + 1];
+            Arrays.sort(targets, from, to);
+            int w = from;
+            for (int i = from; i < to; i++) {
+                if (w == from || targets[w - 1] != targets[i]) {
+                    targets[w++] = targets[i];
+                }
+            }
+            unique[v] = w - from;
+        });
+
+        // ...y las compactamos
+        int write = 0;
+        long selfLoops = 0;
+        for (int v = 0; v < idBound; v++) {
+            int from = offsets[v];
+            offsets[v] = write;
+            for (int i = from, end = from + unique[v]; i < end; i++) {
+                if (targets[i] == v) {
+                    selfLoops++;
+                }
+                targets[write++] = targets[i];
+            }
+        }
+        offsets[idBound] = write;
+        int[] compact = (write == targets.length) ? targets : Arrays.copyOf(targets, write);
+        return CsrGraph.identity(offsets, compact, present, (write + selfLoops) / 2);
+    }
+
+    // ------------------------------------------------------------------
+    // Formato binario
+    // ------------------------------------------------------------------
+
+    /**
+     * Guarda el grafo en formato binario. Los vértices deben ser enteros no
+     * negativos; si el grafo viene de {@link Graph#toCsr}, sus
+     * identificadores se traducen a los propios vértices.
+     *
+     * @param graph Grafo a guardar.
+     * @param path  Fichero de destino (se sobrescribe si existe).
+     * @throws IOException Si ocurre un error al escribir el fichero.
+     * @throws IllegalArgumentException Si algún vértice es negativo.
+     */
+    public static void saveBinary(CsrGraph<Integer> graph, Path path) throws IOException {
+        CsrGraph<Integer> identity = toIdentity(graph);
+        int idBound = identity.idBound();
+        int[] presentBits = new int[(idBound + 31) >>> 5];
+        for (int v = 0; v < idBound; v++) {
+            if (identity.containsId(v)) {
+                presentBits[v >>> 5] |= 1 << v;
+            }
+        }
+        int[] offsets = identity.offsets();
+        int[] targets = identity.targets();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(idBound)
+                    .putInt(0)
+                    .putLong(targets.length)
+                    .putLong(identity.edgeCount());
+
+            long position = HEADER_SIZE;
+            position = writeInts(channel, position, presentBits);
+            position = writeInts(channel, position, offsets);
+            writeInts(channel, position, targets);
+        }
+    }
+
+    /**
+     * Lee un grafo guardado con {@link #saveBinary}.
+     *
+     * @param path Fichero de origen.
+     * @return Grafo guardado.
+     * @throws IOException Si ocurre un error al leer el fichero o su formato
+     *                     no es válido.
+     */
+    public static CsrGraph<Integer> loadBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("El fichero " + path + " no tiene cabecera de grafo.");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("El fichero " + path + " no es un grafo binario válido.");
+            }
+            int idBound = header.getInt();
+            header.getInt();
+            long targetCount = header.getLong();
+            long edgeCount = header.getLong();
+            if (idBound < 0 || idBound > Integer.MAX_VALUE - 8 || targetCount < 0
+                    || targetCount > Integer.MAX_VALUE - 8 || edgeCount < 0 || edgeCount > targetCount) {
+                throw new IOException("El fichero " + path + " tiene una cabecera no válida.");
+            }
+            // Comprobamos el tamaño antes de reservar nada con los valores de la cabecera
+            long size = HEADER_SIZE + 4L * (((idBound + 31L) >>> 5) + idBound + 1L + targetCount);
+            if (channel.size() < size) {
+                throw new IOException("El fichero " + path + " está truncado.");
+            }
+
+            int[] presentBits = new int[(idBound + 31) >>> 5];
+            int[] offsets = new int[idBound + 1];
+            int[] targets = new int[(int) targetCount];
+            long position = HEADER_SIZE;
+            position = readInts(channel, position, presentBits);
+            position = readInts(channel, position, offsets);
+            readInts(channel, position, targets);
+
+            if (offsets[0] != 0 || offsets[idBound] != targetCount) {
+                throw new IOException("El fichero " + path + " tiene offsets no válidos.");
+            }
+            for (int v = 0; v < idBound; v++) {
+                if (offsets[v] > offsets[v + 1]) {
+                    throw new IOException("El fichero " + path + " tiene offsets no válidos.");
+                }
+            }
+            for (int target : targets) {
+                if (target < 0 || target >= idBound) {
+                    throw new IOException("El fichero " + path + " tiene un adyacente fuera de rango: " + target + ".");
+                }
+            }
+
+            boolean[] present = new boolean[idBound];
+            for (int v = 0; v < idBound; v++) {
+                present[v] = (presentBits[v >>> 5] & (1 << v)) != 0;
+            }
+            return CsrGraph.identity(offsets, targets, present, edgeCount);
+        }
+    }
+
+    /**
+     * Devuelve un CSR equivalente cuyo identificador es el propio vértice.
+     */
+    private static CsrGraph<Integer> toIdentity(CsrGraph<Integer> graph) {
+        boolean identity = true;
+        int idBound = 0;
+        for (int id = 0; id < graph.idBound(); id++) {
+            if (graph.containsId(id)) {
+                int v = graph.vertexOf(id);
+                if (v < 0) {
+                    throw new IllegalArgumentException("El vértice " + v + " no puede ser negativo.");
+                }
+                identity &= v == id;
+                idBound = Math.max(idBound, v + 1);
+            }
+        }
+        if (identity) {
+            return graph;
+        }
+
+        int[] idOfVertex = new int[idBound];
+        boolean[] present = new boolean[idBound];
+        int[] offsets = new int[idBound + 1];
+        for (int id = 0; id < graph.idBound(); id++) {
+            if (graph.containsId(id)) {
+                int v = graph.vertexOf(id);
+                idOfVertex[v] = id;
+                present[v] = true;
+                offsets[v + 1] = graph.degree(id);
+            }
+        }
+        for (int v = 0; v < idBound; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] source = graph.targets();
+        int[] sourceOffsets = graph.offsets();
+        int[] targets = new int[source.length];
+        for (int v = 0; v < idBound; v++) {
+            if (present[v]) {
+                int id = idOfVertex[v];
+                int w = offsets[v];
+                for (int i = sourceOffsets[id], end = sourceOffsets[id + 1]; i < end; i++) {
+                    targets[w++] = graph.vertexOf(source[i]);
+                }
+                Arrays.sort(targets, offsets[v], w);
+            }
+        }
+        return CsrGraph.identity(offsets, targets, present, graph.edgeCount());
+    }
+
+    /**
+     * Escribe {@code data} a partir de {@code position}, por bloques
+     * proyectados en memoria.
+     *
+     * @return Posición siguiente a lo escrito.
+     */
+    private static long writeInts(FileChannel channel, long position, int[] data) throws IOException {
+        int index = 0;
+        long end = position + 4L * data.length;
+        while (position < end) {
+            long bytes = Math.min(BLOCK_SIZE, end - position);
+            IntBuffer block = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int count = (int) (bytes / 4);
+            block.put(data, index, count);
+            index += count;
+            position += bytes;
+        }
+        return end;
+    }
+
+    /**
+     * Lee {@code data.length} enteros a partir de {@code position}, por
+     * bloques proyectados en memoria.
+     *
+     * @return Posición siguiente a lo leído.
+     */
+    private static long readInts(FileChannel channel, long position, int[] data) throws IOException {
+        int index = 0;
+        long end = position + 4L * data.length;
+        while (position < end) {
+            long bytes = Math.min(BLOCK_SIZE, end - position);
+            IntBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int count = (int) (bytes / 4);
+            block.get(data, index, count);
+            index += count;
+            position += bytes;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,16 @@
+package practica3;
+
+/**
+ * Peso de una arista de un {@link CsrGraph}, dado por los identificadores
+ * de sus extremos.
+ */
+@FunctionalInterface
+public interface EdgeWeight {
+
+    /**
+     * @param from Identificador del vértice origen.
+     * @param to   Identificador del vértice destino.
+     * @return Peso no negativo de la arista.
+     */
+    double weight(int from, int to);
+}
@@ -1,6 +1,15 @@
 package practica3;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
 
 /**
  * Representa un grafo genérico utilizando lista de adyacencia.
@@ -20,6 +29,33 @@ public class Graph<V> {
      */
     private Map<V, Set<V>> adjacencyList = new HashMap<>();
 
+    /**
+     * Número de vértices y aristas añadidos; sirve para saber si el grafo
+     * ha cambiado desde una consulta anterior.
+     */
+    private long version;
+
+    /**
+     * Número de aristas (cada arista no dirigida cuenta una vez).
+     */
+    private long edgeCount;
+
+    /**
+     * Índice de cada vértice en {@link #components}.
+     */
+    private Map<V, Integer> componentIndex = new HashMap<>();
+
+    /**
+     * Componentes conexas, actualizadas en cada {@code addEdge}.
+     */
+    private UnionFind components = new UnionFind();
+
+    /**
+     * Métricas de {@link #onePath}, o {@code null} si no están activadas.
+     */
+    private Timer pathTimer;
+    private DistributionSummary visitedSummary;
+
     /**
      * Añade el vértice {@code v} al grafo.
      *
@@ -32,6 +68,8 @@ public class Graph<V> {
             return false;
         }
         adjacencyList.put(v, new HashSet<>());
+        componentIndex.put(v, components.add());
+        version++;
         return true;
     }
 
@@ -61,7 +99,10 @@ public class Graph<V> {
         adjacencyList.get(v1).add(v2);
         // Añadir arista v2 -> v1 (no dirigido)
         adjacencyList.get(v2).add(v1);
+        components.union(componentIndex.get(v1), componentIndex.get(v2));
 
+        edgeCount++;
+        version++;
         return true;
     }
 
@@ -90,6 +131,148 @@ public class Graph<V> {
         return adjacencyList.containsKey(v);
     }
 
+    /**
+     * Comprueba en tiempo casi constante si existe un camino entre
+     * {@code v1} y {@code v2}, consultando el índice de componentes conexas
+     * que se mantiene al añadir aristas.
+     *
+     * @param v1 Primer vértice.
+     * @param v2 Segundo vértice.
+     * @return {@code true} si ambos vértices existen y están en la misma
+     *         componente.
+     */
+    public boolean connected(V v1, V v2) {
+        Integer i1 = componentIndex.get(v1);
+        Integer i2 = componentIndex.get(v2);
+        return i1 != null && i2 != null && components.connected(i1, i2);
+    }
+
+    /**
+     * @return Número de componentes conexas.
+     */
+    public int componentCount() {
+        return components.setCount();
+    }
+
+    /**
+     * Obtiene el número de vértices de la componente de {@code v}.
+     *
+     * @param v Vértice.
+     * @return Tamaño de su componente, o 0 si el vértice no existe.
+     */
+    public int componentSize(V v) {
+        Integer i = componentIndex.get(v);
+        return (i == null) ? 0 : components.setSize(i);
+    }
+
+    /**
+     * @return Tamaños de todas las componentes conexas, de mayor a menor.
+     */
+    public int[] componentSizes() {
+        return sortedSetSizes(components, null);
+    }
+
+    /**
+     * Tamaños de los conjuntos de {@code components} de mayor a menor,
+     * contando solo los elementos marcados en {@code present} (todos si es
+     * {@code null}).
+     */
+    static int[] sortedSetSizes(UnionFind components, IntPredicate present) {
+        int[] sizes = new int[components.setCount()];
+        int count = 0;
+        for (int x = 0; x < components.size(); x++) {
+            if (components.find(x) == x && (present == null || present.test(x))) {
+                sizes[count++] = components.setSize(x);
+            }
+        }
+        sizes = Arrays.copyOf(sizes, count);
+        Arrays.sort(sizes);
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = sizes[i];
+            sizes[i] = sizes[j];
+            sizes[j] = swap;
+        }
+        return sizes;
+    }
+
+    /**
+     * @return Número de vértices.
+     */
+    public int vertexCount() {
+        return adjacencyList.size();
+    }
+
+    /**
+     * @return Número de aristas (cada arista no dirigida cuenta una vez).
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Publica las métricas del grafo en {@code registry}:
+     * <ul>
+     *   <li>{@code graph.path.search}: latencia de {@link #onePath}.</li>
+     *   <li>{@code graph.path.visited}: vértices visitados en cada búsqueda
+     *   (0 si se resolvió con el índice de componentes).</li>
+     *   <li>{@code graph.vertices} y {@code graph.edges}: tamaño actual.</li>
+     *   <li>{@code graph.memory.estimated}: bytes aproximados de la lista de
+     *   adyacencia y del índice de componentes, contando los nodos de cada
+     *   {@link HashMap} y {@link HashSet} con referencias comprimidas.</li>
+     * </ul>
+     * Mientras no se llama, {@code onePath} no mide nada. Activarlas en otro
+     * grafo con las mismas etiquetas sustituye los indicadores de este.
+     *
+     * @param registry Registro de métricas.
+     * @param tags     Etiquetas que distinguen este grafo de otros.
+     */
+    public void enableMetrics(MeterRegistry registry, Tag... tags) {
+        Tags all = Tags.of(tags);
+        for (String name : new String[]{"graph.vertices", "graph.edges", "graph.memory.estimated"}) {
+            registry.find(name).tags(all).meters().forEach(registry::remove);
+        }
+        Gauge.builder("graph.vertices", this, Graph::vertexCount)
+                .tags(all)
+                .description("Número de vértices")
+                .register(registry);
+        Gauge.builder("graph.edges", this, Graph::edgeCount)
+                .tags(all)
+                .description("Número de aristas")
+                .register(registry);
+        Gauge.builder("graph.memory.estimated", this, Graph::estimatedBytes)
+                .tags(all)
+                .description("Memoria aproximada del grafo")
+                .baseUnit("bytes")
+                .register(registry);
+        visitedSummary = DistributionSummary.builder("graph.path.visited")
+                .tags(all)
+                .description("Vértices visitados por búsqueda de camino")
+                .register(registry);
+        pathTimer = Timer.builder("graph.path.search")
+                .tags(all)
+                .description("Latencia de la búsqueda de camino")
+                .register(registry);
+    }
+
+    /**
+     * Memoria aproximada: por vértice, su entrada en la lista de adyacencia,
+     * el {@link HashSet} vacío con su tabla y su entrada en el índice de
+     * componentes; por arista, dos entradas de conjunto con su hueco en la
+     * tabla.
+     */
+    private double estimatedBytes() {
+        return 232.0 * adjacencyList.size() + 80.0 * edgeCount;
+    }
+
+    /**
+     * Versión del grafo: aumenta con cada vértice o arista añadidos.
+     *
+     * @return Número de mutaciones aplicadas.
+     */
+    public long version() {
+        return version;
+    }
+
     /**
      * Devuelve la representación del grafo en formato de lista de adyacencia,
      * donde cada línea muestra un vértice y el conjunto de sus adyacentes.
@@ -112,6 +295,8 @@ public class Graph<V> {
      * Utiliza una búsqueda en profundidad (DFS) con una pila para
      * encontrar el camino. Si se encuentra, se reconstruye el camino
      * en orden desde {@code v1} hasta {@code v2}; si no, se devuelve null.
+     * Antes de buscar se consulta {@link #connected}, así que la búsqueda
+     * solo se hace cuando el camino existe.
      *
      * @param v1 Vértice origen.
      * @param v2 Vértice destino.
@@ -119,8 +304,26 @@ public class Graph<V> {
      *         hasta {@code v2}, o {@code null} si no existe camino.
      */
     public List<V> onePath(V v1, V v2) {
-        // Si alguno de los vértices no existe, no hay camino
-        if (!adjacencyList.containsKey(v1) || !adjacencyList.containsKey(v2)) {
+        Timer timer = pathTimer;
+        if (timer == null) {
+            return searchPath(v1, v2, null);
+        }
+        long start = System.nanoTime();
+        int[] visited = new int[1];
+        List<V> path = searchPath(v1, v2, visited);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        visitedSummary.record(visited[0]);
+        return path;
+    }
+
+    /**
+     * Cuerpo de {@link #onePath}; si {@code visited} no es {@code null},
+     * deja en su primera posición el número de vértices visitados.
+     */
+    private List<V> searchPath(V v1, V v2, int[] visited) {
+        // Si alguno de los vértices no existe o están en componentes
+        // distintas, no hay camino y no hace falta recorrer nada
+        if (!connected(v1, v2)) {
             return null;
         }
 
@@ -147,6 +350,9 @@ public class Graph<V> {
             }
         }
 
+        if (visited != null) {
+            visited[0] = parent.size();
+        }
         if (!found) {
             return null;
         }
@@ -160,4 +366,66 @@ public class Graph<V> {
         }
         return path;
     }
+
+    /**
+     * Construye una instantánea inmutable del grafo en formato CSR, con
+     * los adyacentes de todos los vértices en arrays de enteros contiguos
+     * y un diccionario entre vértices e identificadores.
+     * <p>
+     * La instantánea no refleja los cambios posteriores del grafo.
+     *
+     * @return Grafo CSR equivalente.
+     */
+    public CsrGraph<V> toCsr() {
+        return CsrGraph.fromAdjacency(adjacencyList);
+    }
+
+    /**
+     * Construye un grafo a partir de un CSR (por ejemplo, el cargado con
+     * {@link EdgeListLoader}). Como se conocen de antemano el número de
+     * vértices y el grado de cada uno, todas las colecciones se crean ya
+     * con su tamaño final y no se redimensionan durante la carga.
+     *
+     * @param csr Grafo en formato CSR.
+     * @return Grafo con los mismos vértices y aristas.
+     */
+    public static <V> Graph<V> fromCsr(CsrGraph<V> csr) {
+        Graph<V> graph = new Graph<>();
+        int vertices = csr.vertexCount();
+        graph.adjacencyList = new HashMap<>(hashCapacity(vertices));
+        graph.componentIndex = new HashMap<>(hashCapacity(vertices));
+        graph.components = new UnionFind(vertices);
+
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] index = new int[csr.idBound()];
+        for (int id = 0; id < csr.idBound(); id++) {
+            if (csr.containsId(id)) {
+                Set<V> adjacents = new HashSet<>(hashCapacity(offsets[id + 1] - offsets[id]));
+                for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                    adjacents.add(csr.vertexOf(targets[i]));
+                }
+                V v = csr.vertexOf(id);
+                graph.adjacencyList.put(v, adjacents);
+                index[id] = graph.components.add();
+                graph.componentIndex.put(v, index[id]);
+            }
+        }
+        for (int id = 0; id < csr.idBound(); id++) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                graph.components.union(index[id], index[targets[i]]);
+            }
+        }
+        graph.edgeCount = csr.edgeCount();
+        graph.version = vertices + csr.edgeCount();
+        return graph;
+    }
+
+    /**
+     * Capacidad inicial de un {@link HashMap} o {@link HashSet} para que
+     * quepan {@code n} elementos sin redimensionarlo.
+     */
+    private static int hashCapacity(int n) {
+        return (int) Math.min(Integer.MAX_VALUE, n * 4L / 3 + 1);
+    }
 }
@@ -0,0 +1,315 @@
+package practica3;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Grafo no dirigido cuyos vértices son enteros no negativos.
+ * <p>
+ * Es la versión especializada de {@link Graph}{@code <Integer>}: cada vértice
+ * guarda sus adyacentes en un {@code int[]} que crece por duplicación, así que
+ * no hay un {@code Integer} ni una entrada de {@code HashSet} por arista y
+ * recorrer los adyacentes es recorrer un array contiguo. Los identificadores
+ * no tienen por qué ser consecutivos, pero la memoria ocupada es
+ * proporcional al mayor de ellos.
+ */
+public class IntGraph {
+
+    /**
+     * Capacidad inicial de la lista de adyacentes de un vértice.
+     */
+    private static final int INITIAL_DEGREE_CAPACITY = 4;
+
+    /**
+     * Adyacentes de cada vértice; solo son válidas las {@code degree[v]}
+     * primeras posiciones.
+     */
+    private int[][] adjacents = new int[16][];
+
+    /**
+     * Número de adyacentes de cada vértice.
+     */
+    private int[] degree = new int[16];
+
+    /**
+     * Mayor identificador de vértice más uno.
+     */
+    private int idBound;
+
+    private int vertexCount;
+    private long edgeCount;
+
+    /**
+     * Componentes conexas, indexadas por el propio vértice. Los
+     * identificadores sin vértice quedan como conjuntos sueltos.
+     */
+    private final UnionFind components = new UnionFind();
+
+    /**
+     * Añade el vértice {@code v} al grafo.
+     *
+     * @param v Vértice a añadir (no negativo).
+     * @return {@code true} si el vértice se ha añadido (no existía),
+     *         {@code false} si ya existía.
+     * @throws IllegalArgumentException Si {@code v} es negativo.
+     */
+    public boolean addVertex(int v) {
+        if (v < 0) {
+            throw new IllegalArgumentException("El vértice " + v + " no puede ser negativo.");
+        }
+        ensureCapacity(v + 1);
+        if (adjacents[v] != null) {
+            return false;
+        }
+        adjacents[v] = new int[INITIAL_DEGREE_CAPACITY];
+        components.grow(v + 1);
+        idBound = Math.max(idBound, v + 1);
+        vertexCount++;
+        return true;
+    }
+
+    /**
+     * Añade una arista entre {@code v1} y {@code v2}, y la inversa. En caso
+     * de que no exista alguno de los vértices, también se añade.
+     * <p>
+     * Para detectar aristas repetidas se recorren los adyacentes del vértice
+     * de menor grado.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return {@code true} si la arista no existía y se ha añadido,
+     *         {@code false} si ya existía.
+     */
+    public boolean addEdge(int v1, int v2) {
+        addVertex(v1);
+        addVertex(v2);
+        if (containsEdge(v1, v2)) {
+            return false;
+        }
+        append(v1, v2);
+        if (v1 != v2) {
+            append(v2, v1);
+        }
+        components.union(v1, v2);
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Comprueba si existe la arista entre {@code v1} y {@code v2}.
+     *
+     * @param v1 Primer vértice.
+     * @param v2 Segundo vértice.
+     * @return {@code true} si ambos vértices existen y son adyacentes.
+     */
+    public boolean containsEdge(int v1, int v2) {
+        if (!containsVertex(v1) || !containsVertex(v2)) {
+            return false;
+        }
+        int from = (degree[v1] <= degree[v2]) ? v1 : v2;
+        int to = (from == v1) ? v2 : v1;
+        int[] list = adjacents[from];
+        for (int i = 0, n = degree[from]; i < n; i++) {
+            if (list[i] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Comprueba si el grafo contiene el vértice dado.
+     *
+     * @param v Vértice para la comprobación.
+     * @return {@code true} si el vértice existe en el grafo,
+     *         {@code false} en caso contrario.
+     */
+    public boolean containsVertex(int v) {
+        return v >= 0 && v < idBound && adjacents[v] != null;
+    }
+
+    /**
+     * Comprueba en tiempo casi constante si existe un camino entre
+     * {@code v1} y {@code v2}.
+     *
+     * @param v1 Primer vértice.
+     * @param v2 Segundo vértice.
+     * @return {@code true} si ambos vértices existen y están en la misma
+     *         componente.
+     */
+    public boolean connected(int v1, int v2) {
+        return containsVertex(v1) && containsVertex(v2) && components.connected(v1, v2);
+    }
+
+    /**
+     * @return Número de componentes conexas.
+     */
+    public int componentCount() {
+        // Los identificadores sin vértice son conjuntos de un elemento
+        return components.setCount() - (components.size() - vertexCount);
+    }
+
+    /**
+     * Obtiene el número de vértices de la componente de {@code v}.
+     *
+     * @param v Vértice.
+     * @return Tamaño de su componente, o 0 si el vértice no existe.
+     */
+    public int componentSize(int v) {
+        return containsVertex(v) ? components.setSize(v) : 0;
+    }
+
+    /**
+     * @return Tamaños de todas las componentes conexas, de mayor a menor.
+     */
+    public int[] componentSizes() {
+        return Graph.sortedSetSizes(components, this::containsVertex);
+    }
+
+    /**
+     * @return Número de vértices.
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return Número de aristas (cada arista no dirigida cuenta una vez).
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return Mayor identificador de vértice más uno.
+     */
+    public int idBound() {
+        return idBound;
+    }
+
+    /**
+     * Obtiene el número de adyacentes de {@code v}.
+     *
+     * @param v Vértice.
+     * @return Grado de {@code v}, o 0 si no existe.
+     */
+    public int degree(int v) {
+        return containsVertex(v) ? degree[v] : 0;
+    }
+
+    /**
+     * Obtiene una copia de los vértices adyacentes a {@code v}.
+     *
+     * @param v Vértice del que se obtienen los adyacentes.
+     * @return Array con los vértices adyacentes a {@code v}.
+     * @throws Exception Si el vértice {@code v} no existe en el grafo.
+     */
+    public int[] obtainAdjacents(int v) throws Exception {
+        if (!containsVertex(v)) {
+            throw new Exception("El vértice " + v + " no existe en el grafo.");
+        }
+        return Arrays.copyOf(adjacents[v], degree[v]);
+    }
+
+    /**
+     * Recorre los adyacentes de {@code v} sin copiarlos. No hace nada si el
+     * vértice no existe.
+     *
+     * @param v      Vértice.
+     * @param action Acción a aplicar a cada adyacente.
+     */
+    public void forEachAdjacent(int v, IntConsumer action) {
+        if (!containsVertex(v)) {
+            return;
+        }
+        int[] list = adjacents[v];
+        for (int i = 0, n = degree[v]; i < n; i++) {
+            action.accept(list[i]);
+        }
+    }
+
+    /**
+     * Obtiene, en caso de existir, un camino entre {@code v1} y {@code v2}
+     * con el mismo recorrido en profundidad que {@link Graph#onePath}, pero
+     * sobre arrays de enteros.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Vértices de un camino desde {@code v1} hasta {@code v2}, o
+     *         {@code null} si no existe camino.
+     */
+    public int[] onePath(int v1, int v2) {
+        if (!connected(v1, v2)) {
+            return null;
+        }
+        // parent[v] = vértice desde el que se llegó a v, más uno (0 = no visitado)
+        int[] parent = new int[idBound];
+        int[] stack = new int[vertexCount];
+        int top = 0;
+        stack[top++] = v1;
+        parent[v1] = v1 + 1;
+
+        while (top > 0) {
+            int current = stack[--top];
+            if (current == v2) {
+                return CsrGraph.buildPath(parent, v1, v2);
+            }
+            int[] list = adjacents[current];
+            for (int i = 0, n = degree[current]; i < n; i++) {
+                int adj = list[i];
+                if (parent[adj] == 0) {
+                    parent[adj] = current + 1;
+                    stack[top++] = adj;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Construye una instantánea inmutable en formato CSR. Los identificadores
+     * del CSR coinciden con los vértices de este grafo.
+     *
+     * @return Grafo CSR equivalente.
+     */
+    public CsrGraph<Integer> toCsr() {
+        int[] offsets = new int[idBound + 1];
+        for (int v = 0; v < idBound; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] targets = new int[offsets[idBound]];
+        for (int v = 0; v < idBound; v++) {
+            if (degree[v] > 0) {
+                System.arraycopy(adjacents[v], 0, targets, offsets[v], degree[v]);
+            }
+        }
+        boolean[] present = new boolean[idBound];
+        for (int v = 0; v < idBound; v++) {
+            present[v] = adjacents[v] != null;
+        }
+        return CsrGraph.identity(offsets, targets, present, edgeCount);
+    }
+
+    /**
+     * Añade {@code to} a los adyacentes de {@code from}.
+     */
+    private void append(int from, int to) {
+        int[] list = adjacents[from];
+        if (degree[from] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+            adjacents[from] = list;
+        }
+        list[degree[from]++] = to;
+    }
+
+    /**
+     * Asegura que caben los vértices {@code 0 .. size - 1}.
+     */
+    private void ensureCapacity(int size) {
+        if (size > adjacents.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(size, 2L * adjacents.length));
+            adjacents = Arrays.copyOf(adjacents, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+        }
+    }
+}
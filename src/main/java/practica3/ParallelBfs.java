@@ -0,0 +1,417 @@
+package practica3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Búsqueda en anchura paralela desde un vértice, sincronizada por niveles,
+ * sobre un {@link CsrGraph} no dirigido.
+ * <p>
+ * Cada nivel se reparte entre los hilos de un {@link ForkJoinPool} y se
+ * elige en cada uno la dirección más barata (BFS de dirección optimizada):
+ * <ul>
+ *   <li><b>Descendente</b>: cada vértice de la frontera recorre sus
+ *       adyacentes y reclama los no visitados con una operación atómica
+ *       sobre un mapa de bits de visitados ({@link AtomicLongArray}).</li>
+ *   <li><b>Ascendente</b>: cuando la frontera es grande, cada vértice no
+ *       visitado busca entre sus adyacentes alguno de la frontera y se
+ *       detiene al encontrarlo, así que se dejan de revisar la mayoría de
+ *       las aristas de los niveles centrales.</li>
+ * </ul>
+ * El cambio de dirección sigue la heurística de Beamer: se pasa a
+ * ascendente cuando las aristas de la frontera superan
+ * {@code 1/}{@value #ALPHA} de las aristas aún sin explorar, y se vuelve a
+ * descendente cuando la frontera baja de {@code 1/}{@value #BETA} de los
+ * vértices.
+ * <p>
+ * Las distancias son siempre las mínimas; el padre de cada vértice es uno
+ * cualquiera de los del nivel anterior, así que el camino devuelto puede
+ * variar entre ejecuciones aunque su longitud no.
+ * <p>
+ * Como en {@link PathFinder}, los métodos que reciben identificadores
+ * terminan en {@code ById}, para que en un {@code ParallelBfs<Integer>} no
+ * se confundan con los que reciben vértices.
+ *
+ * @param <V> Tipo de los vértices.
+ */
+public class ParallelBfs<V> {
+
+    /**
+     * Umbral de paso a ascendente.
+     */
+    static final int ALPHA = 14;
+
+    /**
+     * Umbral de vuelta a descendente.
+     */
+    static final int BETA = 24;
+
+    /**
+     * Vértices de la frontera (o del rango de identificadores, en
+     * ascendente) que procesa cada tarea hoja.
+     */
+    private static final int GRAIN = 2048;
+
+    private final CsrGraph<V> graph;
+    private final int[] offsets;
+    private final int[] targets;
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea una búsqueda que usa el pool común.
+     *
+     * @param graph Grafo no dirigido.
+     */
+    public ParallelBfs(CsrGraph<V> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea una búsqueda.
+     *
+     * @param graph Grafo no dirigido.
+     * @param pool  Pool en el que se reparte cada nivel.
+     */
+    public ParallelBfs(CsrGraph<V> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.pool = pool;
+    }
+
+    /**
+     * Recorre en anchura todo lo alcanzable desde {@code source}.
+     *
+     * @param source Vértice origen.
+     * @return Distancias y padres de todos los vértices.
+     * @throws IllegalArgumentException Si el vértice no existe.
+     */
+    public Result run(V source) {
+        int id = graph.idOf(source);
+        if (id < 0) {
+            throw new IllegalArgumentException("El vértice " + source + " no existe en el grafo.");
+        }
+        return runFromId(id);
+    }
+
+    /**
+     * Recorre en anchura todo lo alcanzable desde {@code source}.
+     *
+     * @param source Identificador del vértice origen.
+     * @return Distancias y padres de todos los vértices.
+     * @throws IllegalArgumentException Si el identificador no corresponde a un vértice.
+     */
+    public Result runFromId(int source) {
+        if (!graph.containsId(source)) {
+            throw new IllegalArgumentException("El identificador " + source + " no corresponde a ningún vértice.");
+        }
+        Traversal traversal = new Traversal(source);
+        traversal.execute();
+        return new Result(traversal.distance, traversal.parent, traversal.level, traversal.reached,
+                traversal.bottomUpLevels);
+    }
+
+    /**
+     * Estado de un recorrido: arrays compartidos por las tareas de cada
+     * nivel y frontera actual.
+     */
+    private final class Traversal {
+
+        final int n = graph.idBound();
+        final int[] distance = new int[n];
+        final int[] parent = new int[n];
+        final AtomicLongArray visited = new AtomicLongArray((n + 63) >>> 6);
+
+        int[] frontier = new int[n];
+        int frontierSize;
+        int[] next = new int[n];
+        final AtomicInteger nextSize = new AtomicInteger();
+        final AtomicLong nextEdges = new AtomicLong();
+
+        int level;
+        int reached;
+        int bottomUpLevels;
+
+        Traversal(int source) {
+            Arrays.fill(distance, -1);
+            Arrays.fill(parent, -1);
+            distance[source] = 0;
+            visited.set(source >>> 6, 1L << source);
+            frontier[0] = source;
+            frontierSize = 1;
+            reached = 1;
+        }
+
+        void execute() {
+            long unexploredEdges = targets.length;
+            long frontierEdges = graph.degree(frontier[0]);
+            boolean bottomUp = false;
+            while (frontierSize > 0) {
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < n / BETA) {
+                    bottomUp = false;
+                }
+                nextSize.set(0);
+                nextEdges.set(0);
+                if (bottomUp) {
+                    bottomUpLevels++;
+                    pool.invoke(new BottomUp(this, 0, n));
+                } else {
+                    pool.invoke(new TopDown(this, 0, frontierSize));
+                }
+                unexploredEdges -= frontierEdges;
+                frontierEdges = nextEdges.get();
+
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierSize = nextSize.get();
+                reached += frontierSize;
+                level++;
+            }
+            // 'level' acaba siendo el número de niveles con vértices
+        }
+
+        /**
+         * Marca {@code v} como visitado.
+         *
+         * @return {@code true} si no lo estaba (este hilo lo ha reclamado).
+         */
+        boolean claim(int v) {
+            long mask = 1L << v;
+            int word = v >>> 6;
+            long current = visited.get(word);
+            while ((current & mask) == 0) {
+                long witness = visited.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    return true;
+                }
+                current = witness;
+            }
+            return false;
+        }
+
+        /**
+         * Copia los vértices descubiertos por una hoja a la siguiente frontera.
+         */
+        void publish(int[] found, int count, long edges) {
+            if (count > 0) {
+                int position = nextSize.getAndAdd(count);
+                System.arraycopy(found, 0, next, position, count);
+                nextEdges.getAndAdd(edges);
+            }
+        }
+    }
+
+    /**
+     * Nivel descendente sobre las posiciones {@code [lo, hi)} de la frontera.
+     */
+    private final class TopDown extends RecursiveAction {
+
+        private final Traversal t;
+        private final int lo;
+        private final int hi;
+
+        TopDown(Traversal t, int lo, int hi) {
+            this.t = t;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDown(t, lo, mid), new TopDown(t, mid, hi));
+                return;
+            }
+            int nextLevel = t.level + 1;
+            int[] found = new int[64];
+            int count = 0;
+            long edges = 0;
+            for (int f = lo; f < hi; f++) {
+                int u = t.frontier[f];
+                for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                    int v = targets[i];
+                    if (t.claim(v)) {
+                        t.parent[v] = u;
+                        t.distance[v] = nextLevel;
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = v;
+                        edges += offsets[v + 1] - offsets[v];
+                    }
+                }
+            }
+            t.publish(found, count, edges);
+        }
+    }
+
+    /**
+     * Nivel ascendente sobre los identificadores {@code [lo, hi)}.
+     */
+    private final class BottomUp extends RecursiveAction {
+
+        private final Traversal t;
+        private final int lo;
+        private final int hi;
+
+        BottomUp(Traversal t, int lo, int hi) {
+            this.t = t;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUp(t, lo, mid), new BottomUp(t, mid, hi));
+                return;
+            }
+            int level = t.level;
+            int[] found = new int[64];
+            int count = 0;
+            long edges = 0;
+            for (int v = lo; v < hi; v++) {
+                if (t.distance[v] != -1) {
+                    continue;
+                }
+                for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                    int u = targets[i];
+                    // Los vértices descubiertos en este mismo nivel tienen level + 1
+                    if (t.distance[u] == level) {
+                        t.parent[v] = u;
+                        t.distance[v] = level + 1;
+                        t.claim(v);
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = v;
+                        edges += end - offsets[v];
+                        break;
+                    }
+                }
+            }
+            t.publish(found, count, edges);
+        }
+    }
+
+    /**
+     * Resultado de un recorrido: distancia y padre de cada vértice.
+     */
+    public final class Result {
+
+        private final int[] distance;
+        private final int[] parent;
+        private final int levels;
+        private final int reached;
+        private final int bottomUpLevels;
+
+        private Result(int[] distance, int[] parent, int levels, int reached, int bottomUpLevels) {
+            this.distance = distance;
+            this.parent = parent;
+            this.levels = levels;
+            this.reached = reached;
+            this.bottomUpLevels = bottomUpLevels;
+        }
+
+        /**
+         * @param id Identificador de un vértice.
+         * @return {@code true} si es alcanzable desde el origen.
+         */
+        public boolean isReachableById(int id) {
+            return graph.containsId(id) && distance[id] >= 0;
+        }
+
+        /**
+         * @param v Vértice.
+         * @return {@code true} si es alcanzable desde el origen.
+         */
+        public boolean isReachable(V v) {
+            return isReachableById(graph.idOf(v));
+        }
+
+        /**
+         * @param id Identificador de un vértice.
+         * @return Número de aristas del camino más corto desde el origen, o
+         *         -1 si no es alcanzable.
+         */
+        public int distanceById(int id) {
+            return isReachableById(id) ? distance[id] : -1;
+        }
+
+        /**
+         * @param v Vértice.
+         * @return Número de aristas del camino más corto desde el origen, o
+         *         -1 si no es alcanzable.
+         */
+        public int distance(V v) {
+            return distanceById(graph.idOf(v));
+        }
+
+        /**
+         * Camino más corto desde el origen.
+         *
+         * @param id Identificador del vértice destino.
+         * @return Identificadores del camino, o {@code null} si no es alcanzable.
+         */
+        public int[] pathToById(int id) {
+            if (!isReachableById(id)) {
+                return null;
+            }
+            int[] path = new int[distance[id] + 1];
+            for (int step = id, i = path.length - 1; i >= 0; step = parent[step], i--) {
+                path[i] = step;
+            }
+            return path;
+        }
+
+        /**
+         * Camino más corto desde el origen.
+         *
+         * @param v Vértice destino.
+         * @return Vértices del camino, o {@code null} si no es alcanzable.
+         */
+        public List<V> pathTo(V v) {
+            int[] path = pathToById(graph.idOf(v));
+            if (path == null) {
+                return null;
+            }
+            List<V> result = new ArrayList<>(path.length);
+            for (int id : path) {
+                result.add(graph.vertexOf(id));
+            }
+            return result;
+        }
+
+        /**
+         * @return Número de vértices alcanzables, incluido el origen.
+         */
+        public int reachedCount() {
+            return reached;
+        }
+
+        /**
+         * @return Mayor distancia desde el origen más uno.
+         */
+        public int levels() {
+            return levels;
+        }
+
+        /**
+         * @return Niveles que se recorrieron en dirección ascendente.
+         */
+        public int bottomUpLevels() {
+            return bottomUpLevels;
+        }
+    }
+}
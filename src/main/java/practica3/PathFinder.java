@@ -0,0 +1,463 @@
+package practica3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Búsquedas de caminos mínimos sobre un {@link CsrGraph}.
+ * <p>
+ * A diferencia de {@link Graph#onePath}, que devuelve un camino cualquiera,
+ * estas búsquedas devuelven el camino más corto:
+ * <ul>
+ *   <li>{@link #shortestPathById(int, int)}: BFS, mínimo número de aristas.</li>
+ *   <li>{@link #bidirectionalShortestPathById(int, int)}: BFS desde los dos
+ *       extremos a la vez, expandiendo siempre la frontera más pequeña;
+ *       visita muchos menos vértices que la BFS simple en grafos grandes.</li>
+ *   <li>{@link #dijkstra(int, int)}: mínimo peso total con los pesos de
+ *       {@link CsrGraph#withWeights}.</li>
+ *   <li>{@link #aStar(int, int, Heuristic)}: Dijkstra guiado por una
+ *       heurística admisible.</li>
+ * </ul>
+ * Los arrays de visitados, padres, distancias, colas y el montículo se crean
+ * una sola vez y se reutilizan: cada consulta incrementa una marca de época
+ * y un vértice solo se considera visitado si su marca coincide con la
+ * época actual, así que no hay que limpiar nada entre consultas y una
+ * consulta solo reserva memoria para el camino devuelto.
+ * <p>
+ * Los métodos que reciben identificadores terminan en {@code ById}, para
+ * que en un {@code PathFinder<Integer>} no se confundan con los que reciben
+ * vértices.
+ * <p>
+ * Una instancia no es segura para varios hilos; se debe usar una por hilo.
+ *
+ * @param <V> Tipo de los vértices.
+ */
+public class PathFinder<V> {
+
+    /**
+     * Estimación del coste restante hasta el destino para A*.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+
+        /**
+         * @param id     Identificador del vértice actual.
+         * @param target Identificador del destino.
+         * @return Cota inferior del coste desde {@code id} hasta {@code target}.
+         */
+        double estimate(int id, int target);
+    }
+
+    private final CsrGraph<V> graph;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    /**
+     * Época de la consulta actual.
+     */
+    private int epoch;
+
+    /**
+     * Época en la que cada vértice fue alcanzado desde el origen y desde el
+     * destino (búsqueda bidireccional).
+     */
+    private final int[] forwardStamp;
+    private final int[] backwardStamp;
+
+    /**
+     * Época en la que cada vértice quedó cerrado en Dijkstra / A*.
+     */
+    private final int[] settledStamp;
+
+    private final int[] forwardParent;
+    private final int[] backwardParent;
+    private final int[] forwardDepth;
+    private final int[] backwardDepth;
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+    private final double[] distance;
+
+    /**
+     * Montículo binario de mínimos con borrado perezoso: prioridades y
+     * vértices en arrays paralelos.
+     */
+    private double[] heapKeys = new double[64];
+    private int[] heapIds = new int[64];
+    private int heapSize;
+
+    /**
+     * Coste del último camino encontrado.
+     */
+    private double lastCost = Double.NaN;
+
+    /**
+     * Vértices visitados en la última consulta.
+     */
+    private int lastVisited;
+
+    /**
+     * Crea un buscador sobre {@code graph}, reservando los arrays de trabajo.
+     *
+     * @param graph Grafo sobre el que se buscan caminos.
+     */
+    public PathFinder(CsrGraph<V> graph) {
+        this.graph = graph;
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.weights = graph.weights();
+        int n = graph.idBound();
+        forwardStamp = new int[n];
+        backwardStamp = new int[n];
+        settledStamp = new int[n];
+        forwardParent = new int[n];
+        backwardParent = new int[n];
+        forwardDepth = new int[n];
+        backwardDepth = new int[n];
+        forwardQueue = new int[n];
+        backwardQueue = new int[n];
+        distance = new double[n];
+    }
+
+    /**
+     * Camino con el mínimo número de aristas (BFS).
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Vértices del camino, o {@code null} si no existe.
+     */
+    public List<V> shortestPath(V v1, V v2) {
+        return toVertices(shortestPathById(graph.idOf(v1), graph.idOf(v2)));
+    }
+
+    /**
+     * Camino con el mínimo peso total (Dijkstra); sin pesos equivale a
+     * {@link #shortestPath(Object, Object)}.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Vértices del camino, o {@code null} si no existe.
+     */
+    public List<V> weightedShortestPath(V v1, V v2) {
+        return toVertices(dijkstra(graph.idOf(v1), graph.idOf(v2)));
+    }
+
+    /**
+     * Camino con el mínimo número de aristas mediante una BFS desde el origen.
+     *
+     * @param from Identificador del vértice origen.
+     * @param to   Identificador del vértice destino.
+     * @return Identificadores del camino, o {@code null} si no existe.
+     */
+    public int[] shortestPathById(int from, int to) {
+        if (!begin(from, to)) {
+            return null;
+        }
+        int stamp = epoch;
+        int head = 0;
+        int tail = 0;
+        forwardQueue[tail++] = from;
+        forwardStamp[from] = stamp;
+        forwardParent[from] = -1;
+
+        while (head < tail) {
+            int current = forwardQueue[head++];
+            if (current == to) {
+                lastVisited = tail;
+                int[] path = walk(forwardParent, to, 0);
+                lastCost = path.length - 1;
+                return path;
+            }
+            for (int i = offsets[current], end = offsets[current + 1]; i < end; i++) {
+                int adj = targets[i];
+                if (forwardStamp[adj] != stamp) {
+                    forwardStamp[adj] = stamp;
+                    forwardParent[adj] = current;
+                    forwardQueue[tail++] = adj;
+                }
+            }
+        }
+        lastVisited = tail;
+        return null;
+    }
+
+    /**
+     * Camino con el mínimo número de aristas mediante una BFS bidireccional.
+     * <p>
+     * En cada paso se expande un nivel completo del lado con la frontera
+     * más pequeña; en cuanto algún vértice alcanzado por un lado ya lo
+     * había sido por el otro, se termina el nivel y se elige el punto de
+     * encuentro con menor longitud total, que es la mínima.
+     *
+     * @param from Identificador del vértice origen.
+     * @param to   Identificador del vértice destino.
+     * @return Identificadores del camino, o {@code null} si no existe.
+     */
+    public int[] bidirectionalShortestPathById(int from, int to) {
+        if (!begin(from, to)) {
+            return null;
+        }
+        if (from == to) {
+            lastVisited = 1;
+            lastCost = 0;
+            return new int[]{from};
+        }
+        int stamp = epoch;
+        forwardStamp[from] = stamp;
+        forwardParent[from] = -1;
+        forwardDepth[from] = 0;
+        forwardQueue[0] = from;
+        backwardStamp[to] = stamp;
+        backwardParent[to] = -1;
+        backwardDepth[to] = 0;
+        backwardQueue[0] = to;
+        // Frontera de cada lado: [head, tail) de su cola
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+
+        int best = Integer.MAX_VALUE;
+        int meetingForward = -1;
+        int meetingBackward = -1;
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            boolean forward = forwardTail - forwardHead <= backwardTail - backwardHead;
+            int[] queue = forward ? forwardQueue : backwardQueue;
+            int[] ownStamp = forward ? forwardStamp : backwardStamp;
+            int[] otherStamp = forward ? backwardStamp : forwardStamp;
+            int[] parent = forward ? forwardParent : backwardParent;
+            int[] depth = forward ? forwardDepth : backwardDepth;
+            int[] otherDepth = forward ? backwardDepth : forwardDepth;
+            int head = forward ? forwardHead : backwardHead;
+            int tail = forward ? forwardTail : backwardTail;
+
+            int levelEnd = tail;
+            for (; head < levelEnd; head++) {
+                int current = queue[head];
+                for (int i = offsets[current], end = offsets[current + 1]; i < end; i++) {
+                    int adj = targets[i];
+                    if (otherStamp[adj] == stamp) {
+                        int length = depth[current] + 1 + otherDepth[adj];
+                        if (length < best) {
+                            // El encuentro es la arista current -> adj, vista desde el origen
+                            best = length;
+                            meetingForward = forward ? current : adj;
+                            meetingBackward = forward ? adj : current;
+                        }
+                    }
+                    if (ownStamp[adj] != stamp) {
+                        ownStamp[adj] = stamp;
+                        parent[adj] = current;
+                        depth[adj] = depth[current] + 1;
+                        queue[tail++] = adj;
+                    }
+                }
+            }
+            if (forward) {
+                forwardHead = head;
+                forwardTail = tail;
+            } else {
+                backwardHead = head;
+                backwardTail = tail;
+            }
+            if (meetingForward >= 0) {
+                break;
+            }
+        }
+        lastVisited = forwardTail + backwardTail;
+        if (meetingForward < 0) {
+            return null;
+        }
+        lastCost = best;
+        return join(meetingForward, meetingBackward, best + 1);
+    }
+
+    /**
+     * Camino de mínimo peso total (Dijkstra). Si el grafo no tiene pesos,
+     * cada arista pesa 1.
+     *
+     * @param from Identificador del vértice origen.
+     * @param to   Identificador del vértice destino.
+     * @return Identificadores del camino, o {@code null} si no existe.
+     */
+    public int[] dijkstra(int from, int to) {
+        return aStar(from, to, null);
+    }
+
+    /**
+     * Camino de mínimo peso total con A*. La heurística debe ser consistente
+     * ({@code h(u) <= peso(u, v) + h(v)}) para que el resultado sea óptimo;
+     * con {@code null} la búsqueda es un Dijkstra.
+     *
+     * @param from      Identificador del vértice origen.
+     * @param to        Identificador del vértice destino.
+     * @param heuristic Estimación del coste restante, o {@code null}.
+     * @return Identificadores del camino, o {@code null} si no existe.
+     */
+    public int[] aStar(int from, int to, Heuristic heuristic) {
+        if (!begin(from, to)) {
+            return null;
+        }
+        int stamp = epoch;
+        heapSize = 0;
+        forwardStamp[from] = stamp;
+        forwardParent[from] = -1;
+        distance[from] = 0;
+        push(estimate(heuristic, from, to), from);
+
+        int visited = 0;
+        while (heapSize > 0) {
+            int current = pop();
+            if (settledStamp[current] == stamp) {
+                continue;
+            }
+            settledStamp[current] = stamp;
+            visited++;
+            if (current == to) {
+                lastVisited = visited;
+                lastCost = distance[to];
+                return walk(forwardParent, to, 0);
+            }
+            double base = distance[current];
+            for (int i = offsets[current], end = offsets[current + 1]; i < end; i++) {
+                int adj = targets[i];
+                if (settledStamp[adj] == stamp) {
+                    continue;
+                }
+                double candidate = base + ((weights == null) ? 1.0 : weights[i]);
+                if (forwardStamp[adj] != stamp || candidate < distance[adj]) {
+                    forwardStamp[adj] = stamp;
+                    forwardParent[adj] = current;
+                    distance[adj] = candidate;
+                    push(candidate + estimate(heuristic, adj, to), adj);
+                }
+            }
+        }
+        lastVisited = visited;
+        return null;
+    }
+
+    /**
+     * @return Coste (aristas o peso total) del último camino encontrado, o
+     *         {@code NaN} si la última consulta no encontró camino.
+     */
+    public double lastCost() {
+        return lastCost;
+    }
+
+    /**
+     * @return Vértices visitados en la última consulta.
+     */
+    public int lastVisited() {
+        return lastVisited;
+    }
+
+    /**
+     * Prepara una consulta: comprueba los extremos y avanza la época.
+     *
+     * @return {@code false} si algún extremo no existe.
+     */
+    private boolean begin(int from, int to) {
+        lastCost = Double.NaN;
+        lastVisited = 0;
+        if (!graph.containsId(from) || !graph.containsId(to)) {
+            return false;
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            // Tras 2^31 consultas las marcas antiguas podrían coincidir
+            Arrays.fill(forwardStamp, 0);
+            Arrays.fill(backwardStamp, 0);
+            Arrays.fill(settledStamp, 0);
+            epoch = 1;
+        }
+        return true;
+    }
+
+    private static double estimate(Heuristic heuristic, int id, int to) {
+        return (heuristic == null) ? 0.0 : heuristic.estimate(id, to);
+    }
+
+    /**
+     * Recorre los padres desde {@code last} y devuelve el camino en orden,
+     * dejando {@code extra} posiciones libres al final.
+     */
+    private static int[] walk(int[] parent, int last, int extra) {
+        int length = 0;
+        for (int step = last; step != -1; step = parent[step]) {
+            length++;
+        }
+        int[] path = new int[length + extra];
+        for (int step = last, i = length - 1; step != -1; step = parent[step], i--) {
+            path[i] = step;
+        }
+        return path;
+    }
+
+    /**
+     * Une el camino desde el origen hasta {@code forwardEnd} con el camino
+     * desde {@code backwardStart} hasta el destino.
+     */
+    private int[] join(int forwardEnd, int backwardStart, int length) {
+        int[] path = walk(forwardParent, forwardEnd, 0);
+        int[] result = Arrays.copyOf(path, length);
+        int i = path.length;
+        for (int step = backwardStart; step != -1; step = backwardParent[step]) {
+            result[i++] = step;
+        }
+        return result;
+    }
+
+    private List<V> toVertices(int[] path) {
+        if (path == null) {
+            return null;
+        }
+        List<V> result = new ArrayList<>(path.length);
+        for (int id : path) {
+            result.add(graph.vertexOf(id));
+        }
+        return result;
+    }
+
+    private void push(double key, int id) {
+        if (heapSize == heapKeys.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapIds = Arrays.copyOf(heapIds, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            heapKeys[i] = heapKeys[parent];
+            heapIds[i] = heapIds[parent];
+            i = parent;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+    }
+
+    private int pop() {
+        int top = heapIds[0];
+        double key = heapKeys[--heapSize];
+        int id = heapIds[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            heapKeys[i] = heapKeys[child];
+            heapIds[i] = heapIds[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+        return top;
+    }
+}
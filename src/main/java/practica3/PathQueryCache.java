@@ -0,0 +1,187 @@
+package practica3;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché acotada de resultados de {@code onePath} con expulsión LRU.
+ * <p>
+ * Los grafos de este paquete solo crecen (no se borran vértices ni
+ * aristas), así que un camino encontrado sigue siendo válido después de
+ * cualquier {@code addVertex} o {@code addEdge} y se conserva en la caché.
+ * Lo único que puede dejar de ser cierto es un resultado negativo (no hay
+ * camino): cada uno se guarda con la {@linkplain Graph#version() versión}
+ * del grafo y se descarta en cuanto el grafo cambia. Así la invalidación es
+ * exacta sin vaciar la caché entera en cada mutación.
+ * <p>
+ * Es segura para varios hilos; el cálculo de un fallo se hace fuera del
+ * cerrojo, así que dos hilos pueden calcular a la vez el mismo par.
+ *
+ * @param <V> Tipo de los vértices.
+ */
+public class PathQueryCache<V> {
+
+    /**
+     * Par de vértices consultado.
+     */
+    private record Query<V>(V from, V to) {
+    }
+
+    /**
+     * Resultado guardado: el camino, o {@code null} junto con la versión en
+     * la que no había camino.
+     */
+    private record Entry<V>(List<V> path, long version) {
+    }
+
+    private final LongSupplier version;
+    private final BiFunction<V, V, List<V>> query;
+    private final int capacity;
+    private final LinkedHashMap<Query<V>, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Crea una caché sobre una consulta de caminos cualquiera.
+     *
+     * @param version  Versión actual del grafo consultado.
+     * @param query    Consulta que devuelve un camino o {@code null}.
+     * @param capacity Número máximo de pares guardados.
+     * @throws IllegalArgumentException Si la capacidad no es positiva.
+     */
+    public PathQueryCache(LongSupplier version, BiFunction<V, V, List<V>> query, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que 0.");
+        }
+        this.version = version;
+        this.query = query;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query<V>, Entry<V>> eldest) {
+                if (size() > PathQueryCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Crea una caché de {@link Graph#onePath}.
+     *
+     * @param graph    Grafo consultado.
+     * @param capacity Número máximo de pares guardados.
+     * @return Caché de caminos del grafo.
+     */
+    public static <V> PathQueryCache<V> of(Graph<V> graph, int capacity) {
+        return new PathQueryCache<>(graph::version, graph::onePath, capacity);
+    }
+
+    /**
+     * Crea una caché de {@link ConcurrentGraph#onePath}.
+     *
+     * @param graph    Grafo consultado.
+     * @param capacity Número máximo de pares guardados.
+     * @return Caché de caminos del grafo.
+     */
+    public static <V> PathQueryCache<V> of(ConcurrentGraph<V> graph, int capacity) {
+        return new PathQueryCache<>(graph::version, graph::onePath, capacity);
+    }
+
+    /**
+     * Obtiene un camino entre {@code v1} y {@code v2}, de la caché si es
+     * posible.
+     *
+     * @param v1 Vértice origen.
+     * @param v2 Vértice destino.
+     * @return Lista inmutable de vértices de un camino desde {@code v1}
+     *         hasta {@code v2}, o {@code null} si no existe camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        Query<V> key = new Query<>(v1, v2);
+        long current = version.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.path() != null || entry.version() == current) {
+                    hits.increment();
+                    return entry.path();
+                }
+                entries.remove(key);
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+
+        List<V> path = query.apply(v1, v2);
+        Entry<V> entry = new Entry<>((path == null) ? null : List.copyOf(path), current);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry.path();
+    }
+
+    /**
+     * Vacía la caché sin tocar las métricas.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return Número de pares guardados.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return Consultas respondidas desde la caché.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Consultas que hubo que calcular.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Entradas expulsadas por falta de espacio.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Resultados negativos descartados porque el grafo cambió.
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return Proporción de aciertos, o 0 si no ha habido consultas.
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return (total == 0) ? 0.0 : (double) h / total;
+    }
+}
@@ -0,0 +1,165 @@
+package practica3;
+
+import java.util.Arrays;
+
+/**
+ * Estructura de conjuntos disjuntos (<i>union-find</i>) sobre elementos
+ * {@code 0 .. size() - 1}, con compresión de caminos y unión por rango.
+ * <p>
+ * Todo se guarda en arrays de primitivos que crecen por duplicación, así
+ * que cada elemento ocupa 9 bytes. Tanto {@link #find(int)} como
+ * {@link #union(int, int)} tienen un coste amortizado prácticamente
+ * constante (inversa de la función de Ackermann).
+ */
+public class UnionFind {
+
+    /**
+     * Padre de cada elemento; las raíces son su propio padre.
+     */
+    private int[] parent;
+
+    /**
+     * Cota superior de la altura de cada árbol (solo válida en las raíces).
+     */
+    private byte[] rank;
+
+    /**
+     * Número de elementos de cada conjunto (solo válido en las raíces).
+     */
+    private int[] size;
+
+    private int elements;
+    private int sets;
+
+    /**
+     * Crea una estructura vacía.
+     */
+    public UnionFind() {
+        this(16);
+    }
+
+    /**
+     * Crea una estructura vacía con espacio para {@code capacity} elementos.
+     *
+     * @param capacity Capacidad inicial.
+     */
+    public UnionFind(int capacity) {
+        capacity = Math.max(1, capacity);
+        parent = new int[capacity];
+        rank = new byte[capacity];
+        size = new int[capacity];
+    }
+
+    /**
+     * Añade un elemento en un conjunto propio.
+     *
+     * @return Índice del nuevo elemento.
+     */
+    public int add() {
+        if (elements == parent.length) {
+            resize(elements + 1);
+        }
+        int x = elements++;
+        parent[x] = x;
+        size[x] = 1;
+        sets++;
+        return x;
+    }
+
+    /**
+     * Añade los elementos necesarios para que existan {@code 0 .. n - 1},
+     * cada uno en un conjunto propio.
+     *
+     * @param n Número mínimo de elementos.
+     */
+    public void grow(int n) {
+        if (n > parent.length) {
+            resize(n);
+        }
+        while (elements < n) {
+            add();
+        }
+    }
+
+    /**
+     * Obtiene el representante del conjunto de {@code x}, acortando por el
+     * camino (cada nodo pasa a apuntar a su abuelo).
+     *
+     * @param x Elemento.
+     * @return Raíz del conjunto de {@code x}.
+     */
+    public int find(int x) {
+        while (parent[x] != x) {
+            int grandparent = parent[parent[x]];
+            parent[x] = grandparent;
+            x = grandparent;
+        }
+        return x;
+    }
+
+    /**
+     * Une los conjuntos de {@code a} y {@code b}, colgando el árbol de menor
+     * rango del de mayor rango.
+     *
+     * @param a Primer elemento.
+     * @param b Segundo elemento.
+     * @return {@code true} si estaban en conjuntos distintos.
+     */
+    public boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (rank[ra] < rank[rb]) {
+            int swap = ra;
+            ra = rb;
+            rb = swap;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        if (rank[ra] == rank[rb]) {
+            rank[ra]++;
+        }
+        sets--;
+        return true;
+    }
+
+    /**
+     * @param a Primer elemento.
+     * @param b Segundo elemento.
+     * @return {@code true} si están en el mismo conjunto.
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * @param x Elemento.
+     * @return Número de elementos del conjunto de {@code x}.
+     */
+    public int setSize(int x) {
+        return size[find(x)];
+    }
+
+    /**
+     * @return Número de elementos.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * @return Número de conjuntos disjuntos.
+     */
+    public int setCount() {
+        return sets;
+    }
+
+    private void resize(int minimum) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(minimum, 2L * parent.length));
+        parent = Arrays.copyOf(parent, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+        size = Arrays.copyOf(size, capacity);
+    }
+}
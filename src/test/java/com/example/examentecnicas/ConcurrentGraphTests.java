@@ -0,0 +1,143 @@
+package com.example.examentecnicas;
+
+import practica3.ConcurrentGraph;
+import practica3.CsrGraph;
+import practica3.PathQueryCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentGraphTests {
+
+    @Test
+    void testGrafoVacio() {
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        assertEquals(0, graph.snapshot().vertexCount());
+        assertSame(graph.snapshot(), graph.snapshot());
+        assertNull(graph.onePath(1, 2));
+        assertEquals(graph.snapshot().toString(), graph.toString());
+        assertNull(PathQueryCache.of(new ConcurrentGraph<Integer>(), 4).onePath(1, 2));
+
+        graph.addVertex(1);
+        assertEquals(1, graph.snapshot().vertexCount());
+    }
+
+    @Test
+    void testOperacionesBasicas() {
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        assertTrue(graph.addVertex(1));
+        assertFalse(graph.addVertex(1));
+        assertTrue(graph.addEdge(1, 2));
+        assertFalse(graph.addEdge(2, 1));
+        graph.addEdge(2, 3);
+        assertEquals(List.of(1, 2, 3), graph.onePath(1, 3));
+
+        CsrGraph<Integer> snapshot = graph.snapshot();
+        assertSame(snapshot, graph.snapshot());
+        graph.addEdge(3, 4);
+        assertEquals(3, snapshot.vertexCount());
+        assertEquals(4, graph.snapshot().vertexCount());
+    }
+
+    @Test
+    void testInsercionesConcurrentes() throws Exception {
+        int threads = 8;
+        int n = 200;
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> added = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean reversed = t % 2 == 1;
+                added.add(executor.submit(() -> {
+                    int count = 0;
+                    // Todos los hilos insertan el mismo grafo completo, la mitad al revés
+                    for (int i = 0; i < n; i++) {
+                        for (int j = i + 1; j < n; j++) {
+                            if (reversed ? graph.addEdge(j, i) : graph.addEdge(i, j)) {
+                                count++;
+                            }
+                        }
+                        assertNotNull(graph.onePath(0, i));
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : added) {
+                total += f.get();
+            }
+            long expected = (long) n * (n - 1) / 2;
+            assertEquals(expected, total);
+            assertEquals(expected, graph.edgeCount());
+
+            CsrGraph<Integer> snapshot = graph.snapshot();
+            assertEquals(expected, snapshot.edgeCount());
+            for (int id = 0; id < snapshot.idBound(); id++) {
+                assertEquals(n - 1, snapshot.degree(id));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testInstantaneasDuranteInserciones() throws Exception {
+        int threads = 4;
+        int n = 2_000;
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        graph.addEdge(0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < n; i += threads) {
+                        graph.addEdge(i, (i * 31 + 7) % n);
+                        graph.addVertex(n + i);
+                    }
+                }));
+            }
+            long previous = -1;
+            boolean done = false;
+            while (!done) {
+                done = writers.stream().allMatch(Future::isDone);
+                // Cada instantánea es coherente: todas las aristas en los dos sentidos
+                CsrGraph<Integer> snapshot = graph.snapshot();
+                long degrees = 0;
+                for (int id = 0; id < snapshot.idBound(); id++) {
+                    degrees += snapshot.degree(id);
+                }
+                assertEquals(2 * snapshot.edgeCount() - 1, degrees);
+                assertTrue(snapshot.edgeCount() >= previous);
+                previous = snapshot.edgeCount();
+            }
+            for (Future<?> f : writers) {
+                f.get();
+            }
+            CsrGraph<Integer> snapshot = graph.snapshot();
+            assertEquals(graph.edgeCount(), snapshot.edgeCount());
+            assertEquals(graph.vertexCount(), snapshot.vertexCount());
+            for (int v = 0; v < n; v++) {
+                assertEquals(graph.obtainAdjacents(v), snapshot.obtainAdjacents(v));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.examentecnicas;
+
+import practica3.CsrGraph;
+import practica3.Graph;
+import practica3.IntGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsrGraphTests {
+
+    @Test
+    void testIntGraph() throws Exception {
+        IntGraph graph = new IntGraph();
+        assertTrue(graph.addEdge(1, 2));
+        assertTrue(graph.addEdge(2, 3));
+        assertFalse(graph.addEdge(2, 1));
+        assertTrue(graph.addVertex(100));
+        assertEquals(4, graph.vertexCount());
+        assertEquals(2, graph.edgeCount());
+        assertArrayEquals(new int[]{1, 3}, graph.obtainAdjacents(2));
+        assertArrayEquals(new int[]{1, 2, 3}, graph.onePath(1, 3));
+        assertNull(graph.onePath(1, 100));
+        assertThrows(Exception.class, () -> graph.obtainAdjacents(50));
+
+        assertTrue(graph.connected(1, 3));
+        assertFalse(graph.connected(1, 100));
+        assertEquals(2, graph.componentCount());
+        assertArrayEquals(new int[]{3, 1}, graph.componentSizes());
+    }
+
+    @Test
+    void testCsrDesdeGraph() throws Exception {
+        Graph<String> graph = new Graph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("c", "c");
+        graph.addVertex("d");
+
+        CsrGraph<String> csr = graph.toCsr();
+        assertEquals(4, csr.vertexCount());
+        assertEquals(3, csr.edgeCount());
+        assertEquals(Set.of("a", "c"), csr.obtainAdjacents("b"));
+        assertEquals(List.of("a", "b", "c"), csr.onePath("a", "c"));
+        assertNull(csr.onePath("a", "d"));
+        assertEquals(-1, csr.idOf("z"));
+        assertEquals("b", csr.vertexOf(csr.idOf("b")));
+    }
+
+    @Test
+    void testCsrDeEnterosUsaVertices() throws Exception {
+        // Los identificadores no coinciden con los vértices: 7 -> 0, 9 -> 1
+        Graph<Integer> graph = new Graph<>();
+        graph.addEdge(7, 9);
+        graph.addVertex(1);
+
+        CsrGraph<Integer> csr = graph.toCsr();
+        assertEquals(List.of(7, 9), csr.onePath(7, 9));
+        assertNull(csr.onePath(9, 1));
+        assertArrayEquals(new int[]{csr.idOf(7), csr.idOf(9)}, csr.onePathById(csr.idOf(7), csr.idOf(9)));
+    }
+
+    @Test
+    void testCsrDesdeIntGraph() {
+        IntGraph graph = new IntGraph();
+        for (int i = 0; i < 1000; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.addVertex(5000);
+
+        CsrGraph<Integer> csr = graph.toCsr();
+        assertEquals(1002, csr.vertexCount());
+        assertEquals(1000, csr.edgeCount());
+        assertEquals(7, csr.idOf(7));
+        assertEquals(-1, csr.idOf(3000));
+        assertEquals(2, csr.degree(500));
+        int[] path = csr.onePathById(0, 1000);
+        assertNotNull(path);
+        assertEquals(1001, path.length);
+        assertNull(csr.onePathById(0, 5000));
+    }
+}
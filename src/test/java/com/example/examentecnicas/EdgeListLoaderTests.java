@@ -0,0 +1,152 @@
+package com.example.examentecnicas;
+
+import practica3.CsrGraph;
+import practica3.EdgeListLoader;
+import practica3.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeListLoaderTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testTexto() throws Exception {
+        Path file = dir.resolve("aristas.txt");
+        Files.writeString(file, """
+                # comentario
+                % otro comentario
+                1 2
+                2\t3 0.5
+                  3 1
+                2 1
+                7
+                4 4
+                """);
+        CsrGraph<Integer> graph = EdgeListLoader.loadText(file);
+        assertEquals(5, graph.vertexCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(Set.of(1, 3), graph.obtainAdjacents(2));
+        assertEquals(Set.of(4), graph.obtainAdjacents(4));
+        assertEquals(0, graph.degree(7));
+        assertFalse(graph.containsVertex(0));
+        assertArrayEquals(new int[]{1, 3}, graph.onePathById(1, 3));
+
+        Files.writeString(file, "1 x\n");
+        assertThrows(IOException.class, () -> EdgeListLoader.loadText(file));
+    }
+
+    @Test
+    void testTextoVariosTrozos() throws Exception {
+        Path file = dir.resolve("aristas.txt");
+        StringBuilder sb = new StringBuilder("# grafo aleatorio\n");
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            switch (i % 50) {
+                case 0 -> sb.append("% comentario ").append(i).append('\n');
+                case 1 -> sb.append(random.nextInt(2_000)).append("\r\n");
+                default -> sb.append(random.nextInt(2_000)).append(i % 2 == 0 ? " " : "\t")
+                        .append(random.nextInt(2_000)).append('\n');
+            }
+        }
+        Files.writeString(file, sb);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CsrGraph<Integer> single = EdgeListLoader.loadText(file, pool, Long.MAX_VALUE);
+            // Trozos de 64 bytes: cientos de trozos, muchos cortados a mitad de línea
+            CsrGraph<Integer> chunked = EdgeListLoader.loadText(file, pool, 64);
+            assertEquals(single.vertexCount(), chunked.vertexCount());
+            assertEquals(single.edgeCount(), chunked.edgeCount());
+            assertEquals(single.idBound(), chunked.idBound());
+            for (int v = 0; v < single.idBound(); v++) {
+                assertEquals(single.containsVertex(v), chunked.containsVertex(v));
+                if (single.containsVertex(v)) {
+                    assertEquals(single.obtainAdjacents(v), chunked.obtainAdjacents(v));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> EdgeListLoader.loadText(file, pool, 0));
+    }
+
+    @Test
+    void testBinario() throws Exception {
+        Graph<Integer> original = new Graph<>();
+        original.addEdge(10, 20);
+        original.addEdge(20, 30);
+        original.addEdge(40, 41);
+        original.addVertex(99);
+        Path file = dir.resolve("grafo.bin");
+        EdgeListLoader.saveBinary(original.toCsr(), file);
+
+        CsrGraph<Integer> loaded = EdgeListLoader.loadBinary(file);
+        assertEquals(6, loaded.vertexCount());
+        assertEquals(3, loaded.edgeCount());
+        assertEquals(Set.of(10, 30), loaded.obtainAdjacents(20));
+        assertTrue(loaded.containsVertex(99));
+        assertEquals(original.vertexCount(), loaded.vertexCount());
+        for (int v = 0; v < loaded.idBound(); v++) {
+            assertEquals(original.containsVertex(v), loaded.containsVertex(v));
+            if (loaded.containsVertex(v)) {
+                assertEquals(original.obtainAdjacents(v), loaded.obtainAdjacents(v));
+            }
+        }
+
+        // Cabecera, 4 enteros de vértices presentes, 101 offsets y los adyacentes
+        byte[] valid = Files.readAllBytes(file);
+        assertThrows(IOException.class, () -> loadPatched(file, valid, 8, Integer.MAX_VALUE - 8));
+        assertThrows(IOException.class, () -> loadPatched(file, valid, 16, 1L << 40));
+        assertThrows(IOException.class, () -> loadPatched(file, valid, 48 + 4 * 20, 1_000));
+        assertThrows(IOException.class, () -> loadPatched(file, valid, 48 + 4 * 101, 100));
+        assertThrows(IOException.class, () -> loadPatched(file, valid, 48 + 4 * 101, -1));
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> EdgeListLoader.loadBinary(file));
+    }
+
+    /**
+     * Carga una copia de {@code valid} con el entero (o el long, si no cabe
+     * en un entero) de la posición {@code offset} cambiado.
+     */
+    private static CsrGraph<Integer> loadPatched(Path file, byte[] valid, int offset, long value)
+            throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(valid.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        if (value == (int) value) {
+            bytes.putInt(offset, (int) value);
+        } else {
+            bytes.putLong(offset, value);
+        }
+        Files.write(file, bytes.array());
+        return EdgeListLoader.loadBinary(file);
+    }
+
+    @Test
+    void testFromCsr() throws Exception {
+        Path file = dir.resolve("aristas.txt");
+        Files.writeString(file, "1 2\n2 3\n5 6\n8\n");
+        Graph<Integer> graph = Graph.fromCsr(EdgeListLoader.loadText(file));
+        assertEquals(Set.of(1, 3), graph.obtainAdjacents(2));
+        assertTrue(graph.connected(1, 3));
+        assertFalse(graph.connected(1, 5));
+        assertEquals(3, graph.componentCount());
+        assertEquals(9, graph.version());
+        assertFalse(graph.addEdge(3, 2));
+    }
+}
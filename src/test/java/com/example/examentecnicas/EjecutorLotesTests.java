@@ -0,0 +1,82 @@
+package com.example.examentecnicas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EjecutorLotesTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAnalizar() {
+        TrabajoLote trabajo = TrabajoLote.analizar(3, " pi: muestras=1000 , metodo=sobol ");
+        assertEquals(3, trabajo.getId());
+        assertEquals(TrabajoLote.Tipo.PI, trabajo.getTipo());
+        assertEquals(1000, trabajo.getEntero("muestras"));
+        assertEquals("sobol", trabajo.getParametro("metodo"));
+        assertEquals(7, trabajo.getEntero("semilla", 7));
+        assertThrows(IllegalArgumentException.class, () -> TrabajoLote.analizar(1, "raiz:x=1"));
+        assertThrows(IllegalArgumentException.class, () -> TrabajoLote.analizar(1, "pi:muestras"));
+        assertThrows(IllegalArgumentException.class, () -> trabajo.getEntero("metodo"));
+    }
+
+    @Test
+    void testEjecutar() throws Exception {
+        Path grafo = dir.resolve("aristas.txt");
+        Files.writeString(grafo, "1 2\n2 3\n3 4\n1 5\n");
+        Path fichero = dir.resolve("trabajos.txt");
+        Files.writeString(fichero, """
+                # trabajos de prueba
+                pi:muestras=10000,metodo=ANTITETICO,semilla=1
+                vida:generaciones=3
+                vida:filas=100,columnas=100,generaciones=5
+                vida:filas=100,columnas=100,generaciones=5,almacenamiento=directo
+
+                camino:grafo=%s,desde=5,hasta=4
+                camino:grafo=%s,desde=1,hasta=99
+                pi:metodo=UNIFORME
+                """.formatted(grafo, grafo));
+
+        List<TrabajoLote> trabajos = EjecutorLotes.analizar(EjecutorLotes.leerFichero(fichero));
+        assertEquals(7, trabajos.size());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int fallos = new EjecutorLotes(2, null).ejecutar(trabajos, new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        assertEquals(1, fallos);
+
+        List<String> lineas = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(7, lineas.size());
+        for (String linea : lineas) {
+            assertTrue(linea.startsWith("{\"id\":") && linea.endsWith("}") && linea.contains("\"ms\":"), linea);
+        }
+        assertTrue(lineas.stream().anyMatch(l -> l.contains("\"longitud\":4,\"camino\":[5,1,2,3,4]")));
+        assertTrue(lineas.stream().anyMatch(l -> l.contains("\"longitud\":-1,\"camino\":null")));
+        assertTrue(lineas.stream().anyMatch(l -> l.contains("\"celulasVivas\":") && l.contains("\"filas\":100")));
+        assertTrue(lineas.stream().anyMatch(l -> l.contains("\"celulasVivas\":") && l.contains("\"filas\":100")
+                && l.contains("\"almacenamiento\":\"directo\"")));
+        assertTrue(lineas.stream().anyMatch(l -> l.contains("\"error\":\"Falta el parámetro 'muestras'.\"")));
+    }
+
+    @Test
+    void testJson() {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("a", "x\"y\n");
+        valores.put("b", new int[]{1, 2});
+        valores.put("c", null);
+        valores.put("d", 1.5);
+        assertEquals("{\"a\":\"x\\\"y\\n\",\"b\":[1,2],\"c\":null,\"d\":1.5}", EjecutorLotes.json(valores));
+    }
+}
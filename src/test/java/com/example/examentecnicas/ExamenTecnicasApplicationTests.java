@@ -1,13 +1,40 @@
 package com.example.examentecnicas;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "examen.interactivo=false")
 class ExamenTecnicasApplicationTests {
 
     @Test
     void contextLoads() {
     }
 
-}
\ No newline at end of file
+    @Test
+    void testCodigoSalida() throws Exception {
+        ExamenTecnicasApplication aplicacion = new ExamenTecnicasApplication(
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), false);
+        aplicacion.run("--trabajo=pi:muestras=1000");
+        assertEquals(0, aplicacion.getExitCode());
+
+        aplicacion.run("--trabajo=pi:muestras=1000", "--trabajo=vida:fichero=no-existe.txt");
+        assertEquals(ExamenTecnicasApplication.SALIDA_FALLOS, aplicacion.getExitCode());
+
+        for (String hilos : new String[]{"--hilos=0", "--hilos=dos", "--hilos="}) {
+            aplicacion.run("--trabajo=pi:muestras=1000", hilos);
+            assertEquals(ExamenTecnicasApplication.SALIDA_USO, aplicacion.getExitCode());
+        }
+        aplicacion.run("--trabajo=desconocido:x=1");
+        assertEquals(ExamenTecnicasApplication.SALIDA_USO, aplicacion.getExitCode());
+        aplicacion.run("--trabajos=no-existe.txt");
+        assertEquals(ExamenTecnicasApplication.SALIDA_USO, aplicacion.getExitCode());
+
+        aplicacion.run();
+        assertEquals(0, aplicacion.getExitCode());
+    }
+
+}
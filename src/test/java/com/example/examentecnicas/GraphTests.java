@@ -2,7 +2,11 @@ package com.example.examentecnicas;
 
 import practica3.Graph;
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GraphTests {
@@ -29,4 +33,24 @@ class GraphTests {
         assertNotNull(graph.onePath(1, 3));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testComponentes() {
+        Graph<String> graph = new Graph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("c", "d");
+        graph.addEdge("d", "e");
+        graph.addVertex("f");
+        assertTrue(graph.connected("c", "e"));
+        assertFalse(graph.connected("a", "c"));
+        assertFalse(graph.connected("a", "z"));
+        assertNull(graph.onePath("a", "e"));
+        assertEquals(3, graph.componentCount());
+        assertArrayEquals(new int[]{3, 2, 1}, graph.componentSizes());
+
+        graph.addEdge("b", "c");
+        assertTrue(graph.connected("a", "e"));
+        assertEquals(5, graph.componentSize("a"));
+        assertEquals(2, graph.componentCount());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.examentecnicas;
+
+import dominio.HashLife;
+import dominio.TableroCompacto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashLifeTests {
+
+    @Test
+    void testCoincideConTableroCompacto() {
+        // Sopa aleatoria en el centro de un tablero lo bastante grande para
+        // que nada llegue a los bordes en 64 generaciones
+        Random random = new Random(3);
+        TableroCompacto tablero = new TableroCompacto(256, 256);
+        HashLife universo = new HashLife();
+        for (int i = 112; i < 144; i++) {
+            for (int j = 112; j < 144; j++) {
+                boolean viva = random.nextBoolean();
+                tablero.establecerCelula(i, j, viva);
+                universo.establecerCelula(i, j, viva);
+            }
+        }
+
+        for (int generacion = 0; generacion < 64; generacion++) {
+            tablero.transitarAlEstadoSiguiente();
+        }
+        universo.avanzarPotenciaDeDos(6);
+
+        assertEquals(64, universo.getGeneracion());
+        assertEquals(tablero.contarCelulasVivas(), universo.getPoblacion());
+        assertEquals(tablero.toString(), universo.toString(0, 0, 256, 256));
+    }
+
+    @Test
+    void testSaltoIgualQuePasoAPaso() {
+        HashLife saltos = planeador(new HashLife());
+        HashLife pasos = planeador(new HashLife(500, 100));
+
+        saltos.avanzar(1000);
+        for (int i = 0; i < 1000; i++) {
+            pasos.transitarAlEstadoSiguiente();
+        }
+
+        // Un planeador se desplaza una célula en diagonal cada 4 generaciones
+        assertEquals(5, saltos.getPoblacion());
+        assertEquals(saltos.toString(250, 250, 5, 5), pasos.toString(250, 250, 5, 5));
+        assertTrue(saltos.estaViva(252, 251));
+        assertTrue(pasos.getRecolecciones() > 0);
+    }
+
+    @Test
+    void testEstadisticasDeCache() {
+        HashLife universo = planeador(new HashLife());
+        universo.avanzar(1 << 20);
+        assertEquals(5, universo.getPoblacion());
+        assertTrue(universo.getNumeroNodos() > 0);
+        assertTrue(universo.getTasaAciertos() > 0.5);
+    }
+
+    @Test
+    void testLeerEstadoActual(@TempDir Path directorio) throws IOException {
+        Path fichero = directorio.resolve("matriz");
+        Files.write(fichero, List.of("00000", "00100", "00100", "00100", "00000"));
+        HashLife universo = new HashLife();
+        universo.leerEstadoActual(fichero.toString());
+
+        universo.transitarAlEstadoSiguiente();
+        assertEquals("00000\n00000\n01110\n00000\n00000\n", universo.toString());
+    }
+
+    private static HashLife planeador(HashLife universo) {
+        universo.establecerCelula(0, 1, true);
+        universo.establecerCelula(1, 2, true);
+        universo.establecerCelula(2, 0, true);
+        universo.establecerCelula(2, 1, true);
+        universo.establecerCelula(2, 2, true);
+        return universo;
+    }
+}
@@ -1,8 +1,28 @@
 package com.example.examentecnicas;
 
+import mates.EstimacionPi;
+import mates.EstimadorPiIncremental;
+import mates.EstimadorPiParalelo;
+import mates.KernelMontecarlo;
 import mates.Matematicas;
+import mates.MetodoPi;
+import mates.ProgresoPi;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MatematicasTests {
 
@@ -12,4 +32,174 @@ class MatematicasTests {
         assertEquals(3.14, piAprox, 0.01);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGenerarNumeroPiParalelo() {
+        EstimacionPi estimacion = Matematicas.generarNumeroPiParalelo(10_000_000, 1234);
+        assertEquals(Math.PI, estimacion.getValor(), 5 * estimacion.getErrorEstandar());
+        assertEquals(10_000_000, estimacion.getMuestras());
+        assertTrue(estimacion.getMuestrasPorSegundo() > 0);
+    }
+
+    @Test
+    void testGenerarNumeroPiVectorial() {
+        EstimacionPi estimacion = Matematicas.generarNumeroPiVectorial(10_000_003, 1234);
+        assertEquals(Math.PI, estimacion.getValor(), 5 * estimacion.getErrorEstandar());
+        assertEquals(estimacion.getValor(), Matematicas.generarNumeroPiVectorial(10_000_003, 1234).getValor(), 0.0);
+        if (KernelMontecarlo.vectorialDisponible()) {
+            // Cuatro carriles en cualquier máquina: el valor no depende del procesador
+            assertEquals(3.1409634577109626, estimacion.getValor(), 0.0);
+        }
+    }
+
+    @Test
+    void testParaleloReproducible() {
+        ForkJoinPool unHilo = new ForkJoinPool(1);
+        ForkJoinPool cuatroHilos = new ForkJoinPool(4);
+        try {
+            double a = new EstimadorPiParalelo(unHilo, "SplittableRandom").estimar(20_000_000, 99).getValor();
+            double b = new EstimadorPiParalelo(cuatroHilos, "SplittableRandom").estimar(20_000_000, 99).getValor();
+            assertEquals(a, b, 0.0);
+        } finally {
+            unHilo.shutdown();
+            cuatroHilos.shutdown();
+        }
+    }
+
+    @Test
+    void testIncrementalPrecisionAlcanzada() {
+        EstimadorPiIncremental estimador = new EstimadorPiIncremental();
+        estimador.setTamanoLote(1_000_000);
+        estimador.setErrorObjetivo(1e-3, 0.95);
+        List<ProgresoPi> progresos = new ArrayList<>();
+        estimador.agregarOyente(progresos::add);
+
+        ProgresoPi resultado = estimador.estimar(7);
+        assertEquals(ProgresoPi.MotivoParada.PRECISION_ALCANZADA, resultado.getMotivoParada());
+        assertTrue(resultado.getSemiamplitud() <= 1e-3);
+        assertEquals(Math.PI, resultado.getEstimacion().getValor(), 5 * resultado.getEstimacion().getErrorEstandar());
+        assertEquals(resultado.getLotes(), progresos.size());
+        assertNull(progresos.get(0).getMotivoParada());
+    }
+
+    @Test
+    void testIncrementalMaxMuestras() {
+        EstimadorPiIncremental estimador = new EstimadorPiIncremental();
+        assertThrows(IllegalStateException.class, () -> estimador.estimar(7));
+
+        estimador.setTamanoLote(1_000_000);
+        estimador.setMaxMuestras(2_500_000);
+        ProgresoPi resultado = estimador.estimar(7);
+        assertEquals(ProgresoPi.MotivoParada.MUESTRAS_AGOTADAS, resultado.getMotivoParada());
+        assertEquals(2_500_000, resultado.getEstimacion().getMuestras());
+        assertEquals(3, resultado.getLotes());
+        assertEquals(resultado.getEstimacion().getValor(), estimador.estimar(7).getEstimacion().getValor(), 0.0);
+    }
+
+    @Test
+    void testIncrementalPublicador() throws Exception {
+        EstimadorPiIncremental estimador = new EstimadorPiIncremental();
+        estimador.setTamanoLote(100_000);
+        estimador.setMaxMuestras(500_000);
+        ProgresoPi esperado = estimador.estimar(7);
+        // Un detener() sin cálculo en curso se aplica al siguiente, no a las suscripciones
+        estimador.detener();
+
+        ExecutorService unHilo = Executors.newSingleThreadExecutor();
+        ExecutorService dosHilos = Executors.newFixedThreadPool(2);
+        try {
+            // Dos suscripciones a la vez, cada una con sus propios progresos
+            Flow.Publisher<ProgresoPi> publicador = estimador.comoPublicador(7, dosHilos);
+            SuscriptorPrueba primero = new SuscriptorPrueba(Long.MAX_VALUE);
+            SuscriptorPrueba segundo = new SuscriptorPrueba(1);
+            publicador.subscribe(primero);
+            publicador.subscribe(segundo);
+            for (SuscriptorPrueba suscriptor : List.of(primero, segundo)) {
+                assertTrue(suscriptor.completado.get(30, TimeUnit.SECONDS));
+                assertEquals(esperado.getLotes(), suscriptor.progresos.size());
+                ProgresoPi ultimo = suscriptor.progresos.get(suscriptor.progresos.size() - 1);
+                assertEquals(ProgresoPi.MotivoParada.MUESTRAS_AGOTADAS, ultimo.getMotivoParada());
+                assertEquals(esperado.getEstimacion().getValor(), ultimo.getEstimacion().getValor(), 0.0);
+            }
+
+            // Cancelar detiene el cálculo; con un solo hilo no hay bloqueo
+            estimador.setMaxMuestras(0);
+            estimador.setErrorObjetivo(1e-9, 0.95);
+            SuscriptorPrueba cancelado = new SuscriptorPrueba(1);
+            cancelado.cancelarTras = 1;
+            estimador.comoPublicador(7, unHilo).subscribe(cancelado);
+            assertTrue(cancelado.cancelado.await(30, TimeUnit.SECONDS));
+            unHilo.shutdown();
+            assertTrue(unHilo.awaitTermination(30, TimeUnit.SECONDS));
+            assertEquals(1, cancelado.progresos.size());
+            assertFalse(cancelado.completado.isDone());
+        } finally {
+            unHilo.shutdownNow();
+            dosHilos.shutdownNow();
+        }
+
+        ProgresoPi detenido = estimador.estimar(7);
+        assertEquals(ProgresoPi.MotivoParada.DETENIDO, detenido.getMotivoParada());
+        assertEquals(1, detenido.getLotes());
+    }
+
+    /**
+     * Suscriptor que pide {@code lote} elementos cada vez y guarda los progresos.
+     */
+    private static final class SuscriptorPrueba implements Flow.Subscriber<ProgresoPi> {
+
+        final List<ProgresoPi> progresos = new ArrayList<>();
+        final CompletableFuture<Boolean> completado = new CompletableFuture<>();
+        final CountDownLatch cancelado = new CountDownLatch(1);
+        private final long lote;
+        int cancelarTras;
+        private Flow.Subscription suscripcion;
+
+        SuscriptorPrueba(long lote) {
+            this.lote = lote;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription suscripcion) {
+            this.suscripcion = suscripcion;
+            suscripcion.request(lote);
+        }
+
+        @Override
+        public void onNext(ProgresoPi progreso) {
+            progresos.add(progreso);
+            if (progresos.size() == cancelarTras) {
+                suscripcion.cancel();
+                cancelado.countDown();
+            } else if (lote != Long.MAX_VALUE) {
+                suscripcion.request(lote);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            completado.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            completado.complete(true);
+        }
+    }
+
+    @Test
+    void testMetodosReduccionVarianza() {
+        double errorUniforme = Matematicas.generarNumeroPi(1_000_000, 5, MetodoPi.UNIFORME).getErrorEstandar();
+        for (MetodoPi metodo : MetodoPi.values()) {
+            EstimacionPi estimacion = Matematicas.generarNumeroPi(1_000_000, 5, metodo);
+            assertEquals(1_000_000, estimacion.getMuestras());
+            assertEquals(Math.PI, estimacion.getValor(), 5 * estimacion.getErrorEstandar() + 1e-9);
+            assertEquals(estimacion.getValor(), Matematicas.generarNumeroPi(1_000_000, 5, metodo).getValor(), 0.0);
+            if (metodo == MetodoPi.ESTRATIFICADO || metodo == MetodoPi.SOBOL) {
+                assertTrue(estimacion.getErrorEstandar() < errorUniforme / 10);
+            } else {
+                assertTrue(estimacion.getErrorEstandar() <= errorUniforme);
+            }
+        }
+    }
+
+}
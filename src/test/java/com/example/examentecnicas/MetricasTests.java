@@ -0,0 +1,144 @@
+package com.example.examentecnicas;
+
+import dominio.Tablero;
+import dominio.TableroCompacto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mates.Matematicas;
+import mates.MetodoPi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import practica3.Graph;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricasTests {
+
+    private final MeterRegistry registro = new SimpleMeterRegistry();
+
+    @AfterEach
+    void desactivar() {
+        Matematicas.registrarMetricas(null);
+    }
+
+    @Test
+    void testTablero() {
+        Tablero tablero = new Tablero();
+        tablero.generarEstadoActualPorMontecarlo();
+        tablero.registrarMetricas(registro);
+        tablero.avanzar(3);
+        assertEquals(3, registro.get("tablero.generacion").tag("motor", "Tablero").timer().count());
+        assertEquals(900, registro.get("tablero.celulas").gauge().value());
+        assertEquals(tablero.contarCelulasVivas(), registro.get("tablero.celulas.vivas").gauge().value());
+
+        TableroCompacto compacto = new TableroCompacto(10, 100);
+        compacto.registrarMetricas(registro);
+        compacto.establecerCelula(1, 1, true);
+        compacto.transitarAlEstadoSiguiente();
+        assertEquals(1, registro.get("tablero.generacion").tag("motor", "TableroCompacto").timer().count());
+        assertEquals(1000, registro.get("tablero.celulas").tag("motor", "TableroCompacto").gauge().value());
+        assertEquals(2 * (16 + 8 * 20), registro.get("tablero.memoria.estimada").tag("motor", "TableroCompacto")
+                .gauge().value());
+
+        // Solo se sustituyen los indicadores con exactamente las mismas etiquetas
+        TableroCompacto otro = new TableroCompacto(10, 10);
+        otro.registrarMetricas(registro, Tag.of("trabajo", "lote"));
+        TableroCompacto sustituto = new TableroCompacto(20, 10);
+        sustituto.registrarMetricas(registro);
+        assertEquals(100, registro.get("tablero.celulas").tag("trabajo", "lote").gauge().value());
+        assertEquals(2, registro.find("tablero.celulas").tag("motor", "TableroCompacto").gauges().size());
+    }
+
+    @Test
+    void testCerrarRetiraIndicadores() throws Exception {
+        TableroCompacto sustituido = new TableroCompacto(10, 10);
+        sustituido.registrarMetricas(registro, Tag.of("trabajo", "1"));
+        TableroCompacto tablero = new TableroCompacto(64, 64, TableroCompacto.Almacenamiento.DIRECTO);
+        tablero.registrarMetricas(registro, Tag.of("trabajo", "1"));
+        TableroCompacto otro = new TableroCompacto(10, 10);
+        otro.registrarMetricas(registro, Tag.of("trabajo", "2"));
+
+        // Cerrar el tablero sustituido no quita los indicadores de su sustituto
+        sustituido.close();
+        assertEquals(4096, registro.get("tablero.celulas").tag("trabajo", "1").gauge().value());
+
+        // Lecturas de métricas mientras se cierra: nunca ven memoria liberada
+        tablero.generarEstadoActualPorMontecarlo();
+        var vivas = registro.get("tablero.celulas.vivas").tag("trabajo", "1").gauge();
+        AtomicBoolean parar = new AtomicBoolean();
+        Thread lector = new Thread(() -> {
+            while (!parar.get()) {
+                double valor = vivas.value();
+                assertTrue(Double.isNaN(valor) || valor >= 0);
+            }
+        });
+        lector.start();
+        Thread.sleep(20);
+        tablero.close();
+        parar.set(true);
+        lector.join();
+        assertTrue(Double.isNaN(vivas.value()));
+
+        assertTrue(registro.find("tablero.celulas").tag("trabajo", "1").gauges().isEmpty());
+        assertTrue(registro.find("tablero.celulas.vivas").tag("trabajo", "1").gauges().isEmpty());
+        assertFalse(registro.find("tablero.celulas").tag("trabajo", "2").gauges().isEmpty());
+        otro.close();
+        assertTrue(registro.find("tablero.celulas").gauges().isEmpty());
+    }
+
+    @Test
+    void testMatematicas() {
+        Matematicas.generarNumeroPi(1000);
+        assertNull(registro.find("pi.estimacion").timer());
+
+        Matematicas.registrarMetricas(registro);
+        Matematicas.generarNumeroPi(1000);
+        Matematicas.generarNumeroPi(5000, 1, MetodoPi.SOBOL);
+        assertEquals(1, registro.get("pi.estimacion").tag("metodo", "original").timer().count());
+        assertEquals(5000, registro.get("pi.muestras").tag("metodo", "sobol").counter().count());
+        assertTrue(registro.get("pi.muestras.por.segundo").tag("metodo", "sobol").summary().mean() > 0);
+
+        // Retirar otro registro no desactiva este
+        Matematicas.retirarMetricas(new SimpleMeterRegistry());
+        Matematicas.generarNumeroPi(1000);
+        assertEquals(2, registro.get("pi.estimacion").tag("metodo", "original").timer().count());
+        Matematicas.retirarMetricas(registro);
+        Matematicas.generarNumeroPi(1000);
+        assertEquals(2, registro.get("pi.estimacion").tag("metodo", "original").timer().count());
+    }
+
+    @Test
+    void testContextoRetiraMetricas() {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ExamenTecnicasApplication.class)
+                .properties("examen.interactivo=false")
+                .initializers(c -> c.getBeanFactory().registerSingleton("registro", registro))
+                .run();
+        Matematicas.generarNumeroPi(1000);
+        contexto.close();
+        Matematicas.generarNumeroPi(1000);
+        assertEquals(1, registro.get("pi.estimacion").tag("metodo", "original").timer().count());
+    }
+
+    @Test
+    void testGraph() {
+        Graph<Integer> graph = new Graph<>();
+        graph.enableMetrics(registro);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addVertex(4);
+        graph.onePath(1, 3);
+        graph.onePath(1, 4);
+        assertEquals(2, registro.get("graph.path.search").timer().count());
+        assertEquals(3, registro.get("graph.path.visited").summary().max());
+        assertEquals(4, registro.get("graph.vertices").gauge().value());
+        assertEquals(2, registro.get("graph.edges").gauge().value());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.examentecnicas;
+
+import practica3.CsrGraph;
+import practica3.Graph;
+import practica3.IntGraph;
+import practica3.ParallelBfs;
+import practica3.PathFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelBfsTests {
+
+    @Test
+    void testDistanciasYCamino() {
+        Graph<String> graph = new Graph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("c", "d");
+        graph.addEdge("a", "c");
+        graph.addVertex("e");
+
+        ParallelBfs<String>.Result result = new ParallelBfs<>(graph.toCsr()).run("a");
+        assertEquals(0, result.distance("a"));
+        assertEquals(2, result.distance("d"));
+        assertEquals(List.of("a", "c", "d"), result.pathTo("d"));
+        assertFalse(result.isReachable("e"));
+        assertNull(result.pathTo("e"));
+        assertEquals(4, result.reachedCount());
+    }
+
+    @Test
+    void testVerticesEnteros() {
+        // Los identificadores no coinciden con los vértices: 7 -> 0, 9 -> 1, 1 -> 2
+        Graph<Integer> graph = new Graph<>();
+        graph.addEdge(7, 9);
+        graph.addVertex(1);
+
+        CsrGraph<Integer> csr = graph.toCsr();
+        ParallelBfs<Integer>.Result result = new ParallelBfs<>(csr).run(7);
+        assertEquals(1, result.distance(9));
+        assertEquals(List.of(7, 9), result.pathTo(9));
+        assertFalse(result.isReachable(1));
+        assertEquals(-1, result.distance(1));
+        assertEquals(1, result.distanceById(csr.idOf(9)));
+        assertEquals(result.reachedCount(), new ParallelBfs<>(csr).runFromId(csr.idOf(7)).reachedCount());
+    }
+
+    @Test
+    void testIgualQueBfsSecuencial() {
+        Random random = new Random(3);
+        int n = 50_000;
+        IntGraph graph = new IntGraph();
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 400_000; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph<Integer> csr = graph.toCsr();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBfs<Integer>.Result result = new ParallelBfs<>(csr, pool).runFromId(0);
+            // Con grado medio 16 los niveles centrales se recorren de abajo arriba
+            assertTrue(result.bottomUpLevels() > 0);
+
+            PathFinder<Integer> finder = new PathFinder<>(csr);
+            for (int i = 0; i < 100; i++) {
+                int to = random.nextInt(n);
+                int[] expected = finder.shortestPathById(0, to);
+                int[] path = result.pathToById(to);
+                assertEquals(expected == null ? -1 : expected.length - 1, result.distanceById(to));
+                if (path != null) {
+                    assertEquals(0, path[0]);
+                    assertEquals(to, path[path.length - 1]);
+                    for (int j = 1; j < path.length; j++) {
+                        assertTrue(graph.containsEdge(path[j - 1], path[j]));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.examentecnicas;
+
+import practica3.CsrGraph;
+import practica3.Graph;
+import practica3.IntGraph;
+import practica3.PathFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PathFinderTests {
+
+    @Test
+    void testShortestPath() {
+        Graph<String> graph = new Graph<>();
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("c", "d");
+        graph.addEdge("a", "d");
+        graph.addVertex("e");
+
+        PathFinder<String> finder = new PathFinder<>(graph.toCsr());
+        assertEquals(List.of("a", "d"), finder.shortestPath("a", "d"));
+        assertEquals(1.0, finder.lastCost(), 0.0);
+        assertNull(finder.shortestPath("a", "e"));
+        assertNull(finder.shortestPath("a", "z"));
+    }
+
+    @Test
+    void testShortestPathConEnteros() {
+        // Los identificadores no coinciden con los vértices: 7 -> 0, 9 -> 1
+        Graph<Integer> graph = new Graph<>();
+        graph.addEdge(7, 9);
+        graph.addVertex(1);
+
+        CsrGraph<Integer> csr = graph.toCsr();
+        PathFinder<Integer> finder = new PathFinder<>(csr);
+        assertEquals(List.of(7, 9), finder.shortestPath(7, 9));
+        assertNull(finder.shortestPath(9, 1));
+        assertArrayEquals(new int[]{csr.idOf(7), csr.idOf(9)},
+                finder.bidirectionalShortestPathById(csr.idOf(7), csr.idOf(9)));
+    }
+
+    @Test
+    void testBidireccionalIgualQueBfs() {
+        Random random = new Random(42);
+        IntGraph graph = new IntGraph();
+        for (int i = 0; i < 5000; i++) {
+            graph.addEdge(random.nextInt(2000), random.nextInt(2000));
+        }
+        CsrGraph<Integer> csr = graph.toCsr();
+        PathFinder<Integer> finder = new PathFinder<>(csr);
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(2000);
+            int to = random.nextInt(2000);
+            int[] bfs = finder.shortestPathById(from, to);
+            int[] bidirectional = finder.bidirectionalShortestPathById(from, to);
+            int[] dijkstra = finder.dijkstra(from, to);
+            if (bfs == null) {
+                assertNull(bidirectional);
+                assertNull(dijkstra);
+                continue;
+            }
+            assertEquals(bfs.length, bidirectional.length);
+            assertEquals(bfs.length, dijkstra.length);
+            assertEquals(from, bidirectional[0]);
+            assertEquals(to, bidirectional[bidirectional.length - 1]);
+            for (int j = 1; j < bidirectional.length; j++) {
+                assertEquals(true, graph.containsEdge(bidirectional[j - 1], bidirectional[j]));
+            }
+        }
+    }
+
+    @Test
+    void testDijkstraYAStar() {
+        // Rejilla de 10 x 10 con el camino recto encarecido
+        int lado = 10;
+        IntGraph graph = new IntGraph();
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int v = f * lado + c;
+                if (c + 1 < lado) {
+                    graph.addEdge(v, v + 1);
+                }
+                if (f + 1 < lado) {
+                    graph.addEdge(v, v + lado);
+                }
+            }
+        }
+        CsrGraph<Integer> csr = graph.toCsr().withWeights((a, b) -> (a < lado && b < lado) ? 10.0 : 1.0);
+        PathFinder<Integer> finder = new PathFinder<>(csr);
+
+        int[] dijkstra = finder.dijkstra(0, lado - 1);
+        double cost = finder.lastCost();
+        assertEquals(11.0, cost, 0.0);
+        int visitadosDijkstra = finder.lastVisited();
+
+        PathFinder.Heuristic manhattan = (id, target) ->
+                Math.abs(id / lado - target / lado) + Math.abs(id % lado - target % lado);
+        int[] aStar = finder.aStar(0, lado - 1, manhattan);
+        assertEquals(cost, finder.lastCost(), 0.0);
+        assertEquals(dijkstra.length, aStar.length);
+        assertEquals(true, finder.lastVisited() <= visitadosDijkstra);
+
+        assertArrayEquals(new int[]{5}, finder.dijkstra(5, 5));
+    }
+}
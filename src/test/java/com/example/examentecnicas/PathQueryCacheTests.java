@@ -0,0 +1,57 @@
+package com.example.examentecnicas;
+
+import practica3.Graph;
+import practica3.PathQueryCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PathQueryCacheTests {
+
+    @Test
+    void testAciertosEInvalidacion() {
+        Graph<Integer> graph = new Graph<>();
+        graph.addEdge(1, 2);
+        graph.addVertex(3);
+        PathQueryCache<Integer> cache = PathQueryCache.of(graph, 10);
+
+        List<Integer> path = cache.onePath(1, 2);
+        assertSame(path, cache.onePath(1, 2));
+        assertNull(cache.onePath(1, 3));
+        assertNull(cache.onePath(1, 3));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+
+        // Al unir los componentes, el resultado negativo deja de valer y el positivo se conserva
+        graph.addEdge(2, 3);
+        assertEquals(List.of(1, 2, 3), cache.onePath(1, 3));
+        assertSame(path, cache.onePath(1, 2));
+        assertEquals(1, cache.invalidations());
+        assertEquals(3, cache.hits());
+    }
+
+    @Test
+    void testExpulsionLru() {
+        Graph<Integer> graph = new Graph<>();
+        for (int i = 0; i < 10; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        PathQueryCache<Integer> cache = PathQueryCache.of(graph, 2);
+        cache.onePath(0, 1);
+        cache.onePath(0, 2);
+        cache.onePath(0, 1);
+        cache.onePath(0, 3);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+
+        cache.onePath(0, 1);
+        assertEquals(2, cache.hits());
+        cache.onePath(0, 2);
+        assertEquals(4, cache.misses());
+        assertEquals(2.0 / 6, cache.hitRate(), 1e-12);
+    }
+}
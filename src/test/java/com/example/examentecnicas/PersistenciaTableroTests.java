@@ -0,0 +1,126 @@
+package com.example.examentecnicas;
+
+import dominio.PersistenciaTablero;
+import dominio.TableroCompacto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistenciaTableroTests {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testBinarioConservaEstadoYGeneracion() throws IOException {
+        TableroCompacto tablero = new TableroCompacto(70, 130);
+        tablero.generarEstadoActualPorMontecarlo();
+        tablero.avanzar(3);
+
+        Path fichero = directorio.resolve("tablero.bin");
+        PersistenciaTablero.guardarBinario(tablero, fichero);
+        TableroCompacto leido = PersistenciaTablero.leerBinario(fichero);
+
+        assertEquals(3, leido.getGeneracion());
+        assertEquals(tablero.toString(), leido.toString());
+        tablero.transitarAlEstadoSiguiente();
+        leido.transitarAlEstadoSiguiente();
+        assertEquals(tablero.toString(), leido.toString());
+    }
+
+    @Test
+    void testLeerFueraDelHeap() throws IOException {
+        TableroCompacto tablero = new TableroCompacto(70, 130);
+        tablero.generarEstadoActualPorMontecarlo();
+        tablero.avanzar(2);
+        Path fichero = directorio.resolve("tablero.bin");
+        PersistenciaTablero.guardarBinario(tablero, fichero);
+        Path rle = directorio.resolve("tablero.rle");
+        PersistenciaTablero.guardarRle(tablero, rle);
+        Path proyeccion = directorio.resolve("estado.mmap");
+
+        try (TableroCompacto directo = PersistenciaTablero.leerBinario(fichero, TableroCompacto.Almacenamiento.DIRECTO);
+             TableroCompacto proyectado = PersistenciaTablero.leerBinario(fichero, proyeccion);
+             TableroCompacto directoRle = PersistenciaTablero.leerRle(rle, TableroCompacto.Almacenamiento.DIRECTO)) {
+            assertEquals(TableroCompacto.Almacenamiento.DIRECTO, directo.getAlmacenamiento());
+            assertEquals(TableroCompacto.Almacenamiento.PROYECTADO, proyectado.getAlmacenamiento());
+            assertEquals(2, proyectado.getGeneracion());
+            for (TableroCompacto leido : List.of(directo, proyectado, directoRle)) {
+                assertEquals(tablero.toString(), leido.toString());
+            }
+            tablero.transitarAlEstadoSiguiente();
+            proyectado.transitarAlEstadoSiguiente();
+            assertEquals(tablero.toString(), proyectado.toString());
+        }
+        try (TableroCompacto proyectadoRle = PersistenciaTablero.leerRle(rle, proyeccion)) {
+            assertEquals(TableroCompacto.Almacenamiento.PROYECTADO, proyectadoRle.getAlmacenamiento());
+        }
+
+        // Proyectar sobre el propio origen lo vaciaría
+        assertThrows(IllegalArgumentException.class, () -> PersistenciaTablero.leerBinario(fichero, fichero));
+        assertThrows(IllegalArgumentException.class,
+                () -> PersistenciaTablero.leerBinario(fichero, TableroCompacto.Almacenamiento.PROYECTADO));
+        assertEquals(tablero.getFilas(), PersistenciaTablero.leerBinario(fichero).getFilas());
+    }
+
+    @Test
+    void testBinarioNoValido() throws IOException {
+        Path fichero = directorio.resolve("otro.bin");
+        Files.write(fichero, new byte[32]);
+        assertThrows(IOException.class, () -> PersistenciaTablero.leerBinario(fichero));
+
+        // Cabecera válida con dimensiones negativas o mayores que el fichero
+        TableroCompacto tablero = new TableroCompacto(4, 4);
+        Path valido = directorio.resolve("valido.bin");
+        PersistenciaTablero.guardarBinario(tablero, valido);
+        byte[] bytes = Files.readAllBytes(valido);
+        ByteBuffer cabecera = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putInt(8, -4);
+        Files.write(fichero, bytes);
+        assertThrows(IOException.class, () -> PersistenciaTablero.leerBinario(fichero));
+        cabecera.putInt(8, Integer.MAX_VALUE).putInt(12, Integer.MAX_VALUE);
+        Files.write(fichero, bytes);
+        assertThrows(IOException.class, () -> PersistenciaTablero.leerBinario(fichero));
+
+        Path rle = directorio.resolve("vacio.rle");
+        Files.write(rle, List.of("x = 0, y = 3", "!"));
+        assertThrows(IOException.class, () -> PersistenciaTablero.leerRle(rle));
+    }
+
+    @Test
+    void testTextoIdaYVuelta() throws IOException {
+        TableroCompacto tablero = new TableroCompacto(10, 80);
+        tablero.generarEstadoActualPorMontecarlo();
+
+        Path fichero = directorio.resolve("matriz");
+        PersistenciaTablero.guardarTexto(tablero, fichero);
+        TableroCompacto leido = new TableroCompacto(10, 80);
+        leido.leerEstadoActual(fichero.toString());
+
+        assertEquals(tablero.toString(), leido.toString());
+        assertEquals(tablero.toString(), Files.readString(fichero));
+    }
+
+    @Test
+    void testRle() throws IOException {
+        Path fichero = directorio.resolve("planeador.rle");
+        Files.write(fichero, List.of("#N Glider", "x = 3, y = 3, rule = B3/S23", "bob$2bo$3o!"));
+        TableroCompacto planeador = PersistenciaTablero.leerRle(fichero);
+        assertEquals("010\n001\n111\n", planeador.toString());
+
+        Path copia = directorio.resolve("copia.rle");
+        PersistenciaTablero.guardarRle(planeador, copia);
+        assertTrue(Files.readString(copia).contains("bo$2bo$3o!"));
+        assertEquals(planeador.toString(), PersistenciaTablero.leerRle(copia).toString());
+    }
+}
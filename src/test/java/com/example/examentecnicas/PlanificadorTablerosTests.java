@@ -0,0 +1,83 @@
+package com.example.examentecnicas;
+
+import dominio.PlanificadorTableros;
+import dominio.PlanificadorTableros.Estado;
+import dominio.Tablero;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanificadorTablerosTests {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Carga un tablero con las filas indicadas en la esquina superior izquierda.
+     */
+    private Tablero tablero(String... filas) throws IOException {
+        Path fichero = Files.createTempFile(dir, "tablero", ".txt");
+        Files.write(fichero, List.of(filas));
+        Tablero tablero = new Tablero();
+        tablero.leerEstadoActual(fichero.toString());
+        return tablero;
+    }
+
+    @Test
+    void testCiclos() throws Exception {
+        Tablero bloque = tablero("", "0110", "0110");
+        Tablero parpadeador = tablero("", "0111");
+        Tablero vacio = tablero("");
+        // Un solo punto muere en la primera generación y luego queda vacío
+        Tablero punto = tablero("1");
+        PlanificadorTableros planificador = new PlanificadorTableros(new ForkJoinPool(2));
+        planificador.setTablerosPorLote(3);
+        planificador.setGeneracionesPorTurno(4);
+        PlanificadorTableros.Resultado resultado = planificador.simular(List.of(bloque, parpadeador, vacio, punto));
+
+        assertEquals(Estado.ESTABLE, resultado.getEstado(0));
+        assertEquals(1, resultado.getPeriodo(0));
+        assertEquals(0, resultado.getInicioCiclo(0));
+        assertEquals(Estado.OSCILANTE, resultado.getEstado(1));
+        assertEquals(2, resultado.getPeriodo(1));
+        assertEquals(Estado.ESTABLE, resultado.getEstado(2));
+        assertEquals(1, resultado.getInicioCiclo(3));
+        assertEquals(2, resultado.getGeneraciones(3));
+        assertEquals(1 + 2 + 1 + 2, resultado.getTotalGeneraciones());
+    }
+
+    @Test
+    void testMuchosTableros() throws Exception {
+        List<Tablero> tableros = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Tablero tablero = new Tablero();
+            tablero.generarEstadoActualPorMontecarlo();
+            tableros.add(tablero);
+        }
+        PlanificadorTableros planificador = new PlanificadorTableros();
+        planificador.setMaxGeneraciones(300);
+        PlanificadorTableros.Resultado resultado = planificador.simular(tableros);
+
+        int total = 0;
+        long generaciones = 0;
+        for (int i = 0; i < tableros.size(); i++) {
+            assertTrue(resultado.getGeneraciones(i) <= 300);
+            generaciones += resultado.getGeneraciones(i);
+        }
+        for (Estado estado : Estado.values()) {
+            total += resultado.contar(estado);
+        }
+        assertEquals(200, total);
+        assertEquals(generaciones, resultado.getTotalGeneraciones());
+        assertTrue(resultado.getGeneracionesPorSegundo() > 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.examentecnicas;
+
+import dominio.RenderizadorTablero;
+import dominio.Tablero;
+import dominio.TableroCompacto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RenderizadorTableroTests {
+
+    @Test
+    void testFotogramaIgualQueToString() throws IOException {
+        TableroCompacto compacto = new TableroCompacto(20, 100);
+        compacto.generarEstadoActualPorMontecarlo();
+        RenderizadorTablero renderizador = new RenderizadorTablero(20, 100);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        renderizador.renderizar(compacto);
+        renderizador.escribirFotograma(Channels.newChannel(salida));
+        assertEquals(compacto.toString(), salida.toString(StandardCharsets.US_ASCII));
+
+        Tablero tablero = new Tablero();
+        tablero.generarEstadoActualPorMontecarlo();
+        RenderizadorTablero renderizadorTablero = new RenderizadorTablero(tablero.getFilas(), tablero.getColumnas());
+        salida.reset();
+        renderizadorTablero.renderizar(tablero);
+        renderizadorTablero.escribirFotograma(salida);
+        assertEquals(tablero.toString(), salida.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testVentana() {
+        TableroCompacto tablero = new TableroCompacto(10, 10);
+        tablero.establecerCelula(3, 4, true);
+        RenderizadorTablero renderizador = new RenderizadorTablero(2, 3, 2, 3);
+        byte[] fotograma = renderizador.renderizar(tablero);
+        assertEquals("000\n010\n", new String(fotograma, StandardCharsets.US_ASCII));
+        assertSame(fotograma, renderizador.renderizar(tablero));
+        assertThrows(IndexOutOfBoundsException.class, () -> new RenderizadorTablero(9, 9, 2, 2).renderizar(tablero));
+    }
+
+    @Test
+    void testDiferencias() throws IOException {
+        TableroCompacto tablero = new TableroCompacto(5, 5);
+        tablero.establecerCelula(2, 1, true);
+        tablero.establecerCelula(2, 2, true);
+        tablero.establecerCelula(2, 3, true);
+        RenderizadorTablero renderizador = new RenderizadorTablero(5, 5);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        renderizador.renderizar(tablero);
+        renderizador.escribirDiferencias(salida);
+        assertEquals("\u001b[2J\u001b[H" + tablero, salida.toString(StandardCharsets.US_ASCII));
+
+        // El parpadeador solo cambia cuatro células
+        salida.reset();
+        tablero.transitarAlEstadoSiguiente();
+        renderizador.renderizar(tablero);
+        renderizador.escribirDiferencias(salida);
+        assertEquals("\u001b[2;3H1\u001b[3;2H0\u001b[3;4H0\u001b[4;3H1\u001b[6;1H",
+                salida.toString(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.examentecnicas;
+
+import dominio.PersistenciaTablero;
+import dominio.TableroCompacto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableroCompactoTests {
+
+    @Test
+    void testParpadeador() {
+        TableroCompacto tablero = new TableroCompacto(5, 5);
+        tablero.establecerCelula(2, 1, true);
+        tablero.establecerCelula(2, 2, true);
+        tablero.establecerCelula(2, 3, true);
+
+        tablero.transitarAlEstadoSiguiente();
+        assertTrue(tablero.estaViva(1, 2));
+        assertTrue(tablero.estaViva(2, 2));
+        assertTrue(tablero.estaViva(3, 2));
+        assertFalse(tablero.estaViva(2, 1));
+        assertEquals(3, tablero.contarCelulasVivas());
+    }
+
+    @Test
+    void testCoincideConReglasPorCelula() {
+        // 130 columnas: tres palabras por fila, la última incompleta
+        int filas = 40;
+        int columnas = 130;
+        Random random = new Random(42);
+        boolean[][] referencia = new boolean[filas][columnas];
+        TableroCompacto tablero = new TableroCompacto(filas, columnas);
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                referencia[i][j] = random.nextInt(3) == 0;
+                tablero.establecerCelula(i, j, referencia[i][j]);
+            }
+        }
+
+        for (int generacion = 0; generacion < 20; generacion++) {
+            referencia = siguienteGeneracion(referencia);
+            tablero.transitarAlEstadoSiguiente();
+            for (int i = 0; i < filas; i++) {
+                for (int j = 0; j < columnas; j++) {
+                    assertEquals(referencia[i][j], tablero.estaViva(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFueraDelHeap(@TempDir Path dir) throws IOException {
+        TableroCompacto heap = new TableroCompacto(150, 200);
+        heap.generarEstadoActualPorMontecarlo();
+        Path fichero = dir.resolve("tablero.mmap");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try (TableroCompacto directo = new TableroCompacto(150, 200, TableroCompacto.Almacenamiento.DIRECTO);
+             TableroCompacto proyectado = new TableroCompacto(150, 200, fichero)) {
+            assertEquals(TableroCompacto.Almacenamiento.PROYECTADO, proyectado.getAlmacenamiento());
+            assertEquals(2L * 150 * 4 * 8, Files.size(fichero));
+            for (int i = 0; i < 150; i++) {
+                for (int j = 0; j < 200; j++) {
+                    directo.establecerCelula(i, j, heap.estaViva(i, j));
+                    proyectado.establecerCelula(i, j, heap.estaViva(i, j));
+                }
+            }
+            directo.activarModoIncremental();
+            proyectado.activarParalelismo(pool, 16);
+            for (int generacion = 0; generacion < 30; generacion++) {
+                heap.transitarAlEstadoSiguiente();
+                directo.transitarAlEstadoSiguiente();
+                proyectado.transitarAlEstadoSiguiente();
+            }
+            assertEquals(heap.toString(), directo.toString());
+            assertEquals(heap.toString(), proyectado.toString());
+            assertEquals(heap.contarCelulasVivas(), proyectado.contarCelulasVivas());
+
+            Path binario = dir.resolve("tablero.bin");
+            PersistenciaTablero.guardarBinario(directo, binario);
+            assertEquals(heap.toString(), PersistenciaTablero.leerBinario(binario).toString());
+
+            directo.close();
+            directo.close();
+            assertThrows(IllegalStateException.class, () -> directo.estaViva(0, 0));
+            assertThrows(IllegalStateException.class, directo::transitarAlEstadoSiguiente);
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new TableroCompacto(10, 10, TableroCompacto.Almacenamiento.PROYECTADO));
+    }
+
+    @Test
+    void testParaleloIgualQueSecuencial() {
+        TableroCompacto secuencial = new TableroCompacto(300, 200);
+        secuencial.generarEstadoActualPorMontecarlo();
+        TableroCompacto paralelo = new TableroCompacto(300, 200);
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 200; j++) {
+                paralelo.establecerCelula(i, j, secuencial.estaViva(i, j));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            paralelo.activarParalelismo(pool, 7);
+            for (int generacion = 0; generacion < 30; generacion++) {
+                secuencial.transitarAlEstadoSiguiente();
+                paralelo.transitarAlEstadoSiguiente();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(secuencial.toString(), paralelo.toString());
+    }
+
+    @Test
+    void testIncrementalIgualQueCompleto() {
+        TableroCompacto completo = new TableroCompacto(200, 300);
+        TableroCompacto incremental = new TableroCompacto(200, 300);
+        incremental.activarModoIncremental();
+        Random random = new Random(7);
+        for (int i = 20; i < 60; i++) {
+            for (int j = 100; j < 170; j++) {
+                boolean viva = random.nextBoolean();
+                completo.establecerCelula(i, j, viva);
+                incremental.establecerCelula(i, j, viva);
+            }
+        }
+
+        for (int generacion = 0; generacion < 120; generacion++) {
+            if (generacion == 50) {
+                // Planeador añadido a mitad de la simulación
+                int[][] planeador = {{150, 11}, {151, 12}, {152, 10}, {152, 11}, {152, 12}};
+                for (int[] celula : planeador) {
+                    completo.establecerCelula(celula[0], celula[1], true);
+                    incremental.establecerCelula(celula[0], celula[1], true);
+                }
+            }
+            completo.transitarAlEstadoSiguiente();
+            incremental.transitarAlEstadoSiguiente();
+            assertEquals(completo.toString(), incremental.toString());
+        }
+    }
+
+    @Test
+    void testIncrementalSinActividad() {
+        TableroCompacto tablero = new TableroCompacto(256, 256);
+        tablero.activarModoIncremental();
+        // Bloque 2x2: vida estática
+        tablero.establecerCelula(100, 100, true);
+        tablero.establecerCelula(100, 101, true);
+        tablero.establecerCelula(101, 100, true);
+        tablero.establecerCelula(101, 101, true);
+
+        tablero.transitarAlEstadoSiguiente();
+        tablero.transitarAlEstadoSiguiente();
+        assertEquals(0, tablero.getTeselasSucias());
+        assertEquals(4, tablero.contarCelulasVivas());
+    }
+
+    @Test
+    void testGenerarEstadoActualPorMontecarlo() {
+        TableroCompacto tablero = new TableroCompacto(3, 70);
+        tablero.generarEstadoActualPorMontecarlo();
+        String texto = tablero.toString();
+        assertEquals(3 * 71, texto.length());
+    }
+
+    @Test
+    void testCopiarEstado() {
+        try (TableroCompacto origen = new TableroCompacto(100, 130);
+             TableroCompacto directo = new TableroCompacto(100, 130, TableroCompacto.Almacenamiento.DIRECTO);
+             TableroCompacto heap = new TableroCompacto(100, 130)) {
+            origen.generarEstadoActualPorMontecarlo();
+            origen.avanzar(3);
+            directo.copiarEstado(origen);
+            heap.activarModoIncremental();
+            heap.avanzar(2);
+            heap.copiarEstado(directo);
+            assertEquals(origen.toString(), heap.toString());
+            assertEquals(3, heap.getGeneracion());
+
+            origen.avanzar(5);
+            heap.avanzar(5);
+            directo.avanzar(5);
+            assertEquals(origen.toString(), heap.toString());
+            assertEquals(origen.toString(), directo.toString());
+            assertThrows(IllegalArgumentException.class, () -> heap.copiarEstado(new TableroCompacto(100, 129)));
+        }
+    }
+
+    private static boolean[][] siguienteGeneracion(boolean[][] estado) {
+        int filas = estado.length;
+        int columnas = estado[0].length;
+        boolean[][] siguiente = new boolean[filas][columnas];
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                int vecinos = 0;
+                for (int di = -1; di <= 1; di++) {
+                    for (int dj = -1; dj <= 1; dj++) {
+                        int f = i + di;
+                        int c = j + dj;
+                        if ((di != 0 || dj != 0) && f >= 0 && f < filas && c >= 0 && c < columnas && estado[f][c]) {
+                            vecinos++;
+                        }
+                    }
+                }
+                siguiente[i][j] = vecinos == 3 || (estado[i][j] && vecinos == 2);
+            }
+        }
+        return siguiente;
+    }
+}
@@ -1,13 +1,25 @@
 package com.example.examentecnicas;
 
+import dominio.ReglaVida;
 import dominio.Tablero;
+import dominio.TableroCompacto;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TableroTests {
 
     @Test
-    void testLeerEstadoActual() {
+    void testLeerEstadoActual() throws IOException {
         Tablero tablero = new Tablero();
         tablero.leerEstadoActual();
         assertNotNull(tablero.toString());
@@ -20,4 +32,159 @@ class TableroTests {
         assertNotNull(tablero.toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testAvanzar() {
+        Tablero tablero = new Tablero();
+        tablero.generarEstadoActualPorMontecarlo();
+        String inicial = tablero.toString();
+        tablero.avanzar(0);
+        assertEquals(inicial, tablero.toString());
+        assertThrows(IllegalArgumentException.class, () -> tablero.avanzar(-1));
+    }
+
+    @Test
+    void testCiclos(@TempDir Path dir) throws IOException {
+        // Un planeador avanza sin repetir estado hasta chocar con el borde
+        Path fichero = dir.resolve("matriz.txt");
+        Files.write(fichero, List.of("", "0111", "", "", "", "", "", "", "", "", "000000000001", "000000000101",
+                "000000000011"));
+        Tablero tablero = new Tablero();
+        tablero.leerEstadoActual(fichero.toString());
+        long inicial = tablero.hashEstado();
+        assertEquals(8, tablero.contarCelulasVivas());
+
+        tablero.transitarAlEstadoSiguiente();
+        assertNotEquals(inicial, tablero.hashEstado());
+        assertEquals(0, tablero.getPeriodo());
+        assertEquals(-1, tablero.getInicioCiclo());
+
+        tablero.avanzar(200);
+        assertTrue(tablero.getPeriodo() > 0);
+        assertTrue(tablero.getInicioCiclo() >= 0);
+        assertEquals(201, tablero.getGeneracion());
+
+        Files.write(fichero, List.of("", "0111"));
+        tablero = new Tablero();
+        tablero.leerEstadoActual(fichero.toString());
+        tablero.avanzar(2);
+        assertEquals(2, tablero.getPeriodo());
+        assertEquals(0, tablero.getInicioCiclo());
+        assertFalse(tablero.isEstable());
+
+        Files.write(fichero, List.of("1"));
+        tablero = new Tablero();
+        tablero.leerEstadoActual(fichero.toString());
+        tablero.avanzar(2);
+        assertTrue(tablero.isEstable());
+        assertTrue(tablero.isMuerto());
+        assertEquals(1, tablero.getInicioCiclo());
+        assertEquals(0, tablero.hashEstado());
+    }
+
+    @Test
+    void testReglas(@TempDir Path dir) throws IOException {
+        ReglaVida regla = ReglaVida.analizar("s23/b63");
+        assertEquals(ReglaVida.HIGHLIFE, regla);
+        assertEquals("B36/S23", regla.toString());
+        assertTrue(regla.nace(6));
+        assertTrue(regla.sobrevive(2));
+        assertFalse(ReglaVida.CONWAY.nace(6));
+        assertThrows(IllegalArgumentException.class, () -> ReglaVida.analizar("B3S23"));
+        assertThrows(IllegalArgumentException.class, () -> ReglaVida.analizar("B39/S23"));
+        assertThrows(IllegalArgumentException.class, () -> ReglaVida.analizar("S3/S23"));
+
+        // La célula central, muerta, tiene 6 vecinos: solo nace con HighLife
+        Path fichero = dir.resolve("matriz.txt");
+        Files.write(fichero, List.of("111", "100", "110"));
+        Tablero conway = new Tablero(3, 3);
+        conway.leerEstadoActual(fichero.toString());
+        conway.transitarAlEstadoSiguiente();
+        assertEquals('0', conway.toString().charAt(5));
+
+        Tablero highLife = new Tablero(3, 3);
+        highLife.setRegla("B36/S23");
+        highLife.leerEstadoActual(fichero.toString());
+        highLife.transitarAlEstadoSiguiente();
+        assertEquals('1', highLife.toString().charAt(5));
+    }
+
+    @Test
+    void testToroide(@TempDir Path dir) throws IOException {
+        // En un toroide de 8x8 el planeador vuelve a su posición cada 32 generaciones
+        Path fichero = dir.resolve("matriz.txt");
+        Files.write(fichero, List.of("010", "001", "111"));
+        Tablero tablero = new Tablero(8, 8);
+        tablero.setTopologia(Tablero.Topologia.TOROIDE);
+        tablero.leerEstadoActual(fichero.toString());
+        String inicial = tablero.toString();
+        long hashInicial = tablero.hashEstado();
+
+        tablero.avanzar(32);
+        assertEquals(inicial, tablero.toString());
+        assertEquals(hashInicial, tablero.hashEstado());
+        assertEquals(32, tablero.getPeriodo());
+        assertEquals(0, tablero.getInicioCiclo());
+        assertEquals(5, tablero.contarCelulasVivas());
+
+        // En un tablero plano acaba convertido en un bloque quieto en la esquina
+        Tablero plano = new Tablero(8, 8);
+        plano.leerEstadoActual(fichero.toString());
+        plano.avanzar(40);
+        assertTrue(plano.isEstable());
+        assertEquals(4, plano.contarCelulasVivas());
+        assertThrows(IllegalArgumentException.class, () -> new Tablero(0, 5));
+    }
+
+    @Test
+    void testResumenIncremental(@TempDir Path dir) throws IOException {
+        Tablero tablero = new Tablero(12, 17);
+        tablero.generarEstadoActualPorMontecarlo();
+        tablero.avanzar(5);
+
+        // El resumen incremental coincide con el calculado desde cero, aunque
+        // entre medias se hayan ampliado las claves compartidas
+        new Tablero(300, 300);
+        Path fichero = dir.resolve("matriz.txt");
+        Files.writeString(fichero, tablero.toString());
+        Tablero cargado = new Tablero(12, 17);
+        cargado.leerEstadoActual(fichero.toString());
+        assertEquals(tablero.hashEstado(), cargado.hashEstado());
+        assertEquals(tablero.contarCelulasVivas(), cargado.contarCelulasVivas());
+    }
+
+    @Test
+    void testCopiarEstado() {
+        Tablero origen = new Tablero(20, 25);
+        origen.generarEstadoActualPorMontecarlo();
+        origen.avanzar(4);
+        Tablero copia = new Tablero(20, 25);
+        copia.avanzar(3);
+        copia.copiarEstado(origen);
+        assertEquals(origen.toString(), copia.toString());
+        assertEquals(origen.hashEstado(), copia.hashEstado());
+        assertEquals(origen.contarCelulasVivas(), copia.contarCelulasVivas());
+
+        origen.avanzar(6);
+        copia.avanzar(6);
+        assertEquals(origen.toString(), copia.toString());
+        assertThrows(IllegalArgumentException.class, () -> copia.copiarEstado(new Tablero()));
+    }
+
+    @Test
+    void testCoincideConTableroCompacto(@TempDir Path dir) throws IOException {
+        Tablero tablero = new Tablero(40, 70);
+        tablero.generarEstadoActualPorMontecarlo();
+        Path fichero = dir.resolve("matriz.txt");
+        Files.writeString(fichero, tablero.toString());
+        TableroCompacto compacto = new TableroCompacto(40, 70);
+        compacto.leerEstadoActual(fichero.toString());
+
+        for (int g = 0; g < 50; g++) {
+            tablero.transitarAlEstadoSiguiente();
+            compacto.transitarAlEstadoSiguiente();
+            assertEquals(compacto.toString(), tablero.toString());
+            assertEquals(compacto.contarCelulasVivas(), tablero.contarCelulasVivas());
+        }
+    }
+
+}